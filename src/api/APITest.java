@@ -58,6 +58,12 @@ public class APITest {
             double price = marketing.getShowTicketPrice("15");
             double discount = marketing.getShowDiscount("15");
             System.out.println("ShowID 15: Price=" + price + ", Discount=" + discount);
+            ShowPricingDTO pricing = marketing.getShowPricing("15");
+            if (pricing != null) {
+                System.out.println("ShowID 15: Price=" + pricing.getPrice() +
+                        ", Discount=" + pricing.getDiscount() +
+                        ", Effective=" + pricing.getEffectivePrice());
+            }
 
             // Test 3: Fetch Film Details for "The Space Odyssey"
             System.out.println("\nFetching film details for 'The Space Odyssey'...");
@@ -0,0 +1,248 @@
+package api;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Implementation of {@link AsyncMarketingInterface} that runs a blocking
+ * {@link MarketingInterface} on an executor.
+ *
+ * <p>By default calls run on the shared {@link MarketingExecutor}: each call gets its own
+ * virtual thread, so thousands of outstanding calls cost very little while they wait,
+ * and only as many run at once as the {@link ConnectionPool} can serve.
+ *
+ * <p><b>Usage Example:</b>
+ * <pre>
+ * AsyncMarketingInterface marketing = new AsyncMarketingData();
+ * marketing.getClientDetailsAsync("1")
+ *         .thenAccept(client -&gt; System.out.println(client.getContactName()));
+ * </pre>
+ */
+public class AsyncMarketingData implements AsyncMarketingInterface {
+    private final MarketingInterface delegate;
+    private final Executor executor;
+
+    /**
+     * Creates an async API backed by a new {@link MarketingData}, running calls on the
+     * shared {@link MarketingExecutor}.
+     */
+    public AsyncMarketingData() {
+        this(new MarketingData());
+    }
+
+    /**
+     * Creates an async API backed by the given implementation, running calls on the
+     * shared {@link MarketingExecutor}.
+     * @param delegate the blocking implementation to call
+     */
+    public AsyncMarketingData(MarketingInterface delegate) {
+        this(delegate, MarketingExecutor.shared());
+    }
+
+    /**
+     * Creates an async API backed by the given implementation and executor.
+     * @param delegate the blocking implementation to call
+     * @param executor the executor that runs the blocking calls
+     */
+    public AsyncMarketingData(MarketingInterface delegate, Executor executor) {
+        this.delegate = delegate;
+        this.executor = executor;
+    }
+
+    @Override
+    public CompletableFuture<Map<String, Integer>> getPastVisitInformationAsync(String showId) {
+        return CompletableFuture.supplyAsync(() -> delegate.getPastVisitInformation(showId), executor);
+    }
+
+    @Override
+    public CompletableFuture<String> getTicketSalesTrendsAsync(String eventName, LocalDate eventDate, String eventTime) {
+        return CompletableFuture.supplyAsync(() -> delegate.getTicketSalesTrends(eventName, eventDate, eventTime), executor);
+    }
+
+    @Override
+    public CompletableFuture<List<LocalDate>> getHighTrafficDatesAsync(String showId) {
+        return CompletableFuture.supplyAsync(() -> delegate.getHighTrafficDates(showId), executor);
+    }
+
+    @Override
+    public CompletableFuture<List<LocalDate>> getHighTrafficDatesAsync(String showId, String timeframe) {
+        return CompletableFuture.supplyAsync(() -> delegate.getHighTrafficDates(showId, timeframe), executor);
+    }
+
+    @Override
+    public CompletableFuture<Map<String, Integer>> getPreSaleTrendsAsync(String showId, String ticketType) {
+        return CompletableFuture.supplyAsync(() -> delegate.getPreSaleTrends(showId, ticketType), executor);
+    }
+
+    @Override
+    public CompletableFuture<Map<String, String>> getTicketCategoriesAsync(String showId) {
+        return CompletableFuture.supplyAsync(() -> delegate.getTicketCategories(showId), executor);
+    }
+
+    @Override
+    public CompletableFuture<GroupBookingDTO> getGroupBookingDetailsAsync(String eventName, LocalDate eventDate, String eventTime, String groupId) {
+        return CompletableFuture.supplyAsync(() -> delegate.getGroupBookingDetails(eventName, eventDate, eventTime, groupId), executor);
+    }
+
+    @Override
+    public CompletableFuture<List<String>> getCompaniesBookedForEventAsync(String eventName, LocalDate eventDate, String eventTime) {
+        return CompletableFuture.supplyAsync(() -> delegate.getCompaniesBookedForEvent(eventName, eventDate, eventTime), executor);
+    }
+
+    @Override
+    public CompletableFuture<List<String>> getEventsNeedingPromotionAsync() {
+        return CompletableFuture.supplyAsync(() -> delegate.getEventsNeedingPromotion(), executor);
+    }
+
+    @Override
+    public CompletableFuture<String> generatePromotionImpactReportAsync(String eventName, LocalDate eventDate, String eventTime) {
+        return CompletableFuture.supplyAsync(() -> delegate.generatePromotionImpactReport(eventName, eventDate, eventTime), executor);
+    }
+
+    @Override
+    public CompletableFuture<List<BookingDTO>> getConfirmedBookingsAsync(String eventName, LocalDate eventDate, String eventTime) {
+        return CompletableFuture.supplyAsync(() -> delegate.getConfirmedBookings(eventName, eventDate, eventTime), executor);
+    }
+
+    @Override
+    public CompletableFuture<Integer> getUsedDiscountedTicketsAsync(String eventName, LocalDate eventDate, String eventTime) {
+        return CompletableFuture.supplyAsync(() -> delegate.getUsedDiscountedTickets(eventName, eventDate, eventTime), executor);
+    }
+
+    @Override
+    public CompletableFuture<Boolean> confirmGroupBookingAsync(String eventName, String groupId, int groupSize) {
+        return CompletableFuture.supplyAsync(() -> delegate.confirmGroupBooking(eventName, groupId, groupSize), executor);
+    }
+
+    @Override
+    public CompletableFuture<Boolean> cancelGroupBookingAsync(String eventName, String groupId, int groupSize) {
+        return CompletableFuture.supplyAsync(() -> delegate.cancelGroupBooking(eventName, groupId, groupSize), executor);
+    }
+
+    @Override
+    public CompletableFuture<List<Boolean>> confirmGroupBookingsAsync(List<GroupBookingRequest> requests) {
+        return CompletableFuture.supplyAsync(() -> delegate.confirmGroupBookings(requests), executor);
+    }
+
+    @Override
+    public CompletableFuture<List<Boolean>> cancelGroupBookingsAsync(List<GroupBookingRequest> requests) {
+        return CompletableFuture.supplyAsync(() -> delegate.cancelGroupBookings(requests), executor);
+    }
+
+    @Override
+    public CompletableFuture<List<String>> getLowSalesAlertsAsync() {
+        return CompletableFuture.supplyAsync(() -> delegate.getLowSalesAlerts(), executor);
+    }
+
+    @Override
+    public CompletableFuture<FilmDetails> getFilmDetailsAsync(String filmName) {
+        return CompletableFuture.supplyAsync(() -> delegate.getFilmDetails(filmName), executor);
+    }
+
+    @Override
+    public CompletableFuture<ClientDTO> getClientDetailsAsync(String clientId) {
+        return CompletableFuture.supplyAsync(() -> delegate.getClientDetails(clientId), executor);
+    }
+
+    @Override
+    public CompletableFuture<Boolean> updateClientDetailsAsync(String clientId, String contactEmail, String contactName, String streetAddress) {
+        return CompletableFuture.supplyAsync(() -> delegate.updateClientDetails(clientId, contactEmail, contactName, streetAddress), executor);
+    }
+
+    @Override
+    public CompletableFuture<Boolean> bookRoomForClientAsync(String clientId, LocalDate date, LocalTime startTime, String title, String location) {
+        return CompletableFuture.supplyAsync(() -> delegate.bookRoomForClient(clientId, date, startTime, title, location), executor);
+    }
+
+    @Override
+    public CompletableFuture<Boolean> generateInvoiceForRoomUsageAsync(String clientId, LocalDate date, double cost) {
+        return CompletableFuture.supplyAsync(() -> delegate.generateInvoiceForRoomUsage(clientId, date, cost), executor);
+    }
+
+    @Override
+    public CompletableFuture<Integer> generateInvoicesForRoomUsageAsync(List<RoomInvoiceRequest> requests) {
+        return CompletableFuture.supplyAsync(() -> delegate.generateInvoicesForRoomUsage(requests), executor);
+    }
+
+    @Override
+    public CompletableFuture<Boolean> setShowTicketPriceAsync(String showId, double price) {
+        return CompletableFuture.supplyAsync(() -> delegate.setShowTicketPrice(showId, price), executor);
+    }
+
+    @Override
+    public CompletableFuture<Double> getShowTicketPriceAsync(String showId) {
+        return CompletableFuture.supplyAsync(() -> delegate.getShowTicketPrice(showId), executor);
+    }
+
+    @Override
+    public CompletableFuture<Boolean> setShowDiscountAsync(String showId, double discount) {
+        return CompletableFuture.supplyAsync(() -> delegate.setShowDiscount(showId, discount), executor);
+    }
+
+    @Override
+    public CompletableFuture<Double> getShowDiscountAsync(String showId) {
+        return CompletableFuture.supplyAsync(() -> delegate.getShowDiscount(showId), executor);
+    }
+
+    @Override
+    public CompletableFuture<ShowPricingDTO> getShowPricingAsync(String showId) {
+        return CompletableFuture.supplyAsync(() -> delegate.getShowPricing(showId), executor);
+    }
+
+    @Override
+    public CompletableFuture<Map<String, ShowPricingDTO>> getShowPricingAsync(Collection<String> showIds) {
+        return CompletableFuture.supplyAsync(() -> delegate.getShowPricing(showIds), executor);
+    }
+
+    @Override
+    public CompletableFuture<Boolean> scheduleFilmScreeningAsync(String filmId, LocalDate date, LocalTime startTime, double price) {
+        return CompletableFuture.supplyAsync(() -> delegate.scheduleFilmScreening(filmId, date, startTime, price), executor);
+    }
+
+    @Override
+    public CompletableFuture<Boolean> arrangeTourAsync(String clientId, LocalDate date, LocalTime startTime, String location) {
+        return CompletableFuture.supplyAsync(() -> delegate.arrangeTour(clientId, date, startTime, location), executor);
+    }
+
+    @Override
+    public CompletableFuture<List<RoomUsageDTO>> getRoomUsageDetailsAsync(LocalDate startDate, LocalDate endDate) {
+        return CompletableFuture.supplyAsync(() -> delegate.getRoomUsageDetails(startDate, endDate), executor);
+    }
+
+    @Override
+    public CompletableFuture<List<FilmScreeningDTO>> getFilmScreeningScheduleAsync(LocalDate startDate, LocalDate endDate) {
+        return CompletableFuture.supplyAsync(() -> delegate.getFilmScreeningSchedule(startDate, endDate), executor);
+    }
+
+    @Override
+    public CompletableFuture<List<TourDTO>> getTourScheduleAsync(LocalDate startDate, LocalDate endDate) {
+        return CompletableFuture.supplyAsync(() -> delegate.getTourSchedule(startDate, endDate), executor);
+    }
+
+    @Override
+    public CompletableFuture<List<ClientDTO>> getFriendsOfLancasterClientsAsync() {
+        return CompletableFuture.supplyAsync(() -> delegate.getFriendsOfLancasterClients(), executor);
+    }
+
+    @Override
+    public CompletableFuture<Page<BookingDTO>> getConfirmedBookingsPageAsync(String eventName, LocalDate eventDate,
+                                                                             String eventTime, String pageToken, int pageSize) {
+        return CompletableFuture.supplyAsync(() -> delegate.getConfirmedBookingsPage(eventName, eventDate, eventTime, pageToken, pageSize), executor);
+    }
+
+    @Override
+    public CompletableFuture<Page<ClientDTO>> getFriendsOfLancasterClientsPageAsync(String pageToken, int pageSize) {
+        return CompletableFuture.supplyAsync(() -> delegate.getFriendsOfLancasterClientsPage(pageToken, pageSize), executor);
+    }
+
+    @Override
+    public CompletableFuture<Page<FilmScreeningDTO>> getFilmScreeningSchedulePageAsync(LocalDate startDate, LocalDate endDate,
+                                                                                       String pageToken, int pageSize) {
+        return CompletableFuture.supplyAsync(() -> delegate.getFilmScreeningSchedulePage(startDate, endDate, pageToken, pageSize), executor);
+    }
+}
@@ -0,0 +1,345 @@
+package api;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Non-blocking counterpart of {@link MarketingInterface}.
+ *
+ * <p>Every method mirrors the blocking method of the same name (with an {@code Async}
+ * suffix) and returns a {@link CompletableFuture} instead of waiting for the database.
+ * This lets the Swing UI stay responsive and lets dashboards run independent queries
+ * concurrently, for example:
+ * <pre>
+ * CompletableFuture&lt;String&gt; trends = marketing.getTicketSalesTrendsAsync(name, date, time);
+ * CompletableFuture&lt;List&lt;String&gt;&gt; companies = marketing.getCompaniesBookedForEventAsync(name, date, time);
+ * CompletableFuture&lt;List&lt;BookingDTO&gt;&gt; bookings = marketing.getConfirmedBookingsAsync(name, date, time);
+ * CompletableFuture.allOf(trends, companies, bookings).join();
+ * </pre>
+ *
+ * <p>The {@code stream...} methods of {@link MarketingInterface} have no asynchronous
+ * counterpart: a stream holds a connection while it is read, so it should be opened and
+ * consumed on the same thread, for example inside a {@code SwingWorker}.
+ *
+ * @see AsyncMarketingData
+ */
+public interface AsyncMarketingInterface {
+
+    /**
+     * Gets past visit information for a specific show.
+     * @param showId the unique identifier of the show
+     * @return future completing with map containing repeat attendee statistics with key "repeat_attendees"
+     */
+    CompletableFuture<Map<String, Integer>> getPastVisitInformationAsync(String showId);
+
+    /**
+     * Gets ticket sales trends for an event as JSON data.
+     * @param eventName the name of the event
+     * @param eventDate the date of the event
+     * @param eventTime the start time of the event
+     * @return future completing with JSON array string containing sales data by date
+     */
+    CompletableFuture<String> getTicketSalesTrendsAsync(String eventName, LocalDate eventDate, String eventTime);
+
+    /**
+     * Identifies high traffic dates for a specific show.
+     * @param showId the unique identifier of the show
+     * @return future completing with list of dates with attendance exceeding 20 tickets
+     */
+    CompletableFuture<List<LocalDate>> getHighTrafficDatesAsync(String showId);
+
+    /**
+     * Identifies high traffic dates for a show within a timeframe.
+     * @param showId the unique identifier of the show
+     * @param timeframe the number of days to look back (defaults to 30 if invalid)
+     * @return future completing with list of dates with attendance exceeding 20 tickets
+     */
+    CompletableFuture<List<LocalDate>> getHighTrafficDatesAsync(String showId, String timeframe);
+
+    /**
+     * Analyzes pre-sale trends for a show and ticket type.
+     * @param showId the unique identifier of the show
+     * @param ticketType the type of ticket being analyzed
+     * @return future completing with map containing pre-sale count with key "pre_sale_count"
+     */
+    CompletableFuture<Map<String, Integer>> getPreSaleTrendsAsync(String showId, String ticketType);
+
+    /**
+     * Gets ticket category information including price and discount.
+     * @param showId the unique identifier of the show
+     * @return future completing with map where keys are ticket types and values contain count, price and discount
+     */
+    CompletableFuture<Map<String, String>> getTicketCategoriesAsync(String showId);
+
+    /**
+     * Gets details for a specific group booking.
+     * @param eventName the name of the event
+     * @param eventDate the date of the event
+     * @param eventTime the start time of the event
+     * @param groupId the unique identifier of the group
+     * @return future completing with GroupBookingDTO containing group size and company contact information
+     */
+    CompletableFuture<GroupBookingDTO> getGroupBookingDetailsAsync(String eventName, LocalDate eventDate, String eventTime, String groupId);
+
+    /**
+     * Gets companies that have booked for a specific event.
+     * @param eventName the name of the event
+     * @param eventDate the date of the event
+     * @param eventTime the start time of the event
+     * @return future completing with list of company names
+     */
+    CompletableFuture<List<String>> getCompaniesBookedForEventAsync(String eventName, LocalDate eventDate, String eventTime);
+
+    /**
+     * Identifies events needing promotion based on low sales.
+     * @return future completing with list of event names with fewer than 10 tickets sold
+     */
+    CompletableFuture<List<String>> getEventsNeedingPromotionAsync();
+
+    /**
+     * Generates a report on promotion impact for an event.
+     * @param eventName the name of the event
+     * @param eventDate the date of the event
+     * @param eventTime the start time of the event
+     * @return future completing with JSON string containing sales attributed to promotions
+     */
+    CompletableFuture<String> generatePromotionImpactReportAsync(String eventName, LocalDate eventDate, String eventTime);
+
+    /**
+     * Gets confirmed bookings for a specific event.
+     * @param eventName the name of the event
+     * @param eventDate the date of the event
+     * @param eventTime the start time of the event
+     * @return future completing with list of BookingDTO objects
+     */
+    CompletableFuture<List<BookingDTO>> getConfirmedBookingsAsync(String eventName, LocalDate eventDate, String eventTime);
+
+    /**
+     * Counts discounted tickets used for a specific event.
+     * @param eventName the name of the event
+     * @param eventDate the date of the event
+     * @param eventTime the start time of the event
+     * @return future completing with number of discounted tickets used
+     */
+    CompletableFuture<Integer> getUsedDiscountedTicketsAsync(String eventName, LocalDate eventDate, String eventTime);
+
+    /**
+     * Confirms a group booking.
+     * @param eventName the name of the event
+     * @param groupId the unique identifier of the group
+     * @param groupSize the number of people in the group
+     * @return future completing with true if confirmation succeeded, false otherwise
+     */
+    CompletableFuture<Boolean> confirmGroupBookingAsync(String eventName, String groupId, int groupSize);
+
+    /**
+     * Cancels a group booking.
+     * @param eventName the name of the event
+     * @param groupId the unique identifier of the group
+     * @param groupSize the number of people in the group
+     * @return future completing with true if cancellation succeeded, false otherwise
+     */
+    CompletableFuture<Boolean> cancelGroupBookingAsync(String eventName, String groupId, int groupSize);
+
+    /**
+     * Confirms several group bookings in a single transaction.
+     * @param requests the group bookings to confirm
+     * @return future completing with one outcome per request, in the same order
+     */
+    CompletableFuture<List<Boolean>> confirmGroupBookingsAsync(List<GroupBookingRequest> requests);
+
+    /**
+     * Cancels several group bookings in a single transaction.
+     * @param requests the group bookings to cancel
+     * @return future completing with one outcome per request, in the same order
+     */
+    CompletableFuture<List<Boolean>> cancelGroupBookingsAsync(List<GroupBookingRequest> requests);
+
+    /**
+     * Gets alerts for shows with low ticket sales.
+     * @return future completing with list of event names with fewer than 10 tickets sold
+     */
+    CompletableFuture<List<String>> getLowSalesAlertsAsync();
+
+    /**
+     * Gets details for a specific film.
+     * @param filmName the name of the film
+     * @return future completing with FilmDetails object containing film information
+     */
+    CompletableFuture<FilmDetails> getFilmDetailsAsync(String filmName);
+
+    /**
+     * Gets client details by ID.
+     * @param clientId the unique identifier of the client
+     * @return future completing with ClientDTO containing all client information
+     */
+    CompletableFuture<ClientDTO> getClientDetailsAsync(String clientId);
+
+    /**
+     * Updates client contact information.
+     * @param clientId the unique identifier of the client
+     * @param contactEmail the new email address
+     * @param contactName the new contact name
+     * @param streetAddress the new street address
+     * @return future completing with true if update succeeded, false otherwise
+     */
+    CompletableFuture<Boolean> updateClientDetailsAsync(String clientId, String contactEmail, String contactName, String streetAddress);
+
+    /**
+     * Books a room for a client meeting.
+     * @param clientId the unique identifier of the client
+     * @param date the date of the meeting
+     * @param startTime the start time of the meeting
+     * @param title the title/description of the meeting
+     * @param location the room location
+     * @return future completing with true if booking succeeded, false otherwise
+     */
+    CompletableFuture<Boolean> bookRoomForClientAsync(String clientId, LocalDate date, LocalTime startTime, String title, String location);
+
+    /**
+     * Generates an invoice for room usage.
+     * @param clientId the unique identifier of the client
+     * @param date the date of the invoice
+     * @param cost the total cost
+     * @return future completing with true if invoice generation succeeded, false otherwise
+     */
+    CompletableFuture<Boolean> generateInvoiceForRoomUsageAsync(String clientId, LocalDate date, double cost);
+
+    /**
+     * Generates room usage invoices in bulk, in a single transaction.
+     * @param requests the invoices to generate
+     * @return future completing with the number of invoices generated; 0 if the batch failed
+     */
+    CompletableFuture<Integer> generateInvoicesForRoomUsageAsync(List<RoomInvoiceRequest> requests);
+
+    /**
+     * Sets the ticket price for a show.
+     * @param showId the unique identifier of the show
+     * @param price the new ticket price
+     * @return future completing with true if update succeeded, false otherwise
+     */
+    CompletableFuture<Boolean> setShowTicketPriceAsync(String showId, double price);
+
+    /**
+     * Gets the current ticket price for a show.
+     * @param showId the unique identifier of the show
+     * @return future completing with the current ticket price
+     */
+    CompletableFuture<Double> getShowTicketPriceAsync(String showId);
+
+    /**
+     * Sets the discount rate for a show.
+     * @param showId the unique identifier of the show
+     * @param discount the new discount rate (0-1)
+     * @return future completing with true if update succeeded, false otherwise
+     */
+    CompletableFuture<Boolean> setShowDiscountAsync(String showId, double discount);
+
+    /**
+     * Gets the current discount rate for a show.
+     * @param showId the unique identifier of the show
+     * @return future completing with the current discount rate (0-1)
+     */
+    CompletableFuture<Double> getShowDiscountAsync(String showId);
+
+    /**
+     * Gets the price, discount and effective price of a show in a single call.
+     * @param showId the unique identifier of the show
+     * @return future completing with ShowPricingDTO for the show, or null if the show does not exist
+     */
+    CompletableFuture<ShowPricingDTO> getShowPricingAsync(String showId);
+
+    /**
+     * Gets the pricing of several shows in a single call.
+     * @param showIds the unique identifiers of the shows
+     * @return future completing with map from ShowID to ShowPricingDTO; shows that do not exist are omitted
+     */
+    CompletableFuture<Map<String, ShowPricingDTO>> getShowPricingAsync(Collection<String> showIds);
+
+    /**
+     * Schedules a new film screening.
+     * @param filmId the unique identifier of the film
+     * @param date the screening date
+     * @param startTime the screening start time
+     * @param price the ticket price
+     * @return future completing with true if scheduling succeeded, false otherwise
+     */
+    CompletableFuture<Boolean> scheduleFilmScreeningAsync(String filmId, LocalDate date, LocalTime startTime, double price);
+
+    /**
+     * Arranges a venue tour for a client.
+     * @param clientId the unique identifier of the client
+     * @param date the tour date
+     * @param startTime the tour start time
+     * @param location the tour starting location
+     * @return future completing with true if arrangement succeeded, false otherwise
+     */
+    CompletableFuture<Boolean> arrangeTourAsync(String clientId, LocalDate date, LocalTime startTime, String location);
+
+    /**
+     * Gets room usage details for a date range.
+     * @param startDate the start date (inclusive)
+     * @param endDate the end date (inclusive)
+     * @return future completing with list of RoomUsageDTO objects
+     */
+    CompletableFuture<List<RoomUsageDTO>> getRoomUsageDetailsAsync(LocalDate startDate, LocalDate endDate);
+
+    /**
+     * Gets film screening schedule for a date range.
+     * @param startDate the start date (inclusive)
+     * @param endDate the end date (inclusive)
+     * @return future completing with list of FilmScreeningDTO objects
+     */
+    CompletableFuture<List<FilmScreeningDTO>> getFilmScreeningScheduleAsync(LocalDate startDate, LocalDate endDate);
+
+    /**
+     * Gets tour schedule for a date range.
+     * @param startDate the start date (inclusive)
+     * @param endDate the end date (inclusive)
+     * @return future completing with list of TourDTO objects
+     */
+    CompletableFuture<List<TourDTO>> getTourScheduleAsync(LocalDate startDate, LocalDate endDate);
+
+    /**
+     * Gets all clients enrolled in the Friends of Lancaster program.
+     * @return future completing with list of ClientDTO objects
+     */
+    CompletableFuture<List<ClientDTO>> getFriendsOfLancasterClientsAsync();
+
+    /**
+     * Gets one page of confirmed bookings for a specific event, ordered by booking ID.
+     * @param eventName the name of the event
+     * @param eventDate the date of the event
+     * @param eventTime the start time of the event
+     * @param pageToken the token from the previous page, or null for the first page
+     * @param pageSize the maximum number of bookings to return
+     * @return future completing with a Page of BookingDTO objects
+     */
+    CompletableFuture<Page<BookingDTO>> getConfirmedBookingsPageAsync(String eventName, LocalDate eventDate,
+                                                                      String eventTime, String pageToken, int pageSize);
+
+    /**
+     * Gets one page of clients enrolled in the Friends of Lancaster program, ordered by
+     * client ID.
+     * @param pageToken the token from the previous page, or null for the first page
+     * @param pageSize the maximum number of clients to return
+     * @return future completing with a Page of ClientDTO objects
+     */
+    CompletableFuture<Page<ClientDTO>> getFriendsOfLancasterClientsPageAsync(String pageToken, int pageSize);
+
+    /**
+     * Gets one page of the film screening schedule for a date range, ordered by date,
+     * start time and screening ID.
+     * @param startDate the start date (inclusive)
+     * @param endDate the end date (inclusive)
+     * @param pageToken the token from the previous page, or null for the first page
+     * @param pageSize the maximum number of screenings to return
+     * @return future completing with a Page of FilmScreeningDTO objects
+     */
+    CompletableFuture<Page<FilmScreeningDTO>> getFilmScreeningSchedulePageAsync(LocalDate startDate, LocalDate endDate,
+                                                                                String pageToken, int pageSize);
+}
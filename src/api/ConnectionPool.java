@@ -0,0 +1,493 @@
+package api;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A bounded pool of physical MySQL connections shared by the marketing API and the UI.
+ *
+ * <p>Connections handed out by {@link #borrow()} are lightweight proxies around a pooled
+ * physical connection. Calling {@code close()} on the proxy returns the physical connection
+ * to the pool instead of closing the socket, so callers can keep using the usual
+ * try-with-resources pattern.
+ *
+ * <p><b>Pool behaviour:</b>
+ * <ul>
+ *   <li>At most {@code maxSize} connections are open at any time; borrowers wait up to
+ *       {@code borrowTimeoutMillis} for one to become free
+ *   <li>Idle connections are validated before being handed out and discarded if broken
+ *   <li>Connections idle for longer than {@code idleTimeoutMillis} are evicted, down to
+ *       {@code minSize}
+ *   <li>Connections borrowed for longer than {@code leakThresholdMillis} are reported
+ *       together with the stack trace of the code that borrowed them
+ *   <li>Each connection keeps a {@link StatementCache} of up to {@code statementCacheSize}
+ *       prepared statements, so repeated queries skip the prepare round-trip
+ *   <li>If a {@link SlowQueryLog} is set, every statement handed out is timed and slow
+ *       executions are logged
+ * </ul>
+ *
+ * @see JDBC#getConnection()
+ */
+public class ConnectionPool implements AutoCloseable {
+    /** Seconds allowed for {@link Connection#isValid(int)} when validating on borrow. */
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+
+    /** Interval between housekeeping runs (idle eviction, top-up and leak detection). */
+    private static final long HOUSEKEEPING_INTERVAL_MILLIS = 5_000;
+
+    private final String url;
+    private final String username;
+    private final String password;
+    private final int minSize;
+    private final int maxSize;
+    private final long borrowTimeoutMillis;
+    private final long idleTimeoutMillis;
+    private final long leakThresholdMillis;
+    private final int statementCacheSize;
+
+    /** Statement cache counters shared by every connection in the pool. */
+    private final LongAdder statementCacheHits = new LongAdder();
+    private final LongAdder statementCacheMisses = new LongAdder();
+    private final LongAdder statementCacheEvictions = new LongAdder();
+
+    /** One permit per connection that may be lent out. */
+    private final Semaphore permits;
+
+    /** Idle connections, most recently returned first. Guarded by {@code this}. */
+    private final Deque<PooledConnection> idle = new ArrayDeque<>();
+
+    /** Connections currently lent out to callers. */
+    private final Set<PooledConnection> borrowed = ConcurrentHashMap.newKeySet();
+
+    /** Number of open physical connections, idle or borrowed. Guarded by {@code this}. */
+    private int totalCount;
+
+    private final ScheduledExecutorService housekeeper;
+    private volatile SlowQueryLog slowQueryLog;
+    private volatile boolean closed;
+
+    /**
+     * Creates a pool and opens {@code minSize} connections up front.
+     *
+     * @param url the JDBC URL of the database
+     * @param username the database user
+     * @param password the database password
+     * @param minSize the number of connections kept open even when idle
+     * @param maxSize the maximum number of open connections
+     * @param borrowTimeoutMillis how long {@link #borrow()} waits for a free connection
+     * @param idleTimeoutMillis how long a connection may stay idle before being evicted
+     * @param leakThresholdMillis how long a connection may be borrowed before it is reported as leaked
+     * @param statementCacheSize the number of prepared statements cached per connection (0 disables caching)
+     * @throws IllegalArgumentException if the sizes are inconsistent
+     */
+    public ConnectionPool(String url, String username, String password, int minSize, int maxSize,
+                          long borrowTimeoutMillis, long idleTimeoutMillis, long leakThresholdMillis,
+                          int statementCacheSize) {
+        if (minSize < 0 || maxSize < 1 || minSize > maxSize) {
+            throw new IllegalArgumentException("Invalid pool size: min=" + minSize + ", max=" + maxSize);
+        }
+        this.url = url;
+        this.username = username;
+        this.password = password;
+        this.minSize = minSize;
+        this.maxSize = maxSize;
+        this.borrowTimeoutMillis = borrowTimeoutMillis;
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        this.leakThresholdMillis = leakThresholdMillis;
+        this.statementCacheSize = statementCacheSize;
+        this.permits = new Semaphore(maxSize, true);
+
+        this.housekeeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "connection-pool-housekeeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        fillToMinimum();
+        housekeeper.scheduleWithFixedDelay(this::housekeep,
+                HOUSEKEEPING_INTERVAL_MILLIS, HOUSEKEEPING_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Borrows a connection from the pool, opening a new one if none is idle and the pool
+     * is below its maximum size.
+     *
+     * <p>The returned connection must be closed by the caller to give it back to the pool.
+     *
+     * @return a validated connection
+     * @throws SQLTimeoutException if no connection became free within the borrow timeout
+     * @throws SQLException if the pool is closed or a new connection cannot be opened
+     */
+    public Connection borrow() throws SQLException {
+        if (closed) {
+            throw new SQLException("Connection pool is closed");
+        }
+        try {
+            if (!permits.tryAcquire(borrowTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                throw new SQLTimeoutException("Timed out after " + borrowTimeoutMillis
+                        + " ms waiting for a database connection (pool size " + maxSize + ")");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a database connection", e);
+        }
+
+        try {
+            PooledConnection pooled = takeValidIdle();
+            if (pooled == null) {
+                pooled = open();
+            }
+            pooled.lend();
+            borrowed.add(pooled);
+            return pooled.newLease();
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Takes the most recently used idle connection that passes validation.
+     * Broken connections found on the way are discarded.
+     */
+    private PooledConnection takeValidIdle() {
+        while (true) {
+            PooledConnection candidate;
+            synchronized (this) {
+                candidate = idle.pollFirst();
+            }
+            if (candidate == null) {
+                return null;
+            }
+            if (candidate.isValid()) {
+                return candidate;
+            }
+            discard(candidate);
+        }
+    }
+
+    /** Opens a new physical connection and counts it against the pool size. */
+    private PooledConnection open() throws SQLException {
+        synchronized (this) {
+            if (totalCount >= maxSize) {
+                throw new SQLException("Connection pool exhausted (size " + maxSize + ")");
+            }
+            totalCount++;
+        }
+        try {
+            return new PooledConnection(DriverManager.getConnection(url, username, password));
+        } catch (SQLException | RuntimeException e) {
+            synchronized (this) {
+                totalCount--;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Returns a connection to the pool once its lease has been closed.
+     * Session state changed by the borrower is reset before the connection is reused.
+     */
+    private void release(PooledConnection pooled) {
+        borrowed.remove(pooled);
+        try {
+            if (!closed && !pooled.broken && pooled.reset()) {
+                synchronized (this) {
+                    idle.offerFirst(pooled);
+                }
+            } else {
+                discard(pooled);
+            }
+        } finally {
+            permits.release();
+        }
+    }
+
+    /** Closes a physical connection and removes it from the pool size. */
+    private void discard(PooledConnection pooled) {
+        synchronized (this) {
+            totalCount--;
+        }
+        pooled.closePhysical();
+    }
+
+    /** Opens idle connections until the pool holds at least {@code minSize}. */
+    private void fillToMinimum() {
+        while (!closed) {
+            synchronized (this) {
+                if (totalCount >= minSize) {
+                    return;
+                }
+            }
+            try {
+                PooledConnection pooled = open();
+                synchronized (this) {
+                    idle.offerLast(pooled);
+                }
+            } catch (SQLException e) {
+                System.err.println("Connection pool could not open an idle connection: " + e.getMessage());
+                return;
+            }
+        }
+    }
+
+    /** Evicts long-idle connections, tops the pool back up and reports suspected leaks. */
+    private void housekeep() {
+        long now = System.currentTimeMillis();
+        synchronized (this) {
+            Iterator<PooledConnection> oldestFirst = idle.descendingIterator();
+            while (oldestFirst.hasNext() && totalCount > minSize) {
+                PooledConnection candidate = oldestFirst.next();
+                if (now - candidate.lastReturnedAt < idleTimeoutMillis) {
+                    break;
+                }
+                oldestFirst.remove();
+                totalCount--;
+                candidate.closePhysical();
+            }
+        }
+        fillToMinimum();
+
+        if (leakThresholdMillis > 0) {
+            for (PooledConnection pooled : borrowed) {
+                if (!pooled.leakReported && now - pooled.borrowedAt > leakThresholdMillis) {
+                    pooled.leakReported = true;
+                    System.err.println("Possible connection leak: connection borrowed "
+                            + (now - pooled.borrowedAt) + " ms ago and not yet closed");
+                    pooled.borrowSite.printStackTrace();
+                }
+            }
+        }
+    }
+
+    /**
+     * Sets the log that times statements handed out from now on.
+     * @param slowQueryLog the log to report slow statements to, or null to stop timing
+     */
+    public void setSlowQueryLog(SlowQueryLog slowQueryLog) {
+        this.slowQueryLog = slowQueryLog;
+    }
+
+    /**
+     * Gets the number of connections currently lent out.
+     * @return the number of borrowed connections
+     */
+    public int getActiveCount() {
+        return borrowed.size();
+    }
+
+    /**
+     * Gets the number of open connections waiting in the pool.
+     * @return the number of idle connections
+     */
+    public synchronized int getIdleCount() {
+        return idle.size();
+    }
+
+    /**
+     * Gets the maximum number of connections this pool will open.
+     * @return the configured maximum pool size
+     */
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Gets the number of prepared statements served from a connection's statement cache.
+     * @return the statement cache hit count
+     */
+    public long getStatementCacheHits() {
+        return statementCacheHits.sum();
+    }
+
+    /**
+     * Gets the number of prepared statements that had to be prepared by the server.
+     * @return the statement cache miss count
+     */
+    public long getStatementCacheMisses() {
+        return statementCacheMisses.sum();
+    }
+
+    /**
+     * Gets the number of cached statements closed to make room for newer ones.
+     * @return the statement cache eviction count
+     */
+    public long getStatementCacheEvictions() {
+        return statementCacheEvictions.sum();
+    }
+
+    /**
+     * Checks whether the pool has been shut down.
+     * @return true once {@link #close()} has been called
+     */
+    public boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * Shuts the pool down and closes every idle connection.
+     * Borrowed connections are closed as they are returned.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        housekeeper.shutdownNow();
+        synchronized (this) {
+            for (PooledConnection pooled : idle) {
+                totalCount--;
+                pooled.closePhysical();
+            }
+            idle.clear();
+        }
+    }
+
+    /**
+     * A physical connection owned by the pool together with its bookkeeping state.
+     */
+    private final class PooledConnection {
+        private final Connection physical;
+        private final StatementCache statements;
+        private volatile long borrowedAt;
+        private volatile long lastReturnedAt = System.currentTimeMillis();
+        private volatile Throwable borrowSite;
+        private volatile boolean leakReported;
+        private volatile boolean broken;
+
+        private PooledConnection(Connection physical) {
+            this.physical = physical;
+            this.statements = new StatementCache(physical, statementCacheSize,
+                    statementCacheHits, statementCacheMisses, statementCacheEvictions);
+        }
+
+        private void lend() {
+            borrowedAt = System.currentTimeMillis();
+            borrowSite = new Throwable("Connection borrowed here");
+            leakReported = false;
+        }
+
+        /** Creates the proxy handed to a single borrower. */
+        private Connection newLease() {
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                    new Class<?>[] { Connection.class }, new Lease(this));
+        }
+
+        private boolean isValid() {
+            try {
+                return physical.isValid(VALIDATION_TIMEOUT_SECONDS);
+            } catch (SQLException e) {
+                return false;
+            }
+        }
+
+        /** Restores default session state; returns false if the connection is unusable. */
+        private boolean reset() {
+            try {
+                statements.releaseAll();
+                if (!physical.getAutoCommit()) {
+                    physical.rollback();
+                    physical.setAutoCommit(true);
+                }
+                if (physical.isReadOnly()) {
+                    physical.setReadOnly(false);
+                }
+                physical.clearWarnings();
+                lastReturnedAt = System.currentTimeMillis();
+                return true;
+            } catch (SQLException e) {
+                return false;
+            }
+        }
+
+        private void closePhysical() {
+            try {
+                statements.clear();
+                physical.close();
+            } catch (SQLException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    /**
+     * Invocation handler behind a borrowed connection. Closing the lease returns the
+     * physical connection to the pool; any further use of the lease fails.
+     */
+    private final class Lease implements InvocationHandler {
+        private final PooledConnection pooled;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Lease(PooledConnection pooled) {
+            this.pooled = pooled;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (released.compareAndSet(false, true)) {
+                        release(pooled);
+                    }
+                    return null;
+                case "isClosed":
+                    return released.get() || pooled.physical.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Pooled" + pooled.physical;
+                default:
+                    break;
+            }
+            if (released.get()) {
+                throw new SQLException("Connection has already been returned to the pool");
+            }
+            try {
+                Object result;
+                if (method.getName().equals("prepareStatement") && args.length == 1) {
+                    result = pooled.statements.prepare((String) args[0], (Connection) proxy);
+                } else {
+                    result = method.invoke(pooled.physical, args);
+                }
+                SlowQueryLog log = slowQueryLog;
+                if (log != null && result instanceof Statement) {
+                    String sql = method.getName().startsWith("prepare") ? (String) args[0] : null;
+                    return log.wrap((Statement) result, sql);
+                }
+                return result;
+            } catch (InvocationTargetException e) {
+                throw markIfBroken(e.getCause());
+            } catch (SQLException e) {
+                throw markIfBroken(e);
+            }
+        }
+
+        /** Flags the connection as unusable if the failure is a connection error (SQLState class 08). */
+        private Throwable markIfBroken(Throwable failure) {
+            if (failure instanceof SQLException) {
+                String state = ((SQLException) failure).getSQLState();
+                if (state != null && state.startsWith("08")) {
+                    pooled.broken = true;
+                }
+            }
+            return failure;
+        }
+    }
+}
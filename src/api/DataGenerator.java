@@ -0,0 +1,624 @@
+package api;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Fills a local database with deterministic synthetic data shaped like the cinema schema.
+ *
+ * <p>The same seed and settings always produce the same rows, so benchmark results can
+ * be compared between runs and machines. Row values are derived from their IDs where
+ * possible, which lets a benchmark pick valid arguments (show names, dates and times,
+ * client IDs, film names) without querying the database:
+ * <ul>
+ *   <li>Show {@code n} is named {@code "Show n"}, with eight shows per day from
+ *       {@link #FIRST_DATE}, starting on the half hour from 11:30
+ *   <li>Film {@code n} is named {@code "Film n"}
+ *   <li>Client, group and company IDs run from 1 to their count
+ * </ul>
+ *
+ * <p>Rows are generated as they are written and never held in memory, and are sent as
+ * multi-row {@code INSERT} statements committed in chunks, so tens of millions of rows
+ * can be loaded in minutes. Every foreign key refers to a row that exists.
+ *
+ * <p>The shape of the sales data is configurable:
+ * <ul>
+ *   <li><b>Popularity skew</b> - invoices pick their show from a Zipf distribution over a
+ *       shuffled show ranking, so a few shows sell most tickets (0 makes it uniform)
+ *   <li><b>Group booking rate</b> - the fraction of shows booked by a group
+ *   <li><b>Pre-sale lead time</b> - invoices are dated an exponentially distributed
+ *       number of days before their show, with the given mean
+ * </ul>
+ *
+ * <p><b>Properties</b> (read by {@link #fromSystemProperties()}):
+ * <ul>
+ *   <li>{@code lancaster.data.seed} - random seed (default 42)
+ *   <li>{@code lancaster.data.shows} - number of shows (default 2000)
+ *   <li>{@code lancaster.data.clients} - number of clients (default 1000)
+ *   <li>{@code lancaster.data.invoices} - number of invoices (default 20000)
+ *   <li>{@code lancaster.data.tickets} - number of ticket rows (default 80000)
+ *   <li>{@code lancaster.data.popularitySkew} - Zipf exponent (default 1.0)
+ *   <li>{@code lancaster.data.groupBookingRate} - fraction of shows with a group booking (default 0.25)
+ *   <li>{@code lancaster.data.preSaleLeadDays} - mean days between invoice and show (default 14)
+ * </ul>
+ *
+ * <p><b>Usage Example:</b>
+ * <pre>
+ * DataGenerator generator = DataGenerator.fromSystemProperties();
+ * try (Connection conn = JDBC.getConnection()) {
+ *     generator.populate(conn);
+ * }
+ * </pre>
+ */
+public class DataGenerator {
+    /** The date of the first show. */
+    public static final LocalDate FIRST_DATE = LocalDate.of(2025, 1, 1);
+
+    private static final int SHOWS_PER_DAY = 8;
+    private static final int ROWS_PER_INSERT = 1_000;
+    private static final int ROWS_PER_COMMIT = 100_000;
+    private static final int MAX_LEAD_DAYS = 180;
+    private static final String[] CERTIFICATES = { "U", "PG", "12A", "15", "18" };
+    private static final String[] ROOMS = { "Main Hall", "Small Hall", "Rehearsal Space", "Green Room", "Meeting Room 1" };
+
+    private static final String[] TABLES = { "Film", "Screening", "Shows", "Company", "`Group`", "Client",
+            "FilmOrder", "Invoice", "TicketSales", "GroupSale", "HeldSeats", "Meeting" };
+
+    private static final String[] CREATE_TABLES = {
+            "CREATE TABLE IF NOT EXISTS Film (FilmID INT PRIMARY KEY AUTO_INCREMENT, Name VARCHAR(100), " +
+                    "Certificate VARCHAR(10), INDEX idx_film_name (Name))",
+            "CREATE TABLE IF NOT EXISTS Screening (ScreeningID INT PRIMARY KEY AUTO_INCREMENT, FilmID INT, " +
+                    "Date DATE, StartTime TIME, Price DECIMAL(8,2), INDEX idx_screening_date (Date, StartTime))",
+            "CREATE TABLE IF NOT EXISTS Shows (ShowID INT PRIMARY KEY AUTO_INCREMENT, Date DATE, StartTime TIME, " +
+                    "Name VARCHAR(100), Venue VARCHAR(100), Price DECIMAL(8,2), Discount DECIMAL(4,2), " +
+                    "Description VARCHAR(255), INDEX idx_shows_date (Date), INDEX idx_shows_name (Name, Date, StartTime))",
+            "CREATE TABLE IF NOT EXISTS Company (CompanyID INT PRIMARY KEY AUTO_INCREMENT, CompanyName VARCHAR(100), " +
+                    "ContactName VARCHAR(100), ContactEmail VARCHAR(100))",
+            "CREATE TABLE IF NOT EXISTS `Group` (GroupID INT PRIMARY KEY AUTO_INCREMENT, CompanyID INT, " +
+                    "GroupName VARCHAR(100), ContactEmail VARCHAR(100))",
+            "CREATE TABLE IF NOT EXISTS Client (ClientID INT PRIMARY KEY AUTO_INCREMENT, CompanyID INT, " +
+                    "ContactEmail VARCHAR(100), ContactName VARCHAR(100), StreetAddress VARCHAR(255), " +
+                    "IsFriendOfLancaster BOOLEAN DEFAULT FALSE, INDEX idx_client_fol (IsFriendOfLancaster))",
+            "CREATE TABLE IF NOT EXISTS FilmOrder (FilmOrderID INT PRIMARY KEY AUTO_INCREMENT, ClientID INT, " +
+                    "TotalCost DECIMAL(10,2), Status VARCHAR(20), INDEX idx_filmorder_client (ClientID))",
+            "CREATE TABLE IF NOT EXISTS Invoice (InvoiceID INT PRIMARY KEY AUTO_INCREMENT, FilmOrderID INT, Date DATE, " +
+                    "Costs DECIMAL(10,2), Total DECIMAL(10,2), ClientID INT, INDEX idx_invoice_date (Date), " +
+                    "INDEX idx_invoice_client (ClientID), " +
+                    "INDEX idx_invoice_filmorder (FilmOrderID))",
+            "CREATE TABLE IF NOT EXISTS TicketSales (TicketID INT PRIMARY KEY AUTO_INCREMENT, InvoiceID INT, " +
+                    "FilmOrderID INT, Quantity INT, Value DECIMAL(8,2), INDEX idx_ticketsales_invoice (InvoiceID))",
+            "CREATE TABLE IF NOT EXISTS GroupSale (GroupSaleID INT PRIMARY KEY AUTO_INCREMENT, GroupID INT, " +
+                    "CompanyID INT, ShowID INT, SeatsQuantity INT, Discount DECIMAL(4,2), Confirmed VARCHAR(3), " +
+                    "INDEX idx_groupsale_show (ShowID), INDEX idx_groupsale_group (GroupID))",
+            "CREATE TABLE IF NOT EXISTS HeldSeats (SeatID VARCHAR(10), ScreeningID INT, ShowID INT, " +
+                    "INDEX idx_heldseats_show (ShowID))",
+            "CREATE TABLE IF NOT EXISTS Meeting (MeetingID INT PRIMARY KEY AUTO_INCREMENT, ClientID INT, Date DATE, " +
+                    "Time TIME, Title VARCHAR(100), Location VARCHAR(100), Type VARCHAR(20), " +
+                    "INDEX idx_meeting_type_date (Type, Date))",
+    };
+
+    private final long seed;
+    private final int shows;
+    private final int clients;
+    private final int invoices;
+    private final int tickets;
+    private double popularitySkew = 1.0;
+    private double groupBookingRate = 0.25;
+    private double preSaleLeadDays = 14;
+    private long rowsWritten;
+
+    /**
+     * Creates a generator for the given scale.
+     * @param seed the random seed
+     * @param shows the number of shows
+     * @param clients the number of clients
+     * @param invoices the number of invoices (one film order each)
+     * @param tickets the number of ticket rows, spread over the invoices
+     * @throws IllegalArgumentException if any count is not positive
+     */
+    public DataGenerator(long seed, int shows, int clients, int invoices, int tickets) {
+        if (shows < 1 || clients < 1 || invoices < 1 || tickets < 1) {
+            throw new IllegalArgumentException("Every table needs at least one row");
+        }
+        this.seed = seed;
+        this.shows = shows;
+        this.clients = clients;
+        this.invoices = invoices;
+        this.tickets = tickets;
+    }
+
+    /**
+     * Creates a generator using the {@code lancaster.data.*} system properties.
+     * @return a configured DataGenerator
+     */
+    public static DataGenerator fromSystemProperties() {
+        DataGenerator generator = new DataGenerator(
+                Long.getLong("lancaster.data.seed", 42L),
+                Integer.getInteger("lancaster.data.shows", 2_000),
+                Integer.getInteger("lancaster.data.clients", 1_000),
+                Integer.getInteger("lancaster.data.invoices", 20_000),
+                Integer.getInteger("lancaster.data.tickets", 80_000));
+        generator.setPopularitySkew(Double.parseDouble(System.getProperty("lancaster.data.popularitySkew", "1.0")));
+        generator.setGroupBookingRate(Double.parseDouble(System.getProperty("lancaster.data.groupBookingRate", "0.25")));
+        generator.setPreSaleLeadDays(Double.parseDouble(System.getProperty("lancaster.data.preSaleLeadDays", "14")));
+        return generator;
+    }
+
+    /**
+     * Sets how strongly ticket sales concentrate on the most popular shows.
+     * @param popularitySkew the Zipf exponent; 0 spreads sales evenly
+     * @throws IllegalArgumentException if popularitySkew is negative
+     */
+    public void setPopularitySkew(double popularitySkew) {
+        if (popularitySkew < 0) {
+            throw new IllegalArgumentException("popularitySkew must not be negative: " + popularitySkew);
+        }
+        this.popularitySkew = popularitySkew;
+    }
+
+    /**
+     * Sets the fraction of shows that receive a group booking.
+     * @param groupBookingRate a value between 0 and 1
+     * @throws IllegalArgumentException if groupBookingRate is outside 0 to 1
+     */
+    public void setGroupBookingRate(double groupBookingRate) {
+        if (groupBookingRate < 0 || groupBookingRate > 1) {
+            throw new IllegalArgumentException("groupBookingRate must be between 0 and 1: " + groupBookingRate);
+        }
+        this.groupBookingRate = groupBookingRate;
+    }
+
+    /**
+     * Sets the mean number of days between an invoice and the show it is for.
+     * @param preSaleLeadDays the mean lead time in days; 0 invoices every sale on the show date
+     * @throws IllegalArgumentException if preSaleLeadDays is negative
+     */
+    public void setPreSaleLeadDays(double preSaleLeadDays) {
+        if (preSaleLeadDays < 0) {
+            throw new IllegalArgumentException("preSaleLeadDays must not be negative: " + preSaleLeadDays);
+        }
+        this.preSaleLeadDays = preSaleLeadDays;
+    }
+
+    /**
+     * Creates any missing tables, empties them and fills them with generated rows, then
+     * installs the {@link SalesSummary} over the result.
+     *
+     * <p>The summary triggers are removed while loading, since maintaining the summary
+     * row by row would dominate the load time; it is rebuilt once at the end instead.
+     *
+     * @param conn the connection to a local database
+     * @throws SQLException if the schema cannot be created or filled
+     */
+    public void populate(Connection conn) throws SQLException {
+        SalesSummary.uninstall(conn);
+        try (Statement stmt = conn.createStatement()) {
+            for (String create : CREATE_TABLES) {
+                stmt.execute(create);
+            }
+            for (String table : TABLES) {
+                stmt.execute("TRUNCATE TABLE " + table);
+            }
+        }
+
+        Random random = new Random(seed);
+        int[] showsByPopularity = rankShows(random);
+        double[] popularityCdf = popularityCdf();
+        rowsWritten = 0;
+        boolean autoCommit = conn.getAutoCommit();
+        conn.setAutoCommit(false);
+        try {
+            insertFilmsAndScreenings(conn, random);
+            insertShows(conn, random);
+            insertCompaniesAndGroups(conn);
+            insertClients(conn);
+            insertSales(conn, random, showsByPopularity, popularityCdf);
+            insertGroupSales(conn, random);
+            insertHeldSeats(conn, random, showsByPopularity, popularityCdf);
+            insertMeetings(conn, random);
+            conn.commit();
+        } catch (SQLException e) {
+            conn.rollback();
+            throw e;
+        } finally {
+            conn.setAutoCommit(autoCommit);
+        }
+        SalesSummary.install(conn);
+    }
+
+    /**
+     * Gets the number of rows written by the last call to {@link #populate(Connection)}.
+     * @return the row count across all tables
+     */
+    public long getRowsWritten() {
+        return rowsWritten;
+    }
+
+    /** Shuffles the show IDs; index {@code k} holds the show with popularity rank {@code k + 1}. */
+    private int[] rankShows(Random random) {
+        int[] ranking = new int[shows];
+        for (int i = 0; i < shows; i++) {
+            ranking[i] = i + 1;
+        }
+        for (int i = shows - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int swap = ranking[i];
+            ranking[i] = ranking[j];
+            ranking[j] = swap;
+        }
+        return ranking;
+    }
+
+    /** Cumulative Zipf weights over popularity ranks, normalized to end at 1. */
+    private double[] popularityCdf() {
+        double[] cdf = new double[shows];
+        double total = 0;
+        for (int rank = 1; rank <= shows; rank++) {
+            total += 1 / Math.pow(rank, popularitySkew);
+            cdf[rank - 1] = total;
+        }
+        for (int i = 0; i < shows; i++) {
+            cdf[i] /= total;
+        }
+        return cdf;
+    }
+
+    /** Picks a show ID according to the popularity distribution. */
+    private static int pickShow(Random random, int[] showsByPopularity, double[] popularityCdf) {
+        int index = Arrays.binarySearch(popularityCdf, random.nextDouble());
+        int rank = index >= 0 ? index : Math.min(-index - 1, popularityCdf.length - 1);
+        return showsByPopularity[rank];
+    }
+
+    /** Picks how many days before its show an invoice is dated. */
+    private int pickLeadDays(Random random) {
+        if (preSaleLeadDays == 0) {
+            return 0;
+        }
+        double days = -preSaleLeadDays * Math.log(1 - random.nextDouble());
+        return (int) Math.min(MAX_LEAD_DAYS, days);
+    }
+
+    private void insertFilmsAndScreenings(Connection conn, Random random) throws SQLException {
+        try (BulkInsert insert = new BulkInsert(conn, "Film", "FilmID, Name, Certificate")) {
+            for (int filmId = 1; filmId <= getFilms(); filmId++) {
+                insert.row(filmId, filmName(filmId), CERTIFICATES[random.nextInt(CERTIFICATES.length)]);
+            }
+        }
+        try (BulkInsert insert = new BulkInsert(conn, "Screening", "ScreeningID, FilmID, Date, StartTime, Price")) {
+            for (int screeningId = 1; screeningId <= shows; screeningId++) {
+                insert.row(screeningId, 1 + random.nextInt(getFilms()), java.sql.Date.valueOf(showDate(screeningId)),
+                        java.sql.Time.valueOf(showTime(screeningId)), 8 + random.nextInt(8));
+            }
+        }
+    }
+
+    private void insertShows(Connection conn, Random random) throws SQLException {
+        try (BulkInsert insert = new BulkInsert(conn, "Shows",
+                "ShowID, Date, StartTime, Name, Venue, Price, Discount, Description")) {
+            for (int showId = 1; showId <= shows; showId++) {
+                insert.row(showId, java.sql.Date.valueOf(showDate(showId)), java.sql.Time.valueOf(showTime(showId)),
+                        showName(showId), ROOMS[random.nextInt(2)], 10 + random.nextInt(30),
+                        random.nextInt(4) == 0 ? 0.1 : 0.0, "Generated show " + showId);
+            }
+        }
+    }
+
+    private void insertCompaniesAndGroups(Connection conn) throws SQLException {
+        try (BulkInsert insert = new BulkInsert(conn, "Company", "CompanyID, CompanyName, ContactName, ContactEmail")) {
+            for (int companyId = 1; companyId <= getCompanies(); companyId++) {
+                insert.row(companyId, "Company " + companyId, "Contact " + companyId,
+                        "contact" + companyId + "@company.example");
+            }
+        }
+        try (BulkInsert insert = new BulkInsert(conn, "`Group`", "GroupID, CompanyID, GroupName, ContactEmail")) {
+            for (int groupId = 1; groupId <= getGroups(); groupId++) {
+                insert.row(groupId, groupCompany(groupId), "Group " + groupId, "group" + groupId + "@company.example");
+            }
+        }
+    }
+
+    private void insertClients(Connection conn) throws SQLException {
+        try (BulkInsert insert = new BulkInsert(conn, "Client",
+                "ClientID, CompanyID, ContactEmail, ContactName, StreetAddress, IsFriendOfLancaster")) {
+            for (int clientId = 1; clientId <= clients; clientId++) {
+                insert.row(clientId, 1 + (clientId - 1) % getCompanies(), "client" + clientId + "@example.com",
+                        "Client " + clientId, clientId + " Generated Street", clientId % 10 == 0);
+            }
+        }
+    }
+
+    /**
+     * Writes film orders, invoices and ticket rows together, one invoice at a time, with
+     * the tickets spread as evenly as possible over the invoices. Each invoice's order and
+     * invoice rows are queued before its tickets, and the ticket and invoice writers flush
+     * their parents first, so no row is ever written or committed before the rows it
+     * refers to.
+     */
+    private void insertSales(Connection conn, Random random, int[] showsByPopularity, double[] popularityCdf)
+            throws SQLException {
+        try (BulkInsert orders = new BulkInsert(conn, "FilmOrder", "FilmOrderID, ClientID, TotalCost, Status");
+             BulkInsert invoiceRows = new BulkInsert(conn, "Invoice", "InvoiceID, FilmOrderID, Date, Costs, Total, ClientID",
+                     orders);
+             BulkInsert ticketRows = new BulkInsert(conn, "TicketSales", "TicketID, InvoiceID, FilmOrderID, Quantity, Value",
+                     orders, invoiceRows)) {
+            int ticketId = 0;
+            int[] quantities = new int[0];
+            double[] values = new double[0];
+            for (int id = 1; id <= invoices; id++) {
+                int clientId = 1 + random.nextInt(clients);
+                int showId = pickShow(random, showsByPopularity, popularityCdf);
+                LocalDate date = showDate(showId).minusDays(pickLeadDays(random));
+                int lastTicket = (int) ((long) id * tickets / invoices);
+                int ticketCount = lastTicket - ticketId;
+                if (quantities.length < ticketCount) {
+                    quantities = new int[ticketCount];
+                    values = new double[ticketCount];
+                }
+                double total = 0;
+                for (int i = 0; i < ticketCount; i++) {
+                    quantities[i] = 1 + random.nextInt(4);
+                    values[i] = quantities[i] * (10 + random.nextInt(30));
+                    total += values[i];
+                }
+                orders.row(id, clientId, total, random.nextInt(5) == 0 ? "Pending" : "Confirmed");
+                invoiceRows.row(id, id, java.sql.Date.valueOf(date), total, total, clientId);
+                for (int i = 0; i < ticketCount; i++) {
+                    ticketRows.row(++ticketId, id, id, quantities[i], values[i]);
+                }
+            }
+        }
+    }
+
+    private void insertGroupSales(Connection conn, Random random) throws SQLException {
+        try (BulkInsert insert = new BulkInsert(conn, "GroupSale",
+                "GroupSaleID, GroupID, CompanyID, ShowID, SeatsQuantity, Discount, Confirmed")) {
+            int groupSaleId = 0;
+            for (int showId = 1; showId <= shows; showId++) {
+                if (random.nextDouble() < groupBookingRate) {
+                    int groupId = 1 + random.nextInt(getGroups());
+                    insert.row(++groupSaleId, groupId, groupCompany(groupId), showId, 12 + random.nextInt(30),
+                            random.nextBoolean() ? 0.1 : 0.0, random.nextBoolean() ? "Yes" : "No");
+                }
+            }
+        }
+    }
+
+    private void insertHeldSeats(Connection conn, Random random, int[] showsByPopularity, double[] popularityCdf)
+            throws SQLException {
+        try (BulkInsert insert = new BulkInsert(conn, "HeldSeats", "SeatID, ScreeningID, ShowID")) {
+            int heldSeats = Math.max(1, shows / 2);
+            for (int i = 1; i <= heldSeats; i++) {
+                int showId = pickShow(random, showsByPopularity, popularityCdf);
+                insert.row((char) ('A' + random.nextInt(20)) + String.valueOf(1 + random.nextInt(30)), showId, showId);
+            }
+        }
+    }
+
+    private void insertMeetings(Connection conn, Random random) throws SQLException {
+        try (BulkInsert insert = new BulkInsert(conn, "Meeting",
+                "MeetingID, ClientID, Date, Time, Title, Location, Type")) {
+            int meetings = Math.max(1, clients / 2);
+            int days = getDays();
+            for (int id = 1; id <= meetings; id++) {
+                boolean tour = id % 3 == 0;
+                insert.row(id, 1 + random.nextInt(clients), java.sql.Date.valueOf(FIRST_DATE.plusDays(random.nextInt(days))),
+                        java.sql.Time.valueOf(LocalTime.of(9 + random.nextInt(9), 0)), tour ? "Venue tour" : "Meeting " + id,
+                        ROOMS[random.nextInt(ROOMS.length)], tour ? "Tour" : "Meeting");
+            }
+        }
+    }
+
+    private int groupCompany(int groupId) {
+        return 1 + (groupId - 1) % getCompanies();
+    }
+
+    /**
+     * Writes rows to one table as multi-row {@code INSERT} statements of
+     * {@link #ROWS_PER_INSERT} rows, committing every {@link #ROWS_PER_COMMIT} rows.
+     * Rows queued in its parent tables' writers are written before each of its own
+     * statements, so a commit never includes a row without the rows it refers to.
+     */
+    private final class BulkInsert implements AutoCloseable {
+        private final Connection conn;
+        private final String table;
+        private final String columns;
+        private final int columnCount;
+        private final PreparedStatement fullInsert;
+        private final BulkInsert[] parents;
+        private final Object[] pending;
+        private int pendingRows;
+        private long rows;
+
+        /**
+         * @param parents the writers of the tables this table refers to, in the order
+         *                they must be written
+         */
+        private BulkInsert(Connection conn, String table, String columns, BulkInsert... parents) throws SQLException {
+            this.conn = conn;
+            this.table = table;
+            this.columns = columns;
+            this.columnCount = columns.split(",").length;
+            this.parents = parents;
+            this.fullInsert = conn.prepareStatement(insertSql(ROWS_PER_INSERT));
+            this.pending = new Object[ROWS_PER_INSERT * columnCount];
+        }
+
+        private String insertSql(int rowCount) {
+            StringBuilder row = new StringBuilder("(?");
+            for (int i = 1; i < columnCount; i++) {
+                row.append(", ?");
+            }
+            row.append(')');
+            StringBuilder sql = new StringBuilder("INSERT INTO ").append(table)
+                    .append(" (").append(columns).append(") VALUES ").append(row);
+            for (int i = 1; i < rowCount; i++) {
+                sql.append(", ").append(row);
+            }
+            return sql.toString();
+        }
+
+        private void row(Object... values) throws SQLException {
+            System.arraycopy(values, 0, pending, pendingRows * columnCount, columnCount);
+            if (++pendingRows == ROWS_PER_INSERT) {
+                flush(fullInsert);
+            }
+        }
+
+        private void flush(PreparedStatement stmt) throws SQLException {
+            for (BulkInsert parent : parents) {
+                parent.flushPending();
+            }
+            for (int i = 0; i < pendingRows * columnCount; i++) {
+                stmt.setObject(i + 1, pending[i]);
+            }
+            stmt.executeUpdate();
+            long before = rows;
+            rows += pendingRows;
+            rowsWritten += pendingRows;
+            pendingRows = 0;
+            if (rows / ROWS_PER_COMMIT != before / ROWS_PER_COMMIT) {
+                conn.commit();
+            }
+        }
+
+        /** Writes any queued rows, with a statement sized to fit them. */
+        private void flushPending() throws SQLException {
+            if (pendingRows == ROWS_PER_INSERT) {
+                flush(fullInsert);
+            } else if (pendingRows > 0) {
+                try (PreparedStatement partialInsert = conn.prepareStatement(insertSql(pendingRows))) {
+                    flush(partialInsert);
+                }
+            }
+        }
+
+        @Override
+        public void close() throws SQLException {
+            try {
+                flushPending();
+            } finally {
+                fullInsert.close();
+            }
+        }
+    }
+
+    /**
+     * Gets the name of a generated show.
+     * @param showId the show ID, from 1 to {@link #getShows()}
+     * @return the show's name
+     */
+    public String showName(int showId) {
+        return "Show " + showId;
+    }
+
+    /**
+     * Gets the date of a generated show.
+     * @param showId the show ID, from 1 to {@link #getShows()}
+     * @return the show's date
+     */
+    public LocalDate showDate(int showId) {
+        return FIRST_DATE.plusDays((showId - 1) / SHOWS_PER_DAY);
+    }
+
+    /**
+     * Gets the start time of a generated show.
+     * @param showId the show ID, from 1 to {@link #getShows()}
+     * @return the show's start time
+     */
+    public LocalTime showTime(int showId) {
+        return LocalTime.of(11 + (showId - 1) % SHOWS_PER_DAY, 30);
+    }
+
+    /**
+     * Gets the name of a generated film.
+     * @param filmId the film ID, from 1 to {@link #getFilms()}
+     * @return the film's name
+     */
+    public String filmName(int filmId) {
+        return "Film " + filmId;
+    }
+
+    /**
+     * Gets the number of days covered by shows and meetings.
+     * @return the number of days from {@link #FIRST_DATE}
+     */
+    public int getDays() {
+        return (shows + SHOWS_PER_DAY - 1) / SHOWS_PER_DAY;
+    }
+
+    /**
+     * Gets the number of generated shows.
+     * @return the show count
+     */
+    public int getShows() {
+        return shows;
+    }
+
+    /**
+     * Gets the number of generated clients.
+     * @return the client count
+     */
+    public int getClients() {
+        return clients;
+    }
+
+    /**
+     * Gets the number of generated films, one for every ten shows.
+     * @return the film count
+     */
+    public int getFilms() {
+        return Math.max(1, shows / 10);
+    }
+
+    /**
+     * Gets the number of generated companies, one for every twenty clients.
+     * @return the company count
+     */
+    public int getCompanies() {
+        return Math.max(1, clients / 20);
+    }
+
+    /**
+     * Gets the number of generated groups, two per company.
+     * @return the group count
+     */
+    public int getGroups() {
+        return getCompanies() * 2;
+    }
+
+    /**
+     * Populates the database named by {@code lancaster.db.url}, after truncating its tables.
+     * Refuses to run unless {@code lancaster.bench.allowDestructive=true} is also set
+     * (see {@link DestructiveRunGuard}).
+     *
+     * @param args command line arguments (not used)
+     */
+    public static void main(String[] args) {
+        if (!DestructiveRunGuard.permits("overwrite")) {
+            return;
+        }
+        DataGenerator generator = fromSystemProperties();
+        long start = System.nanoTime();
+        try (Connection conn = JDBC.getConnection()) {
+            generator.populate(conn);
+            double seconds = (System.nanoTime() - start) / 1e9;
+            System.out.printf("Generated %d rows in %.1f s (%.0f rows/s)%n", generator.getRowsWritten(), seconds,
+                    generator.getRowsWritten() / seconds);
+        } catch (Exception e) {
+            e.printStackTrace();
+        } finally {
+            try {
+                JDBC.closeConnection();
+            } catch (SQLException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package api;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+
+/**
+ * Stops the benchmarks and data generator from overwriting a database by accident.
+ *
+ * <p>These tools truncate and refill tables, so they only run when both of these are set:
+ * <ul>
+ *   <li>{@code lancaster.db.url} - the database to use, so the shared default is never used
+ *   <li>{@code lancaster.bench.allowDestructive=true} - confirmation that its tables may be
+ *       overwritten
+ * </ul>
+ * A database on another machine is named in the refusal as a remote host, since that is
+ * most likely a shared server rather than a scratch database.
+ */
+final class DestructiveRunGuard {
+    private DestructiveRunGuard() {
+    }
+
+    /**
+     * Checks whether the tool may overwrite the configured database, explaining why not
+     * on standard error if it may not.
+     *
+     * @param action what the tool does to the database, e.g. "seed"
+     * @return true if the tool may go ahead
+     */
+    static boolean permits(String action) {
+        String url = System.getProperty("lancaster.db.url");
+        if (url == null) {
+            System.err.println("Refusing to " + action + " the shared database. "
+                    + "Set -Dlancaster.db.url to a local database.");
+            return false;
+        }
+        String host = host(url);
+        if (!Boolean.getBoolean("lancaster.bench.allowDestructive")) {
+            System.err.println("Refusing to " + action + " the database on "
+                    + (isLocal(host) ? host : "remote host " + host)
+                    + ", which overwrites its tables. Set -Dlancaster.bench.allowDestructive=true to confirm.");
+            return false;
+        }
+        return true;
+    }
+
+    /** Returns the host a JDBC URL connects to, or the whole URL if it cannot be parsed. */
+    static String host(String url) {
+        try {
+            String host = new URI(url.startsWith("jdbc:") ? url.substring(5) : url).getHost();
+            return host != null ? host : url;
+        } catch (URISyntaxException e) {
+            return url;
+        }
+    }
+
+    /** Whether a host is this machine. */
+    static boolean isLocal(String host) {
+        return host.equals("localhost") || host.startsWith("127.") || host.equals("[::1]") || host.equals("::1");
+    }
+}
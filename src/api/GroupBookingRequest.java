@@ -0,0 +1,70 @@
+package api;
+
+/**
+ * One group booking to confirm or cancel in a batch call.
+ *
+ * <p>Instances are immutable, so a list of requests can be built once and handed to
+ * another thread, such as the executor behind {@link AsyncMarketingData}, without copying.
+ *
+ * <p><b>Usage Example:</b>
+ * <pre>
+ * List&lt;GroupBookingRequest&gt; requests = List.of(
+ *         new GroupBookingRequest("Jazz Night", "12", 30),
+ *         new GroupBookingRequest("Jazz Night", "14", 25));
+ * List&lt;Boolean&gt; confirmed = marketing.confirmGroupBookings(requests);
+ * </pre>
+ *
+ * @see MarketingInterface#confirmGroupBookings(java.util.List)
+ * @see MarketingInterface#cancelGroupBookings(java.util.List)
+ */
+public final class GroupBookingRequest {
+    /** The name of the event the group is booked for */
+    private final String eventName;
+
+    /** The unique identifier of the group */
+    private final String groupId;
+
+    /** The number of people in the group */
+    private final int groupSize;
+
+    /**
+     * Creates a group booking request.
+     * @param eventName the name of the event
+     * @param groupId the unique identifier of the group
+     * @param groupSize the number of people in the group
+     */
+    public GroupBookingRequest(String eventName, String groupId, int groupSize) {
+        this.eventName = eventName;
+        this.groupId = groupId;
+        this.groupSize = groupSize;
+    }
+
+    /**
+     * Gets the name of the event the group is booked for.
+     * @return the event name
+     */
+    public String getEventName() {
+        return eventName;
+    }
+
+    /**
+     * Gets the unique identifier of the group.
+     * @return the group ID
+     */
+    public String getGroupId() {
+        return groupId;
+    }
+
+    /**
+     * Gets the number of people in the group.
+     * @return the group size
+     */
+    public int getGroupSize() {
+        return groupSize;
+    }
+
+    @Override
+    public String toString() {
+        return "GroupBookingRequest{eventName='" + eventName + "', groupId='" + groupId + "', groupSize=" + groupSize + "}";
+    }
+}
@@ -0,0 +1,685 @@
+package api;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * A {@link MarketingInterface} decorator that records call counts, error counts,
+ * in-flight calls and latency percentiles for every method.
+ *
+ * <p>Each method records into its own {@link MethodMetrics}, looked up once when the
+ * decorator is created, so the only work added to a call is a few uncontended atomic
+ * updates: no locks, no reflection and no allocation.
+ *
+ * <p>A call counts as an error when it throws, or when the {@link MarketingData} behind
+ * it handled a database failure and returned a default result instead (see
+ * {@link SqlFailures}).
+ *
+ * <p>For the {@code stream...} methods only the opening of the stream (running the query
+ * and fetching the first batch of rows) is timed; rows read afterwards are not.
+ *
+ * <p><b>Usage Example:</b>
+ * <pre>
+ * MarketingInterface marketing = new InstrumentedMarketingData(new MarketingData());
+ * marketing.getClientDetails("1");
+ * System.out.println(MarketingMetrics.shared().render());
+ * </pre>
+ *
+ * @see MarketingMetrics
+ */
+public class InstrumentedMarketingData implements MarketingInterface {
+    private final MarketingInterface delegate;
+    private final MethodMetrics getPastVisitInformationMetrics;
+    private final MethodMetrics getTicketSalesTrendsMetrics;
+    private final MethodMetrics getHighTrafficDatesMetrics;
+    private final MethodMetrics getHighTrafficDatesInTimeframeMetrics;
+    private final MethodMetrics getPreSaleTrendsMetrics;
+    private final MethodMetrics getTicketCategoriesMetrics;
+    private final MethodMetrics getGroupBookingDetailsMetrics;
+    private final MethodMetrics getCompaniesBookedForEventMetrics;
+    private final MethodMetrics getEventsNeedingPromotionMetrics;
+    private final MethodMetrics generatePromotionImpactReportMetrics;
+    private final MethodMetrics getConfirmedBookingsMetrics;
+    private final MethodMetrics getUsedDiscountedTicketsMetrics;
+    private final MethodMetrics confirmGroupBookingMetrics;
+    private final MethodMetrics cancelGroupBookingMetrics;
+    private final MethodMetrics confirmGroupBookingsMetrics;
+    private final MethodMetrics cancelGroupBookingsMetrics;
+    private final MethodMetrics getLowSalesAlertsMetrics;
+    private final MethodMetrics getFilmDetailsMetrics;
+    private final MethodMetrics getClientDetailsMetrics;
+    private final MethodMetrics updateClientDetailsMetrics;
+    private final MethodMetrics bookRoomForClientMetrics;
+    private final MethodMetrics generateInvoiceForRoomUsageMetrics;
+    private final MethodMetrics generateInvoicesForRoomUsageMetrics;
+    private final MethodMetrics setShowTicketPriceMetrics;
+    private final MethodMetrics getShowTicketPriceMetrics;
+    private final MethodMetrics setShowDiscountMetrics;
+    private final MethodMetrics getShowDiscountMetrics;
+    private final MethodMetrics getShowPricingMetrics;
+    private final MethodMetrics getShowPricingBatchMetrics;
+    private final MethodMetrics scheduleFilmScreeningMetrics;
+    private final MethodMetrics arrangeTourMetrics;
+    private final MethodMetrics getRoomUsageDetailsMetrics;
+    private final MethodMetrics getFilmScreeningScheduleMetrics;
+    private final MethodMetrics getTourScheduleMetrics;
+    private final MethodMetrics getFriendsOfLancasterClientsMetrics;
+    private final MethodMetrics streamRoomUsageDetailsMetrics;
+    private final MethodMetrics streamFilmScreeningScheduleMetrics;
+    private final MethodMetrics streamTourScheduleMetrics;
+    private final MethodMetrics streamFriendsOfLancasterClientsMetrics;
+    private final MethodMetrics getConfirmedBookingsPageMetrics;
+    private final MethodMetrics getFriendsOfLancasterClientsPageMetrics;
+    private final MethodMetrics getFilmScreeningSchedulePageMetrics;
+
+    /**
+     * Creates a decorator recording into the shared {@link MarketingMetrics}.
+     * @param delegate the MarketingInterface to instrument
+     */
+    public InstrumentedMarketingData(MarketingInterface delegate) {
+        this(delegate, MarketingMetrics.shared());
+    }
+
+    /**
+     * Creates a decorator recording into the given metrics.
+     * @param delegate the MarketingInterface to instrument
+     * @param metrics the metrics to record into
+     */
+    public InstrumentedMarketingData(MarketingInterface delegate, MarketingMetrics metrics) {
+        this.delegate = delegate;
+        this.getPastVisitInformationMetrics = metrics.forMethod("getPastVisitInformation");
+        this.getTicketSalesTrendsMetrics = metrics.forMethod("getTicketSalesTrends");
+        this.getHighTrafficDatesMetrics = metrics.forMethod("getHighTrafficDates");
+        this.getHighTrafficDatesInTimeframeMetrics = metrics.forMethod("getHighTrafficDates(timeframe)");
+        this.getPreSaleTrendsMetrics = metrics.forMethod("getPreSaleTrends");
+        this.getTicketCategoriesMetrics = metrics.forMethod("getTicketCategories");
+        this.getGroupBookingDetailsMetrics = metrics.forMethod("getGroupBookingDetails");
+        this.getCompaniesBookedForEventMetrics = metrics.forMethod("getCompaniesBookedForEvent");
+        this.getEventsNeedingPromotionMetrics = metrics.forMethod("getEventsNeedingPromotion");
+        this.generatePromotionImpactReportMetrics = metrics.forMethod("generatePromotionImpactReport");
+        this.getConfirmedBookingsMetrics = metrics.forMethod("getConfirmedBookings");
+        this.getUsedDiscountedTicketsMetrics = metrics.forMethod("getUsedDiscountedTickets");
+        this.confirmGroupBookingMetrics = metrics.forMethod("confirmGroupBooking");
+        this.cancelGroupBookingMetrics = metrics.forMethod("cancelGroupBooking");
+        this.confirmGroupBookingsMetrics = metrics.forMethod("confirmGroupBookings");
+        this.cancelGroupBookingsMetrics = metrics.forMethod("cancelGroupBookings");
+        this.getLowSalesAlertsMetrics = metrics.forMethod("getLowSalesAlerts");
+        this.getFilmDetailsMetrics = metrics.forMethod("getFilmDetails");
+        this.getClientDetailsMetrics = metrics.forMethod("getClientDetails");
+        this.updateClientDetailsMetrics = metrics.forMethod("updateClientDetails");
+        this.bookRoomForClientMetrics = metrics.forMethod("bookRoomForClient");
+        this.generateInvoiceForRoomUsageMetrics = metrics.forMethod("generateInvoiceForRoomUsage");
+        this.generateInvoicesForRoomUsageMetrics = metrics.forMethod("generateInvoicesForRoomUsage");
+        this.setShowTicketPriceMetrics = metrics.forMethod("setShowTicketPrice");
+        this.getShowTicketPriceMetrics = metrics.forMethod("getShowTicketPrice");
+        this.setShowDiscountMetrics = metrics.forMethod("setShowDiscount");
+        this.getShowDiscountMetrics = metrics.forMethod("getShowDiscount");
+        this.getShowPricingMetrics = metrics.forMethod("getShowPricing");
+        this.getShowPricingBatchMetrics = metrics.forMethod("getShowPricing(batch)");
+        this.scheduleFilmScreeningMetrics = metrics.forMethod("scheduleFilmScreening");
+        this.arrangeTourMetrics = metrics.forMethod("arrangeTour");
+        this.getRoomUsageDetailsMetrics = metrics.forMethod("getRoomUsageDetails");
+        this.getFilmScreeningScheduleMetrics = metrics.forMethod("getFilmScreeningSchedule");
+        this.getTourScheduleMetrics = metrics.forMethod("getTourSchedule");
+        this.getFriendsOfLancasterClientsMetrics = metrics.forMethod("getFriendsOfLancasterClients");
+        this.streamRoomUsageDetailsMetrics = metrics.forMethod("streamRoomUsageDetails");
+        this.streamFilmScreeningScheduleMetrics = metrics.forMethod("streamFilmScreeningSchedule");
+        this.streamTourScheduleMetrics = metrics.forMethod("streamTourSchedule");
+        this.streamFriendsOfLancasterClientsMetrics = metrics.forMethod("streamFriendsOfLancasterClients");
+        this.getConfirmedBookingsPageMetrics = metrics.forMethod("getConfirmedBookingsPage");
+        this.getFriendsOfLancasterClientsPageMetrics = metrics.forMethod("getFriendsOfLancasterClientsPage");
+        this.getFilmScreeningSchedulePageMetrics = metrics.forMethod("getFilmScreeningSchedulePage");
+    }
+
+    @Override
+    public Map<String, Integer> getPastVisitInformation(String showId) {
+        long start = getPastVisitInformationMetrics.begin();
+        try {
+            return delegate.getPastVisitInformation(showId);
+        } catch (RuntimeException e) {
+            SqlFailures.mark();
+            throw e;
+        } finally {
+            getPastVisitInformationMetrics.end(start);
+        }
+    }
+
+    @Override
+    public String getTicketSalesTrends(String eventName, LocalDate eventDate, String eventTime) {
+        long start = getTicketSalesTrendsMetrics.begin();
+        try {
+            return delegate.getTicketSalesTrends(eventName, eventDate, eventTime);
+        } catch (RuntimeException e) {
+            SqlFailures.mark();
+            throw e;
+        } finally {
+            getTicketSalesTrendsMetrics.end(start);
+        }
+    }
+
+    @Override
+    public List<LocalDate> getHighTrafficDates(String showId) {
+        long start = getHighTrafficDatesMetrics.begin();
+        try {
+            return delegate.getHighTrafficDates(showId);
+        } catch (RuntimeException e) {
+            SqlFailures.mark();
+            throw e;
+        } finally {
+            getHighTrafficDatesMetrics.end(start);
+        }
+    }
+
+    @Override
+    public List<LocalDate> getHighTrafficDates(String showId, String timeframe) {
+        long start = getHighTrafficDatesInTimeframeMetrics.begin();
+        try {
+            return delegate.getHighTrafficDates(showId, timeframe);
+        } catch (RuntimeException e) {
+            SqlFailures.mark();
+            throw e;
+        } finally {
+            getHighTrafficDatesInTimeframeMetrics.end(start);
+        }
+    }
+
+    @Override
+    public Map<String, Integer> getPreSaleTrends(String showId, String ticketType) {
+        long start = getPreSaleTrendsMetrics.begin();
+        try {
+            return delegate.getPreSaleTrends(showId, ticketType);
+        } catch (RuntimeException e) {
+            SqlFailures.mark();
+            throw e;
+        } finally {
+            getPreSaleTrendsMetrics.end(start);
+        }
+    }
+
+    @Override
+    public Map<String, String> getTicketCategories(String showId) {
+        long start = getTicketCategoriesMetrics.begin();
+        try {
+            return delegate.getTicketCategories(showId);
+        } catch (RuntimeException e) {
+            SqlFailures.mark();
+            throw e;
+        } finally {
+            getTicketCategoriesMetrics.end(start);
+        }
+    }
+
+    @Override
+    public GroupBookingDTO getGroupBookingDetails(String eventName, LocalDate eventDate, String eventTime, String groupId) {
+        long start = getGroupBookingDetailsMetrics.begin();
+        try {
+            return delegate.getGroupBookingDetails(eventName, eventDate, eventTime, groupId);
+        } catch (RuntimeException e) {
+            SqlFailures.mark();
+            throw e;
+        } finally {
+            getGroupBookingDetailsMetrics.end(start);
+        }
+    }
+
+    @Override
+    public List<String> getCompaniesBookedForEvent(String eventName, LocalDate eventDate, String eventTime) {
+        long start = getCompaniesBookedForEventMetrics.begin();
+        try {
+            return delegate.getCompaniesBookedForEvent(eventName, eventDate, eventTime);
+        } catch (RuntimeException e) {
+            SqlFailures.mark();
+            throw e;
+        } finally {
+            getCompaniesBookedForEventMetrics.end(start);
+        }
+    }
+
+    @Override
+    public List<String> getEventsNeedingPromotion() {
+        long start = getEventsNeedingPromotionMetrics.begin();
+        try {
+            return delegate.getEventsNeedingPromotion();
+        } catch (RuntimeException e) {
+            SqlFailures.mark();
+            throw e;
+        } finally {
+            getEventsNeedingPromotionMetrics.end(start);
+        }
+    }
+
+    @Override
+    public String generatePromotionImpactReport(String eventName, LocalDate eventDate, String eventTime) {
+        long start = generatePromotionImpactReportMetrics.begin();
+        try {
+            return delegate.generatePromotionImpactReport(eventName, eventDate, eventTime);
+        } catch (RuntimeException e) {
+            SqlFailures.mark();
+            throw e;
+        } finally {
+            generatePromotionImpactReportMetrics.end(start);
+        }
+    }
+
+    @Override
+    public List<BookingDTO> getConfirmedBookings(String eventName, LocalDate eventDate, String eventTime) {
+        long start = getConfirmedBookingsMetrics.begin();
+        try {
+            return delegate.getConfirmedBookings(eventName, eventDate, eventTime);
+        } catch (RuntimeException e) {
+            SqlFailures.mark();
+            throw e;
+        } finally {
+            getConfirmedBookingsMetrics.end(start);
+        }
+    }
+
+    @Override
+    public int getUsedDiscountedTickets(String eventName, LocalDate eventDate, String eventTime) {
+        long start = getUsedDiscountedTicketsMetrics.begin();
+        try {
+            return delegate.getUsedDiscountedTickets(eventName, eventDate, eventTime);
+        } catch (RuntimeException e) {
+            SqlFailures.mark();
+            throw e;
+        } finally {
+            getUsedDiscountedTicketsMetrics.end(start);
+        }
+    }
+
+    @Override
+    public boolean confirmGroupBooking(String eventName, String groupId, int groupSize) {
+        long start = confirmGroupBookingMetrics.begin();
+        try {
+            return delegate.confirmGroupBooking(eventName, groupId, groupSize);
+        } catch (RuntimeException e) {
+            SqlFailures.mark();
+            throw e;
+        } finally {
+            confirmGroupBookingMetrics.end(start);
+        }
+    }
+
+    @Override
+    public boolean cancelGroupBooking(String eventName, String groupId, int groupSize) {
+        long start = cancelGroupBookingMetrics.begin();
+        try {
+            return delegate.cancelGroupBooking(eventName, groupId, groupSize);
+        } catch (RuntimeException e) {
+            SqlFailures.mark();
+            throw e;
+        } finally {
+            cancelGroupBookingMetrics.end(start);
+        }
+    }
+
+    @Override
+    public List<Boolean> confirmGroupBookings(List<GroupBookingRequest> requests) {
+        long start = confirmGroupBookingsMetrics.begin();
+        try {
+            return delegate.confirmGroupBookings(requests);
+        } catch (RuntimeException e) {
+            SqlFailures.mark();
+            throw e;
+        } finally {
+            confirmGroupBookingsMetrics.end(start);
+        }
+    }
+
+    @Override
+    public List<Boolean> cancelGroupBookings(List<GroupBookingRequest> requests) {
+        long start = cancelGroupBookingsMetrics.begin();
+        try {
+            return delegate.cancelGroupBookings(requests);
+        } catch (RuntimeException e) {
+            SqlFailures.mark();
+            throw e;
+        } finally {
+            cancelGroupBookingsMetrics.end(start);
+        }
+    }
+
+    @Override
+    public List<String> getLowSalesAlerts() {
+        long start = getLowSalesAlertsMetrics.begin();
+        try {
+            return delegate.getLowSalesAlerts();
+        } catch (RuntimeException e) {
+            SqlFailures.mark();
+            throw e;
+        } finally {
+            getLowSalesAlertsMetrics.end(start);
+        }
+    }
+
+    @Override
+    public FilmDetails getFilmDetails(String filmName) {
+        long start = getFilmDetailsMetrics.begin();
+        try {
+            return delegate.getFilmDetails(filmName);
+        } catch (RuntimeException e) {
+            SqlFailures.mark();
+            throw e;
+        } finally {
+            getFilmDetailsMetrics.end(start);
+        }
+    }
+
+    @Override
+    public ClientDTO getClientDetails(String clientId) {
+        long start = getClientDetailsMetrics.begin();
+        try {
+            return delegate.getClientDetails(clientId);
+        } catch (RuntimeException e) {
+            SqlFailures.mark();
+            throw e;
+        } finally {
+            getClientDetailsMetrics.end(start);
+        }
+    }
+
+    @Override
+    public boolean updateClientDetails(String clientId, String contactEmail, String contactName, String streetAddress) {
+        long start = updateClientDetailsMetrics.begin();
+        try {
+            return delegate.updateClientDetails(clientId, contactEmail, contactName, streetAddress);
+        } catch (RuntimeException e) {
+            SqlFailures.mark();
+            throw e;
+        } finally {
+            updateClientDetailsMetrics.end(start);
+        }
+    }
+
+    @Override
+    public boolean bookRoomForClient(String clientId, LocalDate date, LocalTime startTime, String title, String location) {
+        long start = bookRoomForClientMetrics.begin();
+        try {
+            return delegate.bookRoomForClient(clientId, date, startTime, title, location);
+        } catch (RuntimeException e) {
+            SqlFailures.mark();
+            throw e;
+        } finally {
+            bookRoomForClientMetrics.end(start);
+        }
+    }
+
+    @Override
+    public boolean generateInvoiceForRoomUsage(String clientId, LocalDate date, double cost) {
+        long start = generateInvoiceForRoomUsageMetrics.begin();
+        try {
+            return delegate.generateInvoiceForRoomUsage(clientId, date, cost);
+        } catch (RuntimeException e) {
+            SqlFailures.mark();
+            throw e;
+        } finally {
+            generateInvoiceForRoomUsageMetrics.end(start);
+        }
+    }
+
+    @Override
+    public int generateInvoicesForRoomUsage(List<RoomInvoiceRequest> requests) {
+        long start = generateInvoicesForRoomUsageMetrics.begin();
+        try {
+            return delegate.generateInvoicesForRoomUsage(requests);
+        } catch (RuntimeException e) {
+            SqlFailures.mark();
+            throw e;
+        } finally {
+            generateInvoicesForRoomUsageMetrics.end(start);
+        }
+    }
+
+    @Override
+    public boolean setShowTicketPrice(String showId, double price) {
+        long start = setShowTicketPriceMetrics.begin();
+        try {
+            return delegate.setShowTicketPrice(showId, price);
+        } catch (RuntimeException e) {
+            SqlFailures.mark();
+            throw e;
+        } finally {
+            setShowTicketPriceMetrics.end(start);
+        }
+    }
+
+    @Override
+    public double getShowTicketPrice(String showId) {
+        long start = getShowTicketPriceMetrics.begin();
+        try {
+            return delegate.getShowTicketPrice(showId);
+        } catch (RuntimeException e) {
+            SqlFailures.mark();
+            throw e;
+        } finally {
+            getShowTicketPriceMetrics.end(start);
+        }
+    }
+
+    @Override
+    public boolean setShowDiscount(String showId, double discount) {
+        long start = setShowDiscountMetrics.begin();
+        try {
+            return delegate.setShowDiscount(showId, discount);
+        } catch (RuntimeException e) {
+            SqlFailures.mark();
+            throw e;
+        } finally {
+            setShowDiscountMetrics.end(start);
+        }
+    }
+
+    @Override
+    public double getShowDiscount(String showId) {
+        long start = getShowDiscountMetrics.begin();
+        try {
+            return delegate.getShowDiscount(showId);
+        } catch (RuntimeException e) {
+            SqlFailures.mark();
+            throw e;
+        } finally {
+            getShowDiscountMetrics.end(start);
+        }
+    }
+
+    @Override
+    public ShowPricingDTO getShowPricing(String showId) {
+        long start = getShowPricingMetrics.begin();
+        try {
+            return delegate.getShowPricing(showId);
+        } catch (RuntimeException e) {
+            SqlFailures.mark();
+            throw e;
+        } finally {
+            getShowPricingMetrics.end(start);
+        }
+    }
+
+    @Override
+    public Map<String, ShowPricingDTO> getShowPricing(Collection<String> showIds) {
+        long start = getShowPricingBatchMetrics.begin();
+        try {
+            return delegate.getShowPricing(showIds);
+        } catch (RuntimeException e) {
+            SqlFailures.mark();
+            throw e;
+        } finally {
+            getShowPricingBatchMetrics.end(start);
+        }
+    }
+
+    @Override
+    public boolean scheduleFilmScreening(String filmId, LocalDate date, LocalTime startTime, double price) {
+        long start = scheduleFilmScreeningMetrics.begin();
+        try {
+            return delegate.scheduleFilmScreening(filmId, date, startTime, price);
+        } catch (RuntimeException e) {
+            SqlFailures.mark();
+            throw e;
+        } finally {
+            scheduleFilmScreeningMetrics.end(start);
+        }
+    }
+
+    @Override
+    public boolean arrangeTour(String clientId, LocalDate date, LocalTime startTime, String location) {
+        long start = arrangeTourMetrics.begin();
+        try {
+            return delegate.arrangeTour(clientId, date, startTime, location);
+        } catch (RuntimeException e) {
+            SqlFailures.mark();
+            throw e;
+        } finally {
+            arrangeTourMetrics.end(start);
+        }
+    }
+
+    @Override
+    public List<RoomUsageDTO> getRoomUsageDetails(LocalDate startDate, LocalDate endDate) {
+        long start = getRoomUsageDetailsMetrics.begin();
+        try {
+            return delegate.getRoomUsageDetails(startDate, endDate);
+        } catch (RuntimeException e) {
+            SqlFailures.mark();
+            throw e;
+        } finally {
+            getRoomUsageDetailsMetrics.end(start);
+        }
+    }
+
+    @Override
+    public List<FilmScreeningDTO> getFilmScreeningSchedule(LocalDate startDate, LocalDate endDate) {
+        long start = getFilmScreeningScheduleMetrics.begin();
+        try {
+            return delegate.getFilmScreeningSchedule(startDate, endDate);
+        } catch (RuntimeException e) {
+            SqlFailures.mark();
+            throw e;
+        } finally {
+            getFilmScreeningScheduleMetrics.end(start);
+        }
+    }
+
+    @Override
+    public List<TourDTO> getTourSchedule(LocalDate startDate, LocalDate endDate) {
+        long start = getTourScheduleMetrics.begin();
+        try {
+            return delegate.getTourSchedule(startDate, endDate);
+        } catch (RuntimeException e) {
+            SqlFailures.mark();
+            throw e;
+        } finally {
+            getTourScheduleMetrics.end(start);
+        }
+    }
+
+    @Override
+    public List<ClientDTO> getFriendsOfLancasterClients() {
+        long start = getFriendsOfLancasterClientsMetrics.begin();
+        try {
+            return delegate.getFriendsOfLancasterClients();
+        } catch (RuntimeException e) {
+            SqlFailures.mark();
+            throw e;
+        } finally {
+            getFriendsOfLancasterClientsMetrics.end(start);
+        }
+    }
+
+    @Override
+    public Stream<RoomUsageDTO> streamRoomUsageDetails(LocalDate startDate, LocalDate endDate) {
+        long start = streamRoomUsageDetailsMetrics.begin();
+        try {
+            return delegate.streamRoomUsageDetails(startDate, endDate);
+        } catch (RuntimeException e) {
+            SqlFailures.mark();
+            throw e;
+        } finally {
+            streamRoomUsageDetailsMetrics.end(start);
+        }
+    }
+
+    @Override
+    public Stream<FilmScreeningDTO> streamFilmScreeningSchedule(LocalDate startDate, LocalDate endDate) {
+        long start = streamFilmScreeningScheduleMetrics.begin();
+        try {
+            return delegate.streamFilmScreeningSchedule(startDate, endDate);
+        } catch (RuntimeException e) {
+            SqlFailures.mark();
+            throw e;
+        } finally {
+            streamFilmScreeningScheduleMetrics.end(start);
+        }
+    }
+
+    @Override
+    public Stream<TourDTO> streamTourSchedule(LocalDate startDate, LocalDate endDate) {
+        long start = streamTourScheduleMetrics.begin();
+        try {
+            return delegate.streamTourSchedule(startDate, endDate);
+        } catch (RuntimeException e) {
+            SqlFailures.mark();
+            throw e;
+        } finally {
+            streamTourScheduleMetrics.end(start);
+        }
+    }
+
+    @Override
+    public Stream<ClientDTO> streamFriendsOfLancasterClients() {
+        long start = streamFriendsOfLancasterClientsMetrics.begin();
+        try {
+            return delegate.streamFriendsOfLancasterClients();
+        } catch (RuntimeException e) {
+            SqlFailures.mark();
+            throw e;
+        } finally {
+            streamFriendsOfLancasterClientsMetrics.end(start);
+        }
+    }
+
+    @Override
+    public Page<BookingDTO> getConfirmedBookingsPage(String eventName, LocalDate eventDate, String eventTime,
+                                                     String pageToken, int pageSize) {
+        long start = getConfirmedBookingsPageMetrics.begin();
+        try {
+            return delegate.getConfirmedBookingsPage(eventName, eventDate, eventTime, pageToken, pageSize);
+        } catch (RuntimeException e) {
+            SqlFailures.mark();
+            throw e;
+        } finally {
+            getConfirmedBookingsPageMetrics.end(start);
+        }
+    }
+
+    @Override
+    public Page<ClientDTO> getFriendsOfLancasterClientsPage(String pageToken, int pageSize) {
+        long start = getFriendsOfLancasterClientsPageMetrics.begin();
+        try {
+            return delegate.getFriendsOfLancasterClientsPage(pageToken, pageSize);
+        } catch (RuntimeException e) {
+            SqlFailures.mark();
+            throw e;
+        } finally {
+            getFriendsOfLancasterClientsPageMetrics.end(start);
+        }
+    }
+
+    @Override
+    public Page<FilmScreeningDTO> getFilmScreeningSchedulePage(LocalDate startDate, LocalDate endDate,
+                                                               String pageToken, int pageSize) {
+        long start = getFilmScreeningSchedulePageMetrics.begin();
+        try {
+            return delegate.getFilmScreeningSchedulePage(startDate, endDate, pageToken, pageSize);
+        } catch (RuntimeException e) {
+            SqlFailures.mark();
+            throw e;
+        } finally {
+            getFilmScreeningSchedulePageMetrics.end(start);
+        }
+    }
+}
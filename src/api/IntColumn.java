@@ -0,0 +1,47 @@
+package api;
+
+import java.util.Arrays;
+
+/**
+ * A growable array of primitive ints, used to hold a column of values read from the
+ * database without boxing each one.
+ */
+final class IntColumn {
+    int[] values = new int[1024];
+    int size;
+
+    /**
+     * Appends a value, growing the backing array if needed.
+     * @param value the value to append
+     */
+    void add(int value) {
+        if (size == values.length) {
+            values = Arrays.copyOf(values, size * 2);
+        }
+        values[size++] = value;
+    }
+
+    /**
+     * Gets the last value appended.
+     * @return the last value
+     * @throws ArrayIndexOutOfBoundsException if the column is empty
+     */
+    int last() {
+        return values[size - 1];
+    }
+
+    /**
+     * Copies the values into an array of exactly the column's size.
+     * @return a new array holding the values
+     */
+    int[] toArray() {
+        return Arrays.copyOf(values, size);
+    }
+
+    /**
+     * Empties the column, keeping its capacity.
+     */
+    void clear() {
+        size = 0;
+    }
+}
@@ -1,9 +1,11 @@
 package api;
 
+import java.io.IOException;
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.SQLException;
 import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 
@@ -12,19 +14,30 @@ import java.util.Map;
  *
  * <p>This class handles all database connection management and delegates marketing-related
  * operations to the MarketingData class. It implements the Singleton pattern
- * to ensure a single database connection is maintained throughout the application.
+ * to ensure a single {@link ConnectionPool} is shared throughout the application.
  *
  * <p><b>Key Responsibilities:</b>
  * <ul>
  *   <li>Manages MySQL database connection lifecycle
  *   <li>Provides static access to marketing data operations
- *   <li>Handles connection pooling and reconnection
+ *   <li>Handles connection pooling and reconnection through a bounded {@link ConnectionPool}
+ *   <li>Logs slow statements when {@code lancaster.slowQuery.thresholdMs} is set
+ *       (see {@link SlowQueryLog})
+ *   <li>Accepts room bookings and tours through a write-behind log when
+ *       {@code lancaster.writeBehind.file} is set (see {@link MeetingWriteBehind})
+ *   <li>Rejects double room bookings when {@code lancaster.booking.index} is true
+ *       (see {@link MeetingIntervalIndex})
  *   <li>Includes test methods for verifying database operations
  * </ul>
  *
  * <p><b>Connection Details:</b>
  * <ul>
  *   <li>URL: jdbc:mysql://sst-stuproj.city.ac.uk:3306/in2033t12
+ *       (overridable with the {@code lancaster.db.url}, {@code lancaster.db.user} and
+ *       {@code lancaster.db.password} system properties)
+ *   <li>The default URL sets {@code useServerPrepStmts=true} and
+ *       {@code rewriteBatchedStatements=true}, so JDBC batches are sent as multi-row
+ *       statements; a URL given in {@code lancaster.db.url} should set both too
  *   <li>Driver: com.mysql.cj.jdbc.Driver
  * </ul>
  *
@@ -45,55 +58,134 @@ import java.util.Map;
  * @see Connection
  */
 public class JDBC {
-    private static Connection connection;
+    private static final String URL = System.getProperty("lancaster.db.url",
+            "jdbc:mysql://sst-stuproj.city.ac.uk:3306/in2033t12?useServerPrepStmts=true&rewriteBatchedStatements=true");
+    private static final String USERNAME = System.getProperty("lancaster.db.user", "in2033t12_d");
+    private static final String PASSWORD = System.getProperty("lancaster.db.password", "MhftnbMWQLk");
+
+    private static ConnectionPool pool;
+    private static SlowQueryLog slowQueryLog;
     private static MarketingData marketingData;
 
     // Private constructor to prevent instantiation
     /**
      * Private constructor to enforce Singleton pattern.
-     * @throws SQLException if database connection fails
-     * @throws ClassNotFoundException if JDBC driver not found
+     * All connection management is done through the static methods.
      */
-    private JDBC() throws SQLException, ClassNotFoundException {
-        String url = "jdbc:mysql://sst-stuproj.city.ac.uk:3306/in2033t12";
-        String username = "in2033t12_d";
-        String password = "MhftnbMWQLk";
-
-        Class.forName("com.mysql.cj.jdbc.Driver");
-        connection = DriverManager.getConnection(url, username, password);
-        marketingData = new MarketingData();
+    private JDBC() {
     }
 
     /**
-     * Gets the active database connection, establishing a new one if necessary.
+     * Borrows a connection from the shared connection pool, creating the pool if necessary.
+     *
+     * <p>The returned connection must be closed by the caller (ideally with
+     * try-with-resources); closing it returns it to the pool rather than closing
+     * the underlying socket.
      *
-     * @return active database Connection object
-     * @throws SQLException if connection cannot be established
+     * <p>Pool sizing can be tuned with the system properties {@code lancaster.pool.minSize},
+     * {@code lancaster.pool.maxSize}, {@code lancaster.pool.borrowTimeoutMs},
+     * {@code lancaster.pool.idleTimeoutMs}, {@code lancaster.pool.leakThresholdMs} and
+     * {@code lancaster.pool.statementCacheSize}.
+     *
+     * @return a pooled database Connection
+     * @throws SQLException if no connection could be obtained in time
      * @throws ClassNotFoundException if JDBC driver not found
      */
     public static Connection getConnection() throws SQLException, ClassNotFoundException {
-        if (connection == null || connection.isClosed()) {
-            String url = "jdbc:mysql://sst-stuproj.city.ac.uk:3306/in2033t12";
-            String username = "in2033t12_d";
-            String password = "MhftnbMWQLk";
+        return getPool().borrow();
+    }
+
+    /**
+     * Gets the shared connection pool, creating it on first use.
+     *
+     * @return the active ConnectionPool
+     * @throws ClassNotFoundException if JDBC driver not found
+     */
+    static synchronized ConnectionPool getPool() throws ClassNotFoundException {
+        if (pool == null || pool.isClosed()) {
             Class.forName("com.mysql.cj.jdbc.Driver");
-            connection = DriverManager.getConnection(url, username, password);
+            pool = new ConnectionPool(URL, USERNAME, PASSWORD,
+                    Integer.getInteger("lancaster.pool.minSize", 2),
+                    Integer.getInteger("lancaster.pool.maxSize", 10),
+                    Long.getLong("lancaster.pool.borrowTimeoutMs", 10_000L),
+                    Long.getLong("lancaster.pool.idleTimeoutMs", 300_000L),
+                    Long.getLong("lancaster.pool.leakThresholdMs", 60_000L),
+                    Integer.getInteger("lancaster.pool.statementCacheSize", 64));
+            if (slowQueryLog == null) {
+                slowQueryLog = SlowQueryLog.fromSystemProperties();
+            }
+            pool.setSlowQueryLog(slowQueryLog);
         }
         // Initialize marketingData if not already done
         if (marketingData == null) {
-            marketingData = new MarketingData();
+            marketingData = createMarketingData();
+            if (Boolean.getBoolean("lancaster.booking.index")) {
+                // Loading borrows from the pool, so marketingData must already be set
+                loadMeetingIndex(marketingData);
+            }
+        }
+        return pool;
+    }
+
+    /**
+     * Loads a {@link MeetingIntervalIndex} with the bookings from yesterday onwards and
+     * sets it on the MarketingData. Yesterday is included because a booking starting then
+     * can run past midnight into today. If it cannot be loaded, bookings are not checked.
+     */
+    private static void loadMeetingIndex(MarketingData data) {
+        MeetingIntervalIndex index = MeetingIntervalIndex.fromSystemProperties();
+        try {
+            index.load(LocalDate.now().minusDays(1));
+            data.setMeetingIndex(index);
+        } catch (SQLException | ClassNotFoundException e) {
+            SqlFailures.record(e);
+        }
+    }
+
+    /**
+     * Creates the MarketingData the static methods delegate to: a
+     * {@link WriteBehindMarketingData} if {@code lancaster.writeBehind.file} names a log
+     * that can be opened, otherwise a plain MarketingData.
+     */
+    private static MarketingData createMarketingData() {
+        try {
+            MeetingWriteBehind writeBehind = MeetingWriteBehind.fromSystemProperties();
+            if (writeBehind != null) {
+                return new WriteBehindMarketingData(writeBehind);
+            }
+        } catch (IOException e) {
+            SqlFailures.record(e); // Book synchronously rather than not at all
         }
-        return connection;
+        return new MarketingData();
     }
 
     /**
-     * Closes the active database connection if it exists and is open.
+     * Shuts down the connection pool, closing all idle connections, and flushes the
+     * slow-query log if one is enabled. A write-behind log is closed first, so bookings
+     * already accepted are written while the pool is still open.
      * @throws SQLException if connection cannot be closed
      */
     public static void closeConnection() throws SQLException {
-        if (connection != null && !connection.isClosed()) {
-            connection.close();
-            connection = null;
+        MarketingData current;
+        synchronized (JDBC.class) {
+            current = marketingData;
+        }
+        if (current instanceof WriteBehindMarketingData) {
+            // Not holding the lock: the log's writer needs getConnection() to drain
+            ((WriteBehindMarketingData) current).getWriteBehind().close();
+        }
+        synchronized (JDBC.class) {
+            if (current instanceof WriteBehindMarketingData && marketingData == current) {
+                marketingData = null; // Reopened, replaying anything unwritten, on next use
+            }
+            if (pool != null) {
+                pool.close();
+                pool = null;
+            }
+            if (slowQueryLog != null) {
+                slowQueryLog.close();
+                slowQueryLog = null;
+            }
         }
     }
 
@@ -124,6 +216,24 @@ public class JDBC {
         return marketingData.getShowDiscount(showId);
     }
 
+    /**
+     * Gets the price, discount and effective price of a show in one query.
+     * @param showId the show identifier
+     * @return ShowPricingDTO for the show, or null if it does not exist
+     */
+    public static ShowPricingDTO getShowPricing(String showId) {
+        return marketingData.getShowPricing(showId);
+    }
+
+    /**
+     * Gets the pricing of several shows in one query.
+     * @param showIds the show identifiers
+     * @return Map from ShowID to ShowPricingDTO
+     */
+    public static Map<String, ShowPricingDTO> getShowPricing(Collection<String> showIds) {
+        return marketingData.getShowPricing(showIds);
+    }
+
     /**
      * Gets film details by name.
      * @param filmName the film title
@@ -153,6 +263,32 @@ public class JDBC {
         return marketingData.getRoomUsageDetails(startDate, endDate);
     }
 
+    /**
+     * Books a room for a client meeting, through the write-behind log if one is enabled.
+     * @param clientId the client identifier
+     * @param date the date of the meeting
+     * @param startTime the start time of the meeting
+     * @param title the title of the meeting
+     * @param location the room location
+     * @return true if the booking was written or accepted for writing
+     */
+    public static boolean bookRoomForClient(String clientId, LocalDate date, LocalTime startTime, String title,
+                                            String location) {
+        return marketingData.bookRoomForClient(clientId, date, startTime, title, location);
+    }
+
+    /**
+     * Arranges a venue tour for a client, through the write-behind log if one is enabled.
+     * @param clientId the client identifier
+     * @param date the tour date
+     * @param startTime the tour start time
+     * @param location the tour starting location
+     * @return true if the tour was written or accepted for writing
+     */
+    public static boolean arrangeTour(String clientId, LocalDate date, LocalTime startTime, String location) {
+        return marketingData.arrangeTour(clientId, date, startTime, location);
+    }
+
     /**
      * Gets list of events needing promotion.
      * @return List of event names with low ticket sales
@@ -187,8 +323,8 @@ public class JDBC {
      */
     public static void main(String[] args) {
         try {
-            // Ensure the connection and marketingData are initialized
-            getConnection();
+            // Ensure the connection pool and marketingData are initialized
+            getPool();
 
             // Test 1: Fetch Client Details for ClientID = 1
             System.out.println("Fetching client details for ClientID 1...");
@@ -200,9 +336,12 @@ public class JDBC {
 
             // Test 2: Fetch Show Ticket Price and Discount for ShowID = 15
             System.out.println("\nFetching ticket price and discount for ShowID 15...");
-            double price = getShowTicketPrice("15");
-            double discount = getShowDiscount("15");
-            System.out.println("ShowID 15: Price=" + price + ", Discount=" + discount);
+            ShowPricingDTO pricing = getShowPricing("15");
+            if (pricing != null) {
+                System.out.println("ShowID 15: Price=" + pricing.getPrice() +
+                        ", Discount=" + pricing.getDiscount() +
+                        ", Effective=" + pricing.getEffectivePrice());
+            }
 
             // Test 3: Fetch Film Details for "The Space Odyssey"
             System.out.println("\nFetching film details for 'The Space Odyssey'...");
@@ -247,7 +386,7 @@ public class JDBC {
         } finally {
             try {
                 closeConnection();
-                System.out.println("\nDatabase connection closed.");
+                System.out.println("\nDatabase connection pool closed.");
             } catch (SQLException e) {
                 e.printStackTrace();
             }
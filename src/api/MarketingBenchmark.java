@@ -0,0 +1,360 @@
+package api;
+
+import java.lang.management.ManagementFactory;
+import java.sql.Connection;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Throughput, latency and allocation benchmark for every {@link MarketingInterface} method.
+ *
+ * <p>The benchmark fills a local database with a {@link DataGenerator}, then calls each
+ * method from several threads with random but valid arguments, first to warm up and
+ * then for a measured period. For each method it reports:
+ * <ul>
+ *   <li>throughput in calls per second across all threads
+ *   <li>latency percentiles (p50, p90, p99, p99.9 and max) in microseconds
+ *   <li>bytes allocated per call on the calling thread
+ * </ul>
+ *
+ * <p>Because it overwrites tables, the benchmark refuses to run unless
+ * {@code lancaster.db.url} points it at a database explicitly and
+ * {@code lancaster.bench.allowDestructive=true} confirms it may be overwritten
+ * (see {@link DestructiveRunGuard}):
+ * <pre>
+ * java -Dlancaster.db.url=jdbc:mysql://localhost:3306/bench?rewriteBatchedStatements=true \
+ *      -Dlancaster.db.user=root -Dlancaster.db.password=secret -Dlancaster.bench.allowDestructive=true \
+ *      -cp out:lib/* api.MarketingBenchmark 'get.*'
+ * </pre>
+ * The optional argument is a regular expression selecting the methods to run.
+ *
+ * <p><b>Tuning properties</b> (the scale is set with the {@link DataGenerator} properties):
+ * <ul>
+ *   <li>{@code lancaster.bench.threads} - calling threads per method (default 4)
+ *   <li>{@code lancaster.bench.warmupMs} - warm-up time per method (default 2000)
+ *   <li>{@code lancaster.bench.measureMs} - measured time per method (default 5000)
+ *   <li>{@code lancaster.bench.populate} - set to false to reuse already generated data
+ * </ul>
+ */
+public class MarketingBenchmark {
+    /**
+     * One call to the marketing API with arguments chosen from the generated data.
+     */
+    private interface Operation {
+        Object run(MarketingInterface marketing, DataGenerator data, Random random);
+    }
+
+    private static final Map<String, Operation> OPERATIONS = new LinkedHashMap<>();
+
+    static {
+        OPERATIONS.put("getPastVisitInformation", (m, d, r) -> m.getPastVisitInformation(showId(d, r)));
+        OPERATIONS.put("getTicketSalesTrends", (m, d, r) -> {
+            int show = 1 + r.nextInt(d.getShows());
+            return m.getTicketSalesTrends(d.showName(show), d.showDate(show), d.showTime(show).toString());
+        });
+        OPERATIONS.put("getHighTrafficDates", (m, d, r) -> m.getHighTrafficDates(showId(d, r)));
+        OPERATIONS.put("getHighTrafficDates(timeframe)", (m, d, r) -> m.getHighTrafficDates(showId(d, r), "30"));
+        OPERATIONS.put("getPreSaleTrends", (m, d, r) -> m.getPreSaleTrends(showId(d, r), "Standard"));
+        OPERATIONS.put("getTicketCategories", (m, d, r) -> m.getTicketCategories(showId(d, r)));
+        OPERATIONS.put("getGroupBookingDetails", (m, d, r) -> {
+            int show = 1 + r.nextInt(d.getShows());
+            return m.getGroupBookingDetails(d.showName(show), d.showDate(show), d.showTime(show).toString(),
+                    String.valueOf(1 + r.nextInt(d.getGroups())));
+        });
+        OPERATIONS.put("getCompaniesBookedForEvent", (m, d, r) -> {
+            int show = 1 + r.nextInt(d.getShows());
+            return m.getCompaniesBookedForEvent(d.showName(show), d.showDate(show), d.showTime(show).toString());
+        });
+        OPERATIONS.put("getEventsNeedingPromotion", (m, d, r) -> m.getEventsNeedingPromotion());
+        OPERATIONS.put("generatePromotionImpactReport", (m, d, r) -> {
+            int show = 1 + r.nextInt(d.getShows());
+            return m.generatePromotionImpactReport(d.showName(show), d.showDate(show), d.showTime(show).toString());
+        });
+        OPERATIONS.put("getConfirmedBookings", (m, d, r) -> {
+            int show = 1 + r.nextInt(d.getShows());
+            return m.getConfirmedBookings(d.showName(show), d.showDate(show), d.showTime(show).toString());
+        });
+        OPERATIONS.put("getUsedDiscountedTickets", (m, d, r) -> {
+            int show = 1 + r.nextInt(d.getShows());
+            return m.getUsedDiscountedTickets(d.showName(show), d.showDate(show), d.showTime(show).toString());
+        });
+        OPERATIONS.put("confirmGroupBooking", (m, d, r) ->
+                m.confirmGroupBooking(d.showName(1 + r.nextInt(d.getShows())), groupId(d, r), 12));
+        OPERATIONS.put("cancelGroupBooking", (m, d, r) ->
+                m.cancelGroupBooking(d.showName(1 + r.nextInt(d.getShows())), groupId(d, r), 12));
+        OPERATIONS.put("confirmGroupBookings", (m, d, r) -> m.confirmGroupBookings(groupBookings(d, r)));
+        OPERATIONS.put("cancelGroupBookings", (m, d, r) -> m.cancelGroupBookings(groupBookings(d, r)));
+        OPERATIONS.put("getLowSalesAlerts", (m, d, r) -> m.getLowSalesAlerts());
+        OPERATIONS.put("getFilmDetails", (m, d, r) -> m.getFilmDetails(d.filmName(1 + r.nextInt(d.getFilms()))));
+        OPERATIONS.put("getClientDetails", (m, d, r) -> m.getClientDetails(clientId(d, r)));
+        OPERATIONS.put("updateClientDetails", (m, d, r) -> {
+            String client = clientId(d, r);
+            return m.updateClientDetails(client, "client" + client + "@example.com", "Client " + client,
+                    client + " Generated Street");
+        });
+        OPERATIONS.put("bookRoomForClient", (m, d, r) ->
+                m.bookRoomForClient(clientId(d, r), date(d, r), LocalTime.of(9 + r.nextInt(9), 0), "Benchmark", "Green Room"));
+        OPERATIONS.put("generateInvoiceForRoomUsage", (m, d, r) ->
+                m.generateInvoiceForRoomUsage(clientId(d, r), date(d, r), 100));
+        OPERATIONS.put("generateInvoicesForRoomUsage", (m, d, r) -> {
+            List<RoomInvoiceRequest> invoices = new ArrayList<>(100);
+            for (int i = 0; i < 100; i++) {
+                invoices.add(new RoomInvoiceRequest(clientId(d, r), date(d, r), 100));
+            }
+            return m.generateInvoicesForRoomUsage(invoices);
+        });
+        OPERATIONS.put("setShowTicketPrice", (m, d, r) -> m.setShowTicketPrice(showId(d, r), 10 + r.nextInt(30)));
+        OPERATIONS.put("getShowTicketPrice", (m, d, r) -> m.getShowTicketPrice(showId(d, r)));
+        OPERATIONS.put("setShowDiscount", (m, d, r) -> m.setShowDiscount(showId(d, r), r.nextInt(4) == 0 ? 0.1 : 0));
+        OPERATIONS.put("getShowDiscount", (m, d, r) -> m.getShowDiscount(showId(d, r)));
+        OPERATIONS.put("getShowPricing", (m, d, r) -> m.getShowPricing(showId(d, r)));
+        OPERATIONS.put("getShowPricing(batch)", (m, d, r) -> {
+            List<String> showIds = new ArrayList<>(50);
+            for (int i = 0; i < 50; i++) {
+                showIds.add(showId(d, r));
+            }
+            return m.getShowPricing(showIds);
+        });
+        OPERATIONS.put("scheduleFilmScreening", (m, d, r) ->
+                m.scheduleFilmScreening(String.valueOf(1 + r.nextInt(d.getFilms())), date(d, r), LocalTime.of(14, 0), 9.5));
+        OPERATIONS.put("arrangeTour", (m, d, r) ->
+                m.arrangeTour(clientId(d, r), date(d, r), LocalTime.of(10, 0), "Main Hall"));
+        OPERATIONS.put("getRoomUsageDetails", (m, d, r) -> {
+            LocalDate start = date(d, r);
+            return m.getRoomUsageDetails(start, start.plusDays(7));
+        });
+        OPERATIONS.put("getFilmScreeningSchedule", (m, d, r) -> {
+            LocalDate start = date(d, r);
+            return m.getFilmScreeningSchedule(start, start.plusDays(7));
+        });
+        OPERATIONS.put("getTourSchedule", (m, d, r) -> {
+            LocalDate start = date(d, r);
+            return m.getTourSchedule(start, start.plusDays(7));
+        });
+        OPERATIONS.put("getFriendsOfLancasterClients", (m, d, r) -> m.getFriendsOfLancasterClients());
+        OPERATIONS.put("streamRoomUsageDetails", (m, d, r) -> {
+            LocalDate start = date(d, r);
+            try (Stream<RoomUsageDTO> rows = m.streamRoomUsageDetails(start, start.plusDays(7))) {
+                return rows.count();
+            }
+        });
+        OPERATIONS.put("streamFilmScreeningSchedule", (m, d, r) -> {
+            LocalDate start = date(d, r);
+            try (Stream<FilmScreeningDTO> rows = m.streamFilmScreeningSchedule(start, start.plusDays(7))) {
+                return rows.count();
+            }
+        });
+        OPERATIONS.put("streamTourSchedule", (m, d, r) -> {
+            LocalDate start = date(d, r);
+            try (Stream<TourDTO> rows = m.streamTourSchedule(start, start.plusDays(7))) {
+                return rows.count();
+            }
+        });
+        OPERATIONS.put("streamFriendsOfLancasterClients", (m, d, r) -> {
+            try (Stream<ClientDTO> rows = m.streamFriendsOfLancasterClients()) {
+                return rows.count();
+            }
+        });
+        OPERATIONS.put("getConfirmedBookingsPage", (m, d, r) -> {
+            int show = 1 + r.nextInt(d.getShows());
+            return m.getConfirmedBookingsPage(d.showName(show), d.showDate(show), d.showTime(show).toString(),
+                    null, Page.DEFAULT_SIZE).getItems();
+        });
+        OPERATIONS.put("getFriendsOfLancasterClientsPage", (m, d, r) ->
+                m.getFriendsOfLancasterClientsPage(null, Page.DEFAULT_SIZE).getItems());
+        OPERATIONS.put("getFilmScreeningSchedulePage", (m, d, r) -> {
+            LocalDate start = date(d, r);
+            return m.getFilmScreeningSchedulePage(start, start.plusDays(7), null, Page.DEFAULT_SIZE).getItems();
+        });
+    }
+
+    /** Written with every result so the calls cannot be optimized away. */
+    private static volatile int sink;
+
+    private MarketingBenchmark() {
+    }
+
+    private static String showId(DataGenerator data, Random random) {
+        return String.valueOf(1 + random.nextInt(data.getShows()));
+    }
+
+    private static String clientId(DataGenerator data, Random random) {
+        return String.valueOf(1 + random.nextInt(data.getClients()));
+    }
+
+    private static String groupId(DataGenerator data, Random random) {
+        return String.valueOf(1 + random.nextInt(data.getGroups()));
+    }
+
+    /** A coach company's batch: 40 groups across random shows, as in a festival booking. */
+    private static List<GroupBookingRequest> groupBookings(DataGenerator data, Random random) {
+        List<GroupBookingRequest> requests = new ArrayList<>(40);
+        for (int i = 0; i < 40; i++) {
+            requests.add(new GroupBookingRequest(data.showName(1 + random.nextInt(data.getShows())),
+                    groupId(data, random), 12));
+        }
+        return requests;
+    }
+
+    private static LocalDate date(DataGenerator data, Random random) {
+        return DataGenerator.FIRST_DATE.plusDays(random.nextInt(data.getDays()));
+    }
+
+    /**
+     * Generates the data and benchmarks each selected method in turn.
+     *
+     * @param args an optional regular expression selecting the methods to run
+     * @throws Exception if the database cannot be reached or populated
+     */
+    public static void main(String[] args) throws Exception {
+        if (!DestructiveRunGuard.permits("benchmark against")) {
+            return;
+        }
+        Pattern filter = Pattern.compile(args.length > 0 ? args[0] : ".*");
+        int threads = Integer.getInteger("lancaster.bench.threads", 4);
+        long warmupMillis = Long.getLong("lancaster.bench.warmupMs", 2_000L);
+        long measureMillis = Long.getLong("lancaster.bench.measureMs", 5_000L);
+        DataGenerator data = DataGenerator.fromSystemProperties();
+        MarketingInterface marketing = new MarketingData();
+
+        try {
+            if (Boolean.parseBoolean(System.getProperty("lancaster.bench.populate", "true"))) {
+                try (Connection conn = JDBC.getConnection()) {
+                    data.populate(conn);
+                }
+            }
+
+            System.out.printf("%-32s %10s %10s %10s %10s %10s %10s %12s%n",
+                    "method", "ops/s", "p50 us", "p90 us", "p99 us", "p99.9 us", "max us", "alloc B/op");
+            for (Map.Entry<String, Operation> entry : OPERATIONS.entrySet()) {
+                if (!filter.matcher(entry.getKey()).matches()) {
+                    continue;
+                }
+                run(marketing, data, entry.getValue(), threads, warmupMillis, false);
+                Result result = run(marketing, data, entry.getValue(), threads, measureMillis, true);
+                System.out.printf("%-32s %10.1f %10.1f %10.1f %10.1f %10.1f %10.1f %12.0f%n", entry.getKey(),
+                        result.calls * 1000.0 / measureMillis,
+                        result.percentileMicros(50), result.percentileMicros(90), result.percentileMicros(99),
+                        result.percentileMicros(99.9), result.percentileMicros(100),
+                        result.calls == 0 ? 0.0 : (double) result.allocatedBytes / result.calls);
+            }
+        } finally {
+            JDBC.closeConnection();
+        }
+    }
+
+    /** Calls an operation from {@code threads} threads for {@code millis} milliseconds. */
+    private static Result run(MarketingInterface marketing, DataGenerator data, Operation operation,
+                              int threads, long millis, boolean record) throws InterruptedException {
+        com.sun.management.ThreadMXBean threadBean =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        CountDownLatch start = new CountDownLatch(1);
+        Worker[] workers = new Worker[threads];
+        for (int i = 0; i < threads; i++) {
+            workers[i] = new Worker(i, marketing, data, operation, start, millis, record, threadBean);
+            workers[i].start();
+        }
+        start.countDown();
+
+        Result result = new Result();
+        for (Worker worker : workers) {
+            worker.join();
+            result.add(worker);
+        }
+        Arrays.sort(result.latencies);
+        return result;
+    }
+
+    /**
+     * A thread calling one operation in a loop until its time is up.
+     */
+    private static final class Worker extends Thread {
+        private final MarketingInterface marketing;
+        private final DataGenerator data;
+        private final Operation operation;
+        private final CountDownLatch start;
+        private final long millis;
+        private final boolean record;
+        private final com.sun.management.ThreadMXBean threadBean;
+        private final Random random;
+        private long[] latencies = new long[4096];
+        private int calls;
+        private long allocatedBytes;
+
+        private Worker(int index, MarketingInterface marketing, DataGenerator data, Operation operation,
+                       CountDownLatch start, long millis, boolean record, com.sun.management.ThreadMXBean threadBean) {
+            super("marketing-benchmark-" + index);
+            this.marketing = marketing;
+            this.data = data;
+            this.operation = operation;
+            this.start = start;
+            this.millis = millis;
+            this.record = record;
+            this.threadBean = threadBean;
+            this.random = new Random(index);
+        }
+
+        @Override
+        public void run() {
+            try {
+                start.await();
+            } catch (InterruptedException e) {
+                return;
+            }
+            long allocatedBefore = threadBean.getCurrentThreadAllocatedBytes();
+            long deadline = System.nanoTime() + millis * 1_000_000;
+            long now = System.nanoTime();
+            while (now < deadline) {
+                Object result = operation.run(marketing, data, random);
+                long end = System.nanoTime();
+                sink += result == null ? 0 : result.hashCode();
+                if (record) {
+                    if (calls == latencies.length) {
+                        latencies = Arrays.copyOf(latencies, calls * 2);
+                    }
+                    latencies[calls] = end - now;
+                }
+                calls++;
+                now = end;
+            }
+            // Bytes allocated by the loop itself, including growing the latency log
+            allocatedBytes = threadBean.getCurrentThreadAllocatedBytes() - allocatedBefore;
+        }
+    }
+
+    /**
+     * Measurements merged from every worker of a run.
+     */
+    private static final class Result {
+        private long[] latencies = new long[0];
+        private long calls;
+        private long allocatedBytes;
+
+        private void add(Worker worker) {
+            int offset = latencies.length;
+            latencies = Arrays.copyOf(latencies, offset + (worker.record ? worker.calls : 0));
+            if (worker.record) {
+                System.arraycopy(worker.latencies, 0, latencies, offset, worker.calls);
+            }
+            calls += worker.calls;
+            allocatedBytes += worker.allocatedBytes;
+        }
+
+        private double percentileMicros(double percentile) {
+            if (latencies.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(percentile / 100 * latencies.length) - 1;
+            return latencies[Math.max(0, Math.min(latencies.length - 1, index))] / 1_000.0;
+        }
+    }
+}
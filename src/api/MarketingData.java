@@ -2,15 +2,22 @@ package api;
 
 import org.json.JSONObject;
 import org.json.JSONArray;
+import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import org.json.JSONObject;
 import org.json.JSONArray;
@@ -39,7 +46,7 @@ import java.util.Map;
  *
  * <p>Key features include:
  * <ul>
- *   <li>JDBC-based data access with prepared statements
+ *   <li>JDBC-based data access with prepared statements over pooled connections
  *   <li>JSON-formatted reports for web integration
  *   <li>Comprehensive date-based querying
  *   <li>Support for both individual and group bookings
@@ -47,6 +54,156 @@ import java.util.Map;
  */
 public class MarketingData implements MarketingInterface {
 
+    /**
+     * Price and discount cache shared by every instance, so that a setter called through
+     * one instance invalidates what the others read.
+     */
+    private static final ShowPricingCache PRICING_CACHE = new ShowPricingCache(
+            Integer.getInteger("lancaster.pricing.cacheSize", 1024),
+            Long.getLong("lancaster.pricing.ttlMs", 60_000L));
+
+    /** Largest number of ShowIDs bound into a single {@code IN (...)} list. */
+    private static final int MAX_IN_LIST_SIZE = 512;
+
+    /** Shows selling fewer tickets than this are reported as needing promotion. */
+    private static final int LOW_SALES_THRESHOLD = 10;
+
+    /** Group booking updates sent to the database per JDBC batch. */
+    private static final int GROUP_BOOKING_BATCH_SIZE = 500;
+
+    /** Room usage invoices inserted per JDBC batch. */
+    private static final int INVOICE_BATCH_SIZE = 1000;
+
+    private static final String INSERT_ROOM_ORDER =
+            "INSERT INTO FilmOrder (ClientID, TotalCost, Status) VALUES (?, ?, 'Confirmed')";
+
+    private static final String INSERT_ROOM_INVOICE =
+            "INSERT INTO Invoice (FilmOrderID, Date, Costs, Total, ClientID) VALUES (?, ?, ?, ?, ?)";
+
+    /**
+     * Sets the confirmation flag of a group's booking for an event. A join rather than
+     * an {@code IN (SELECT ...)} so the show is found through its name index.
+     */
+    private static final String GROUP_SALE_CONFIRMED_UPDATE = "UPDATE GroupSale gs " +
+            "JOIN Shows s ON gs.ShowID = s.ShowID " +
+            "SET gs.Confirmed = ? " +
+            "WHERE gs.GroupID = ? AND s.Name = ?";
+
+    /**
+     * Shows whose tickets sold (summed over invoices dated on the show date, as held in
+     * the {@link SalesSummary}) are below the bound threshold. Package-private so
+     * {@link SalesQueryBenchmark} measures the exact SQL used in production.
+     */
+    static final String LOW_SALES_QUERY = "SELECT s.Name " +
+            "FROM Shows s " +
+            "LEFT JOIN DailySalesSummary sold ON sold.SaleDate = s.Date " +
+            "WHERE COALESCE(sold.TicketQuantity, 0) < ?";
+
+    /**
+     * {@link #LOW_SALES_QUERY} computed from the raw sales tables, for databases where
+     * the summary is not installed. Ticket quantities are summed once per invoice date in
+     * a derived table and then joined to the shows on that date. Package-private so
+     * {@link SalesQueryBenchmark} can compare it with the summary query.
+     */
+    static final String LOW_SALES_RAW_QUERY = "SELECT s.Name " +
+            "FROM Shows s " +
+            "LEFT JOIN (SELECT i.Date, SUM(ts.Quantity) AS quantity " +
+            "           FROM Invoice i " +
+            "           JOIN TicketSales ts ON ts.InvoiceID = i.InvoiceID " +
+            "           GROUP BY i.Date) sold ON sold.Date = s.Date " +
+            "WHERE COALESCE(sold.quantity, 0) < ?";
+
+    private static final String HIGH_TRAFFIC_QUERY = "SELECT s.Date " +
+            "FROM Shows s " +
+            "JOIN DailySalesSummary d ON d.SaleDate = s.Date " +
+            "WHERE s.ShowID = ? AND d.TicketQuantity > 20";
+
+    private static final String HIGH_TRAFFIC_RAW_QUERY = "SELECT s.Date " +
+            "FROM Shows s " +
+            "JOIN Invoice i ON i.Date = s.Date " +
+            "JOIN TicketSales ts ON ts.InvoiceID = i.InvoiceID " +
+            "WHERE s.ShowID = ? " +
+            "GROUP BY s.Date " +
+            "HAVING SUM(ts.Quantity) > 20";
+
+    private static final String HIGH_TRAFFIC_WINDOW_QUERY = "SELECT s.Date " +
+            "FROM Shows s " +
+            "JOIN DailySalesSummary d ON d.SaleDate >= DATE_SUB(s.Date, INTERVAL ? DAY) " +
+            "WHERE s.ShowID = ? " +
+            "GROUP BY s.Date " +
+            "HAVING SUM(d.TicketQuantity) > 20";
+
+    private static final String HIGH_TRAFFIC_WINDOW_RAW_QUERY = "SELECT s.Date " +
+            "FROM Shows s " +
+            "JOIN Invoice i ON i.Date >= DATE_SUB(s.Date, INTERVAL ? DAY) " +
+            "JOIN TicketSales ts ON ts.InvoiceID = i.InvoiceID " +
+            "WHERE s.ShowID = ? " +
+            "GROUP BY s.Date " +
+            "HAVING SUM(ts.Quantity) > 20";
+
+    private static final String TICKET_CATEGORIES_QUERY =
+            "SELECT 'Standard' as ticket_type, d.TicketQuantity as count, s.Price, s.Discount " +
+            "FROM Shows s " +
+            "JOIN DailySalesSummary d ON d.SaleDate = s.Date " +
+            "WHERE s.ShowID = ?";
+
+    private static final String TICKET_CATEGORIES_RAW_QUERY =
+            "SELECT 'Standard' as ticket_type, SUM(ts.Quantity) as count, s.Price, s.Discount " +
+            "FROM TicketSales ts " +
+            "JOIN Invoice i ON ts.InvoiceID = i.InvoiceID " +
+            "JOIN Shows s ON i.Date = s.Date " +
+            "WHERE s.ShowID = ? " +
+            "GROUP BY ticket_type, s.Price, s.Discount";
+
+    private static final String ROOM_USAGE_QUERY = "SELECT ClientID, Date, Time, Title, Location " +
+            "FROM Meeting " +
+            "WHERE Type = 'Meeting' AND Date BETWEEN ? AND ?";
+
+    private static final String SCREENING_SCHEDULE_QUERY = "SELECT FilmID, Date, StartTime, Price " +
+            "FROM Screening " +
+            "WHERE Date BETWEEN ? AND ?";
+
+    private static final String TOUR_SCHEDULE_QUERY = "SELECT ClientID, Date, Time, Location " +
+            "FROM Meeting " +
+            "WHERE Type = 'Tour' AND Date BETWEEN ? AND ?";
+
+    private static final String FRIENDS_OF_LANCASTER_QUERY =
+            "SELECT ClientID, ContactEmail, ContactName, StreetAddress, IsFriendOfLancaster " +
+            "FROM Client WHERE IsFriendOfLancaster = TRUE";
+
+    private static final String CONFIRMED_BOOKINGS_PAGE_QUERY =
+            "SELECT fo.FilmOrderID, i.InvoiceID, fo.ClientID, fo.TotalCost " +
+            "FROM FilmOrder fo " +
+            "JOIN Invoice i ON fo.FilmOrderID = i.FilmOrderID " +
+            "JOIN Shows s ON i.Date = s.Date " +
+            "WHERE s.Name = ? AND s.Date = ? AND s.StartTime = ? AND fo.Status = 'Confirmed' " +
+            "AND (fo.FilmOrderID > ? OR (fo.FilmOrderID = ? AND i.InvoiceID > ?)) " +
+            "ORDER BY fo.FilmOrderID, i.InvoiceID LIMIT ?";
+
+    private static final String FRIENDS_OF_LANCASTER_PAGE_QUERY =
+            "SELECT ClientID, ContactEmail, ContactName, StreetAddress, IsFriendOfLancaster " +
+            "FROM Client WHERE IsFriendOfLancaster = TRUE AND ClientID > ? " +
+            "ORDER BY ClientID LIMIT ?";
+
+    private static final String SCREENING_SCHEDULE_PAGE_QUERY =
+            "SELECT ScreeningID, FilmID, Date, StartTime, Price " +
+            "FROM Screening " +
+            "WHERE Date BETWEEN ? AND ? " +
+            "AND (Date > ? OR (Date = ? AND (StartTime > ? OR (StartTime = ? AND ScreeningID > ?)))) " +
+            "ORDER BY Date, StartTime, ScreeningID LIMIT ?";
+
+    /**
+     * Rows fetched per round-trip by the streaming queries. The default,
+     * {@code Integer.MIN_VALUE}, makes MySQL Connector/J stream rows one at a time; a
+     * positive value fetches that many rows per batch through a server-side cursor when
+     * the JDBC URL sets {@code useCursorFetch=true}.
+     */
+    private static final int STREAM_FETCH_SIZE =
+            Integer.getInteger("lancaster.stream.fetchSize", Integer.MIN_VALUE);
+
+    /** Rejects double bookings when set; see {@link #setMeetingIndex}. */
+    private volatile MeetingIntervalIndex meetingIndex;
+
     /**
      * Constructs a new MarketingData instance.
      */
@@ -66,19 +223,23 @@ public class MarketingData implements MarketingInterface {
                 "JOIN Invoice i ON fo.FilmOrderID = i.FilmOrderID " +
                 "WHERE fo.ClientID IN (SELECT ClientID FROM FilmOrder WHERE FilmOrderID != fo.FilmOrderID)";
 
-        try (PreparedStatement stmt = JDBC.getConnection().prepareStatement(query)) {
+        try (Connection conn = JDBC.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(query)) {
             ResultSet rs = stmt.executeQuery();
             if (rs.next()) {
                 visits.put("repeat_attendees", rs.getInt("repeat_attendees"));
             }
         } catch (SQLException | ClassNotFoundException e) {
-            e.printStackTrace();
+            SqlFailures.record(e);
         }
         return visits;
     }
 
     /**
      * Gets ticket sales trends for a specific event as JSON data.
+     *
+     * <p>Ticket rows are matched to invoices through their film order, which the
+     * {@link SalesSummary} does not record, so this reads the raw tables.
      * @param eventName the name of the event
      * @param eventDate the date of the event
      * @param eventTime the start time of the event
@@ -95,7 +256,8 @@ public class MarketingData implements MarketingInterface {
                 "WHERE s.Name = ? AND s.Date = ? AND s.StartTime = ? " +
                 "GROUP BY i.Date";
 
-        try (PreparedStatement stmt = JDBC.getConnection().prepareStatement(query)) {
+        try (Connection conn = JDBC.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(query)) {
             stmt.setString(1, eventName);
             stmt.setDate(2, java.sql.Date.valueOf(eventDate));
             stmt.setString(3, eventTime);
@@ -107,41 +269,41 @@ public class MarketingData implements MarketingInterface {
                 jsonArray.put(obj);
             }
         } catch (SQLException | ClassNotFoundException e) {
-            e.printStackTrace();
+            SqlFailures.record(e);
         }
         return jsonArray.toString();
     }
 
     /**
      * Identifies high traffic dates for a specific show.
+     *
+     * <p>Reads the pre-aggregated {@link SalesSummary} rather than raw ticket rows when it
+     * is installed, and the raw tables otherwise.
      * @param showId the unique identifier of the show
      * @return List of dates with attendance exceeding 20 tickets
      */
     @Override
     public List<LocalDate> getHighTrafficDates(String showId) {
         List<LocalDate> dates = new ArrayList<>();
-        String query = "SELECT s.Date " +
-                "FROM Shows s " +
-                "JOIN HeldSeats hs ON s.ShowID = hs.ShowID " +
-                "JOIN TicketSales ts ON ts.InvoiceID IN (SELECT InvoiceID FROM Invoice WHERE Date = s.Date) " +
-                "WHERE s.ShowID = ? " +
-                "GROUP BY s.Date " +
-                "HAVING SUM(ts.Quantity) > 20";
-
-        try (PreparedStatement stmt = JDBC.getConnection().prepareStatement(query)) {
+        try (Connection conn = JDBC.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(SalesSummary.isInstalled(conn)
+                     ? HIGH_TRAFFIC_QUERY : HIGH_TRAFFIC_RAW_QUERY)) {
             stmt.setString(1, showId);
             ResultSet rs = stmt.executeQuery();
             while (rs.next()) {
                 dates.add(rs.getDate("Date").toLocalDate());
             }
         } catch (SQLException | ClassNotFoundException e) {
-            e.printStackTrace();
+            SqlFailures.record(e);
         }
         return dates;
     }
 
     /**
      * Identifies high traffic dates for a show within a specific timeframe.
+     *
+     * <p>Reads the pre-aggregated {@link SalesSummary} rather than raw ticket rows when it
+     * is installed, and the raw tables otherwise.
      * @param showId the unique identifier of the show
      * @param timeframe the number of days to look back (defaults to 30 if invalid)
      * @return List of dates with attendance exceeding 20 tickets
@@ -149,15 +311,9 @@ public class MarketingData implements MarketingInterface {
     @Override
     public List<LocalDate> getHighTrafficDates(String showId, String timeframe) {
         List<LocalDate> dates = new ArrayList<>();
-        String query = "SELECT s.Date " +
-                "FROM Shows s " +
-                "JOIN HeldSeats hs ON s.ShowID = hs.ShowID " +
-                "JOIN TicketSales ts ON ts.InvoiceID IN (SELECT InvoiceID FROM Invoice WHERE Date >= DATE_SUB(s.Date, INTERVAL ? DAY)) " +
-                "WHERE s.ShowID = ? " +
-                "GROUP BY s.Date " +
-                "HAVING SUM(ts.Quantity) > 20";
-
-        try (PreparedStatement stmt = JDBC.getConnection().prepareStatement(query)) {
+        try (Connection conn = JDBC.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(SalesSummary.isInstalled(conn)
+                     ? HIGH_TRAFFIC_WINDOW_QUERY : HIGH_TRAFFIC_WINDOW_RAW_QUERY)) {
             int days = timeframe.matches("\\d+") ? Integer.parseInt(timeframe) : 30;
             stmt.setInt(1, days);
             stmt.setString(2, showId);
@@ -166,7 +322,7 @@ public class MarketingData implements MarketingInterface {
                 dates.add(rs.getDate("Date").toLocalDate());
             }
         } catch (SQLException | ClassNotFoundException e) {
-            e.printStackTrace();
+            SqlFailures.record(e);
         }
         return dates;
     }
@@ -185,20 +341,24 @@ public class MarketingData implements MarketingInterface {
                 "JOIN Shows s ON i.Date < s.Date " +
                 "WHERE s.ShowID = ?";
 
-        try (PreparedStatement stmt = JDBC.getConnection().prepareStatement(query)) {
+        try (Connection conn = JDBC.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(query)) {
             stmt.setString(1, showId);
             ResultSet rs = stmt.executeQuery();
             if (rs.next()) {
                 trends.put("pre_sale_count", rs.getInt("pre_sale_count"));
             }
         } catch (SQLException | ClassNotFoundException e) {
-            e.printStackTrace();
+            SqlFailures.record(e);
         }
         return trends;
     }
 
     /**
      * Gets ticket category information including price and discount details.
+     *
+     * <p>Reads the pre-aggregated {@link SalesSummary} rather than raw ticket rows when it
+     * is installed, and the raw tables otherwise.
      * @param showId the unique identifier of the show
      * @return Map where keys are ticket types and values contain count, price and discount
      */
@@ -206,14 +366,9 @@ public class MarketingData implements MarketingInterface {
     public Map<String, String> getTicketCategories(String showId) {
         Map<String, String> categories = new HashMap<>();
         // Adjusted to include price and discount
-        String query = "SELECT 'Standard' as ticket_type, SUM(ts.Quantity) as count, s.Price, s.Discount " +
-                "FROM TicketSales ts " +
-                "JOIN Invoice i ON ts.InvoiceID = i.InvoiceID " +
-                "JOIN Shows s ON i.Date = s.Date " +
-                "WHERE s.ShowID = ? " +
-                "GROUP BY ticket_type, s.Price, s.Discount";
-
-        try (PreparedStatement stmt = JDBC.getConnection().prepareStatement(query)) {
+        try (Connection conn = JDBC.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(SalesSummary.isInstalled(conn)
+                     ? TICKET_CATEGORIES_QUERY : TICKET_CATEGORIES_RAW_QUERY)) {
             stmt.setString(1, showId);
             ResultSet rs = stmt.executeQuery();
             while (rs.next()) {
@@ -223,7 +378,7 @@ public class MarketingData implements MarketingInterface {
                 categories.put(rs.getString("ticket_type"), details);
             }
         } catch (SQLException | ClassNotFoundException e) {
-            e.printStackTrace();
+            SqlFailures.record(e);
         }
         return categories;
     }
@@ -245,7 +400,8 @@ public class MarketingData implements MarketingInterface {
                 "JOIN Shows s ON gs.ShowID = s.ShowID " +
                 "WHERE s.Name = ? AND s.Date = ? AND s.StartTime = ? AND gs.GroupID = ?";
 
-        try (PreparedStatement stmt = JDBC.getConnection().prepareStatement(query)) {
+        try (Connection conn = JDBC.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(query)) {
             stmt.setString(1, eventName);
             stmt.setDate(2, java.sql.Date.valueOf(eventDate));
             stmt.setString(3, eventTime);
@@ -258,7 +414,7 @@ public class MarketingData implements MarketingInterface {
                 dto.setContactEmail(rs.getString("ContactEmail"));
             }
         } catch (SQLException | ClassNotFoundException e) {
-            e.printStackTrace();
+            SqlFailures.record(e);
         }
         return dto;
     }
@@ -279,7 +435,8 @@ public class MarketingData implements MarketingInterface {
                 "JOIN Shows s ON gs.ShowID = s.ShowID " +
                 "WHERE s.Name = ? AND s.Date = ? AND s.StartTime = ?";
 
-        try (PreparedStatement stmt = JDBC.getConnection().prepareStatement(query)) {
+        try (Connection conn = JDBC.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(query)) {
             stmt.setString(1, eventName);
             stmt.setDate(2, java.sql.Date.valueOf(eventDate));
             stmt.setString(3, eventTime);
@@ -288,7 +445,7 @@ public class MarketingData implements MarketingInterface {
                 companies.add(rs.getString("CompanyName"));
             }
         } catch (SQLException | ClassNotFoundException e) {
-            e.printStackTrace();
+            SqlFailures.record(e);
         }
         return companies;
     }
@@ -300,23 +457,7 @@ public class MarketingData implements MarketingInterface {
      */
     @Override
     public List<String> getEventsNeedingPromotion() {
-        List<String> events = new ArrayList<>();
-        String query = "SELECT s.Name " +
-                "FROM Shows s " +
-                "LEFT JOIN HeldSeats hs ON s.ShowID = hs.ShowID " +
-                "LEFT JOIN TicketSales ts ON ts.InvoiceID IN (SELECT InvoiceID FROM Invoice WHERE Date = s.Date) " +
-                "GROUP BY s.ShowID, s.Name " +
-                "HAVING COALESCE(SUM(ts.Quantity), 0) < 10";
-
-        try (PreparedStatement stmt = JDBC.getConnection().prepareStatement(query)) {
-            ResultSet rs = stmt.executeQuery();
-            while (rs.next()) {
-                events.add(rs.getString("Name"));
-            }
-        } catch (SQLException | ClassNotFoundException e) {
-            e.printStackTrace();
-        }
-        return events;
+        return getShowsSellingFewerThan(LOW_SALES_THRESHOLD);
     }
 
     /**
@@ -334,7 +475,8 @@ public class MarketingData implements MarketingInterface {
                 "JOIN Shows s ON gs.ShowID = s.ShowID " +
                 "WHERE s.Name = ? AND s.Date = ? AND s.StartTime = ? AND gs.Discount > 0";
 
-        try (PreparedStatement stmt = JDBC.getConnection().prepareStatement(query)) {
+        try (Connection conn = JDBC.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(query)) {
             stmt.setString(1, eventName);
             stmt.setDate(2, java.sql.Date.valueOf(eventDate));
             stmt.setString(3, eventTime);
@@ -343,7 +485,7 @@ public class MarketingData implements MarketingInterface {
                 json.put("sales_from_promotion", rs.getInt("sales_from_promotion"));
             }
         } catch (SQLException | ClassNotFoundException e) {
-            e.printStackTrace();
+            SqlFailures.record(e);
         }
         return json.toString();
     }
@@ -364,7 +506,8 @@ public class MarketingData implements MarketingInterface {
                 "JOIN Shows s ON i.Date = s.Date " +
                 "WHERE s.Name = ? AND s.Date = ? AND s.StartTime = ? AND fo.Status = 'Confirmed'";
 
-        try (PreparedStatement stmt = JDBC.getConnection().prepareStatement(query)) {
+        try (Connection conn = JDBC.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(query)) {
             stmt.setString(1, eventName);
             stmt.setDate(2, java.sql.Date.valueOf(eventDate));
             stmt.setString(3, eventTime);
@@ -377,7 +520,7 @@ public class MarketingData implements MarketingInterface {
                 bookings.add(booking);
             }
         } catch (SQLException | ClassNotFoundException e) {
-            e.printStackTrace();
+            SqlFailures.record(e);
         }
         return bookings;
     }
@@ -396,7 +539,8 @@ public class MarketingData implements MarketingInterface {
                 "JOIN Shows s ON gs.ShowID = s.ShowID " +
                 "WHERE s.Name = ? AND s.Date = ? AND s.StartTime = ? AND gs.Discount > 0";
 
-        try (PreparedStatement stmt = JDBC.getConnection().prepareStatement(query)) {
+        try (Connection conn = JDBC.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(query)) {
             stmt.setString(1, eventName);
             stmt.setDate(2, java.sql.Date.valueOf(eventDate));
             stmt.setString(3, eventTime);
@@ -405,7 +549,7 @@ public class MarketingData implements MarketingInterface {
                 return rs.getInt("used");
             }
         } catch (SQLException | ClassNotFoundException e) {
-            e.printStackTrace();
+            SqlFailures.record(e);
         }
         return 0;
     }
@@ -419,15 +563,14 @@ public class MarketingData implements MarketingInterface {
      */
     @Override
     public boolean confirmGroupBooking(String eventName, String groupId, int groupSize) {
-        String query = "UPDATE GroupSale SET Confirmed = 'Yes' " +
-                "WHERE GroupID = ? AND ShowID IN (SELECT ShowID FROM Shows WHERE Name = ?)";
-
-        try (PreparedStatement stmt = JDBC.getConnection().prepareStatement(query)) {
-            stmt.setString(1, groupId);
-            stmt.setString(2, eventName);
+        try (Connection conn = JDBC.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(GROUP_SALE_CONFIRMED_UPDATE)) {
+            stmt.setString(1, "Yes");
+            stmt.setString(2, groupId);
+            stmt.setString(3, eventName);
             return stmt.executeUpdate() > 0;
         } catch (SQLException | ClassNotFoundException e) {
-            e.printStackTrace();
+            SqlFailures.record(e);
             return false;
         }
     }
@@ -441,42 +584,129 @@ public class MarketingData implements MarketingInterface {
      */
     @Override
     public boolean cancelGroupBooking(String eventName, String groupId, int groupSize) {
-        String query = "UPDATE GroupSale SET Confirmed = 'No' " +
-                "WHERE GroupID = ? AND ShowID IN (SELECT ShowID FROM Shows WHERE Name = ?)";
-
-        try (PreparedStatement stmt = JDBC.getConnection().prepareStatement(query)) {
-            stmt.setString(1, groupId);
-            stmt.setString(2, eventName);
+        try (Connection conn = JDBC.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(GROUP_SALE_CONFIRMED_UPDATE)) {
+            stmt.setString(1, "No");
+            stmt.setString(2, groupId);
+            stmt.setString(3, eventName);
             return stmt.executeUpdate() > 0;
         } catch (SQLException | ClassNotFoundException e) {
-            e.printStackTrace();
+            SqlFailures.record(e);
             return false;
         }
     }
 
+    /**
+     * Confirms several group bookings in a single transaction.
+     * @param requests the group bookings to confirm
+     * @return one outcome per request, in the same order: true if the group had a
+     *         booking for the event; all false if the transaction failed
+     */
+    @Override
+    public List<Boolean> confirmGroupBookings(List<GroupBookingRequest> requests) {
+        return updateGroupBookings(requests, "Yes");
+    }
+
+    /**
+     * Cancels several group bookings in a single transaction.
+     * @param requests the group bookings to cancel
+     * @return one outcome per request, in the same order: true if the group had a
+     *         booking for the event; all false if the transaction failed
+     */
+    @Override
+    public List<Boolean> cancelGroupBookings(List<GroupBookingRequest> requests) {
+        return updateGroupBookings(requests, "No");
+    }
+
+    /**
+     * Sets the confirmation flag of several group bookings with JDBC batching.
+     *
+     * <p>Updates are sent {@link #GROUP_BOOKING_BATCH_SIZE} at a time inside one
+     * transaction, so either every booking is updated or, if any statement fails, none
+     * are. The default JDBC URL sets {@code rewriteBatchedStatements=true}, so each
+     * batch is one round-trip. A driver that cannot report per-statement counts
+     * ({@link Statement#SUCCESS_NO_INFO}) has its statements counted as successful.
+     */
+    private List<Boolean> updateGroupBookings(List<GroupBookingRequest> requests, String confirmed) {
+        List<Boolean> outcomes = new ArrayList<>(requests.size());
+        if (requests.isEmpty()) {
+            return outcomes;
+        }
+
+        try (Connection conn = JDBC.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(GROUP_SALE_CONFIRMED_UPDATE)) {
+            conn.setAutoCommit(false);
+            try {
+                int pending = 0;
+                for (GroupBookingRequest request : requests) {
+                    stmt.setString(1, confirmed);
+                    stmt.setString(2, request.getGroupId());
+                    stmt.setString(3, request.getEventName());
+                    stmt.addBatch();
+                    if (++pending == GROUP_BOOKING_BATCH_SIZE) {
+                        addOutcomes(outcomes, stmt.executeBatch());
+                        pending = 0;
+                    }
+                }
+                if (pending > 0) {
+                    addOutcomes(outcomes, stmt.executeBatch());
+                }
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        } catch (SQLException | ClassNotFoundException e) {
+            SqlFailures.record(e);
+            outcomes.clear();
+            for (int i = 0; i < requests.size(); i++) {
+                outcomes.add(Boolean.FALSE);
+            }
+        }
+        return outcomes;
+    }
+
+    private static void addOutcomes(List<Boolean> outcomes, int[] counts) {
+        for (int count : counts) {
+            outcomes.add(count > 0 || count == Statement.SUCCESS_NO_INFO);
+        }
+    }
+
     /**
      * Gets alerts for shows with low ticket sales.
      * @return List of event names with fewer than 10 tickets sold
      */
     @Override
     public List<String> getLowSalesAlerts() {
-        List<String> alerts = new ArrayList<>();
-        String query = "SELECT s.Name " +
-                "FROM Shows s " +
-                "LEFT JOIN HeldSeats hs ON s.ShowID = hs.ShowID " +
-                "LEFT JOIN TicketSales ts ON ts.InvoiceID IN (SELECT InvoiceID FROM Invoice WHERE Date = s.Date) " +
-                "GROUP BY s.ShowID, s.Name " +
-                "HAVING COALESCE(SUM(ts.Quantity), 0) < 10";
-
-        try (PreparedStatement stmt = JDBC.getConnection().prepareStatement(query)) {
+        return getShowsSellingFewerThan(LOW_SALES_THRESHOLD);
+    }
+
+    /**
+     * Finds shows whose ticket sales fall below a threshold.
+     *
+     * <p>Ticket quantities per invoice date come from the {@link SalesSummary} when it is
+     * installed, so the cost grows with the number of shows only, not with the ticket
+     * history. Otherwise they are summed from the raw tables.
+     * @param threshold the number of tickets a show must reach to be excluded
+     * @return List of event names with fewer than {@code threshold} tickets sold
+     */
+    private List<String> getShowsSellingFewerThan(int threshold) {
+        List<String> shows = new ArrayList<>();
+
+        try (Connection conn = JDBC.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(SalesSummary.isInstalled(conn)
+                     ? LOW_SALES_QUERY : LOW_SALES_RAW_QUERY)) {
+            stmt.setInt(1, threshold);
             ResultSet rs = stmt.executeQuery();
             while (rs.next()) {
-                alerts.add(rs.getString("Name"));
+                shows.add(rs.getString("Name"));
             }
         } catch (SQLException | ClassNotFoundException e) {
-            e.printStackTrace();
+            SqlFailures.record(e);
         }
-        return alerts;
+        return shows;
     }
 
     /**
@@ -489,7 +719,8 @@ public class MarketingData implements MarketingInterface {
         FilmDetails details = new FilmDetails();
         String query = "SELECT Name, Certificate FROM Film WHERE Name = ?";
 
-        try (PreparedStatement stmt = JDBC.getConnection().prepareStatement(query)) {
+        try (Connection conn = JDBC.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(query)) {
             stmt.setString(1, filmName);
             ResultSet rs = stmt.executeQuery();
             if (rs.next()) {
@@ -498,7 +729,7 @@ public class MarketingData implements MarketingInterface {
                 details.setDurationMinutes(0);
             }
         } catch (SQLException | ClassNotFoundException e) {
-            e.printStackTrace();
+            SqlFailures.record(e);
         }
         return details;
     }
@@ -514,7 +745,8 @@ public class MarketingData implements MarketingInterface {
         String query = "SELECT ClientID, ContactEmail, ContactName, StreetAddress, IsFriendOfLancaster " +
                 "FROM Client WHERE ClientID = ?";
 
-        try (PreparedStatement stmt = JDBC.getConnection().prepareStatement(query)) {
+        try (Connection conn = JDBC.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(query)) {
             stmt.setString(1, clientId);
             ResultSet rs = stmt.executeQuery();
             if (rs.next()) {
@@ -525,7 +757,7 @@ public class MarketingData implements MarketingInterface {
                 client.setFriendOfLancaster(rs.getBoolean("IsFriendOfLancaster"));
             }
         } catch (SQLException | ClassNotFoundException e) {
-            e.printStackTrace();
+            SqlFailures.record(e);
         }
         return client;
     }
@@ -542,14 +774,15 @@ public class MarketingData implements MarketingInterface {
     public boolean updateClientDetails(String clientId, String contactEmail, String contactName, String streetAddress) {
         String query = "UPDATE Client SET ContactEmail = ?, ContactName = ?, StreetAddress = ? WHERE ClientID = ?";
 
-        try (PreparedStatement stmt = JDBC.getConnection().prepareStatement(query)) {
+        try (Connection conn = JDBC.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(query)) {
             stmt.setString(1, contactEmail);
             stmt.setString(2, contactName);
             stmt.setString(3, streetAddress);
             stmt.setString(4, clientId);
             return stmt.executeUpdate() > 0;
         } catch (SQLException | ClassNotFoundException e) {
-            e.printStackTrace();
+            SqlFailures.record(e);
             return false;
         }
     }
@@ -565,23 +798,14 @@ public class MarketingData implements MarketingInterface {
      */
     @Override
     public boolean bookRoomForClient(String clientId, LocalDate date, LocalTime startTime, String title, String location) {
-        String query = "INSERT INTO Meeting (ClientID, Date, Time, Title, Location, Type) VALUES (?, ?, ?, ?, ?, 'Meeting')";
-
-        try (PreparedStatement stmt = JDBC.getConnection().prepareStatement(query)) {
-            stmt.setString(1, clientId);
-            stmt.setDate(2, java.sql.Date.valueOf(date));
-            stmt.setTime(3, java.sql.Time.valueOf(startTime));
-            stmt.setString(4, title);
-            stmt.setString(5, location);
-            return stmt.executeUpdate() > 0;
-        } catch (SQLException | ClassNotFoundException e) {
-            e.printStackTrace();
-            return false;
-        }
+        return reserveAndWriteMeeting(clientId, date, startTime, title, location, "Meeting");
     }
 
     /**
      * Generates an invoice for room usage.
+     *
+     * <p>The order and invoice rows are written in one transaction, as a bulk call of a
+     * single item; see {@link #generateInvoicesForRoomUsage(List)}.
      * @param clientId the unique identifier of the client
      * @param date the date of the invoice
      * @param cost the total cost
@@ -589,29 +813,79 @@ public class MarketingData implements MarketingInterface {
      */
     @Override
     public boolean generateInvoiceForRoomUsage(String clientId, LocalDate date, double cost) {
-        // First, create a FilmOrder (required for Invoice)
-        String insertOrderQuery = "INSERT INTO FilmOrder (ClientID, TotalCost, Status) VALUES (?, ?, 'Confirmed')";
-        String insertInvoiceQuery = "INSERT INTO Invoice (FilmOrderID, Date, Costs, Total, ClientID) " +
-                "SELECT FilmOrderID, ?, ?, ?, ? FROM FilmOrder WHERE ClientID = ? ORDER BY FilmOrderID DESC LIMIT 1";
-
-        try (PreparedStatement orderStmt = JDBC.getConnection().prepareStatement(insertOrderQuery);
-             PreparedStatement invoiceStmt = JDBC.getConnection().prepareStatement(insertInvoiceQuery)) {
-            // Insert FilmOrder
-            orderStmt.setString(1, clientId);
-            orderStmt.setDouble(2, cost);
-            orderStmt.executeUpdate();
-
-            // Insert Invoice
-            invoiceStmt.setDate(1, java.sql.Date.valueOf(date));
-            invoiceStmt.setDouble(2, cost);
-            invoiceStmt.setDouble(3, cost);
-            invoiceStmt.setString(4, clientId);
-            invoiceStmt.setString(5, clientId);
-            return invoiceStmt.executeUpdate() > 0;
+        return generateInvoicesForRoomUsage(List.of(new RoomInvoiceRequest(clientId, date, cost))) == 1;
+    }
+
+    /**
+     * Generates room usage invoices in bulk, in a single transaction.
+     *
+     * <p>Each invoice needs a FilmOrder to reference, so the orders are inserted first in
+     * JDBC batches and their IDs read back as generated keys; the invoices are then
+     * inserted in batches against those IDs. Nothing re-reads FilmOrder to find the new
+     * rows, so concurrent invoices for the same client cannot pick up each other's order.
+     * The default JDBC URL sets {@code rewriteBatchedStatements=true}, so every batch of
+     * {@link #INVOICE_BATCH_SIZE} rows is a single multi-row INSERT, and the driver still
+     * returns one generated key per row.
+     * @param requests the invoices to generate
+     * @return the number of invoices generated; 0 if the batch failed and was rolled back
+     */
+    @Override
+    public int generateInvoicesForRoomUsage(List<RoomInvoiceRequest> requests) {
+        if (requests.isEmpty()) {
+            return 0;
+        }
+
+        try (Connection conn = JDBC.getConnection();
+             PreparedStatement orderStmt = conn.prepareStatement(INSERT_ROOM_ORDER, Statement.RETURN_GENERATED_KEYS);
+             PreparedStatement invoiceStmt = conn.prepareStatement(INSERT_ROOM_INVOICE)) {
+            conn.setAutoCommit(false);
+            try {
+                for (int from = 0; from < requests.size(); from += INVOICE_BATCH_SIZE) {
+                    List<RoomInvoiceRequest> batch =
+                            requests.subList(from, Math.min(from + INVOICE_BATCH_SIZE, requests.size()));
+                    insertRoomInvoices(orderStmt, invoiceStmt, batch);
+                }
+                conn.commit();
+                return requests.size();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
         } catch (SQLException | ClassNotFoundException e) {
-            e.printStackTrace();
-            return false;
+            SqlFailures.record(e);
+            return 0;
+        }
+    }
+
+    /**
+     * Inserts one batch of orders, reads back their generated IDs and inserts the
+     * matching invoices.
+     */
+    private static void insertRoomInvoices(PreparedStatement orderStmt, PreparedStatement invoiceStmt,
+                                           List<RoomInvoiceRequest> batch) throws SQLException {
+        for (RoomInvoiceRequest request : batch) {
+            orderStmt.setString(1, request.getClientId());
+            orderStmt.setDouble(2, request.getCost());
+            orderStmt.addBatch();
         }
+        orderStmt.executeBatch();
+
+        try (ResultSet keys = orderStmt.getGeneratedKeys()) {
+            for (RoomInvoiceRequest request : batch) {
+                if (!keys.next()) {
+                    throw new SQLException("Expected " + batch.size() + " generated FilmOrder IDs");
+                }
+                invoiceStmt.setLong(1, keys.getLong(1));
+                invoiceStmt.setDate(2, java.sql.Date.valueOf(request.getDate()));
+                invoiceStmt.setDouble(3, request.getCost());
+                invoiceStmt.setDouble(4, request.getCost());
+                invoiceStmt.setString(5, request.getClientId());
+                invoiceStmt.addBatch();
+            }
+        }
+        invoiceStmt.executeBatch();
     }
 
     /**
@@ -624,35 +898,31 @@ public class MarketingData implements MarketingInterface {
     public boolean setShowTicketPrice(String showId, double price) {
         String query = "UPDATE Shows SET Price = ? WHERE ShowID = ?";
 
-        try (PreparedStatement stmt = JDBC.getConnection().prepareStatement(query)) {
+        try (Connection conn = JDBC.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(query)) {
             stmt.setDouble(1, price);
             stmt.setString(2, showId);
             return stmt.executeUpdate() > 0;
         } catch (SQLException | ClassNotFoundException e) {
-            e.printStackTrace();
+            SqlFailures.record(e);
             return false;
+        } finally {
+            PRICING_CACHE.invalidate(showId);
         }
     }
 
     /**
      * Gets the current ticket price for a show.
+     *
+     * <p>Served from the shared pricing cache when possible; a miss loads both price
+     * and discount in one query.
      * @param showId the unique identifier of the show
      * @return the current ticket price
      */
     @Override
     public double getShowTicketPrice(String showId) {
-        String query = "SELECT Price FROM Shows WHERE ShowID = ?";
-
-        try (PreparedStatement stmt = JDBC.getConnection().prepareStatement(query)) {
-            stmt.setString(1, showId);
-            ResultSet rs = stmt.executeQuery();
-            if (rs.next()) {
-                return rs.getDouble("Price");
-            }
-        } catch (SQLException | ClassNotFoundException e) {
-            e.printStackTrace();
-        }
-        return 0.0;
+        ShowPricingDTO pricing = getShowPricing(showId);
+        return pricing != null ? pricing.getPrice() : 0.0;
     }
 
     /**
@@ -665,35 +935,116 @@ public class MarketingData implements MarketingInterface {
     public boolean setShowDiscount(String showId, double discount) {
         String query = "UPDATE Shows SET Discount = ? WHERE ShowID = ?";
 
-        try (PreparedStatement stmt = JDBC.getConnection().prepareStatement(query)) {
+        try (Connection conn = JDBC.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(query)) {
             stmt.setDouble(1, discount);
             stmt.setString(2, showId);
             return stmt.executeUpdate() > 0;
         } catch (SQLException | ClassNotFoundException e) {
-            e.printStackTrace();
+            SqlFailures.record(e);
             return false;
+        } finally {
+            PRICING_CACHE.invalidate(showId);
         }
     }
 
     /**
      * Gets the current discount rate for a show.
+     *
+     * <p>Served from the shared pricing cache when possible; a miss loads both price
+     * and discount in one query.
      * @param showId the unique identifier of the show
      * @return the current discount rate (0-1)
      */
     @Override
     public double getShowDiscount(String showId) {
-        String query = "SELECT Discount FROM Shows WHERE ShowID = ?";
+        ShowPricingDTO pricing = getShowPricing(showId);
+        return pricing != null ? pricing.getDiscount() : 0.0;
+    }
 
-        try (PreparedStatement stmt = JDBC.getConnection().prepareStatement(query)) {
+    /**
+     * Gets the price, discount and effective price of a show in a single query.
+     *
+     * <p>Served from the shared pricing cache when possible.
+     * @param showId the unique identifier of the show
+     * @return the show's pricing, or null if the show does not exist
+     */
+    @Override
+    public ShowPricingDTO getShowPricing(String showId) {
+        ShowPricingDTO cached = PRICING_CACHE.get(showId);
+        if (cached != null) {
+            return cached;
+        }
+
+        long stamp = PRICING_CACHE.stamp();
+        String query = "SELECT Price, Discount FROM Shows WHERE ShowID = ?";
+
+        try (Connection conn = JDBC.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(query)) {
             stmt.setString(1, showId);
             ResultSet rs = stmt.executeQuery();
             if (rs.next()) {
-                return rs.getDouble("Discount");
+                ShowPricingDTO pricing = new ShowPricingDTO(showId, rs.getDouble("Price"), rs.getDouble("Discount"));
+                PRICING_CACHE.put(pricing, stamp);
+                return pricing;
             }
         } catch (SQLException | ClassNotFoundException e) {
-            e.printStackTrace();
+            SqlFailures.record(e);
         }
-        return 0.0;
+        return null;
+    }
+
+    /**
+     * Gets the pricing of many shows at once.
+     *
+     * <p>Shows found in the pricing cache are served from memory; the rest are read with
+     * one {@code IN (...)} query per {@value #MAX_IN_LIST_SIZE} shows. The placeholder list
+     * is padded to a power of two so the statement cache only ever sees a handful of
+     * distinct SQL strings.
+     * @param showIds the unique identifiers of the shows
+     * @return Map from ShowID to pricing, in the order requested; unknown shows are omitted
+     */
+    @Override
+    public Map<String, ShowPricingDTO> getShowPricing(Collection<String> showIds) {
+        Map<String, ShowPricingDTO> pricing = new LinkedHashMap<>();
+        List<String> misses = new ArrayList<>();
+        for (String showId : showIds) {
+            ShowPricingDTO cached = PRICING_CACHE.get(showId);
+            pricing.put(showId, cached);
+            if (cached == null) {
+                misses.add(showId);
+            }
+        }
+
+        long stamp = PRICING_CACHE.stamp();
+        try (Connection conn = JDBC.getConnection()) {
+            for (int from = 0; from < misses.size(); from += MAX_IN_LIST_SIZE) {
+                List<String> chunk = misses.subList(from, Math.min(from + MAX_IN_LIST_SIZE, misses.size()));
+                int placeholders = Integer.highestOneBit(chunk.size());
+                if (placeholders < chunk.size()) {
+                    placeholders <<= 1;
+                }
+                String query = "SELECT ShowID, Price, Discount FROM Shows WHERE ShowID IN ("
+                        + "?, ".repeat(placeholders - 1) + "?)";
+
+                try (PreparedStatement stmt = conn.prepareStatement(query)) {
+                    for (int i = 0; i < placeholders; i++) {
+                        stmt.setString(i + 1, chunk.get(Math.min(i, chunk.size() - 1)));
+                    }
+                    ResultSet rs = stmt.executeQuery();
+                    while (rs.next()) {
+                        ShowPricingDTO loaded = new ShowPricingDTO(rs.getString("ShowID"),
+                                rs.getDouble("Price"), rs.getDouble("Discount"));
+                        PRICING_CACHE.put(loaded, stamp);
+                        pricing.put(loaded.getShowId(), loaded);
+                    }
+                }
+            }
+        } catch (SQLException | ClassNotFoundException e) {
+            SqlFailures.record(e);
+        }
+        pricing.values().removeIf(Objects::isNull);
+        return pricing;
     }
 
     /**
@@ -708,14 +1059,15 @@ public class MarketingData implements MarketingInterface {
     public boolean scheduleFilmScreening(String filmId, LocalDate date, LocalTime startTime, double price) {
         String query = "INSERT INTO Screening (FilmID, Date, StartTime, Price) VALUES (?, ?, ?, ?)";
 
-        try (PreparedStatement stmt = JDBC.getConnection().prepareStatement(query)) {
+        try (Connection conn = JDBC.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(query)) {
             stmt.setString(1, filmId);
             stmt.setDate(2, java.sql.Date.valueOf(date));
             stmt.setTime(3, java.sql.Time.valueOf(startTime));
             stmt.setDouble(4, price);
             return stmt.executeUpdate() > 0;
         } catch (SQLException | ClassNotFoundException e) {
-            e.printStackTrace();
+            SqlFailures.record(e);
             return false;
         }
     }
@@ -730,17 +1082,78 @@ public class MarketingData implements MarketingInterface {
      */
     @Override
     public boolean arrangeTour(String clientId, LocalDate date, LocalTime startTime, String location) {
-        String query = "INSERT INTO Meeting (ClientID, Date, Time, Title, Location, Type) VALUES (?, ?, ?, ?, ?, 'Tour')";
+        return reserveAndWriteMeeting(clientId, date, startTime, "Tour for Client " + clientId, location, "Tour");
+    }
+
+    /**
+     * Sets the index used to reject double bookings. Once set, room bookings and tours
+     * that overlap an existing booking in the same location are refused, and accepted
+     * ones are added to the index.
+     * @param meetingIndex the loaded index, or null to stop checking
+     */
+    public void setMeetingIndex(MeetingIntervalIndex meetingIndex) {
+        this.meetingIndex = meetingIndex;
+    }
 
-        try (PreparedStatement stmt = JDBC.getConnection().prepareStatement(query)) {
+    /**
+     * Gets the index used to reject double bookings.
+     * @return the MeetingIntervalIndex, or null if bookings are not checked
+     */
+    public MeetingIntervalIndex getMeetingIndex() {
+        return meetingIndex;
+    }
+
+    /**
+     * Reserves a booking in the {@link MeetingIntervalIndex}, if one is set, and writes it
+     * with {@link #writeMeeting}. The reservation is released again if the write fails.
+     */
+    private boolean reserveAndWriteMeeting(String clientId, LocalDate date, LocalTime startTime,
+                                           String title, String location, String type) {
+        MeetingIntervalIndex index = meetingIndex;
+        if (index == null || location == null || date == null || startTime == null) {
+            return writeMeeting(clientId, date, startTime, title, location, type);
+        }
+        if (!index.tryReserve(location, date, startTime, type)) {
+            return false;
+        }
+        boolean written = false;
+        try {
+            written = writeMeeting(clientId, date, startTime, title, location, type);
+            return written;
+        } finally {
+            if (!written) {
+                index.release(location, date, startTime);
+            }
+        }
+    }
+
+    /**
+     * Writes one row to the {@code Meeting} table, and confirms its reservation in the
+     * {@link MeetingIntervalIndex} once it is committed.
+     * @param type {@code Meeting} for a room booking or {@code Tour} for a tour
+     * @return true if the row was written (or accepted for writing), false otherwise
+     */
+    boolean writeMeeting(String clientId, LocalDate date, LocalTime startTime, String title, String location, String type) {
+        String query = "INSERT INTO Meeting (ClientID, Date, Time, Title, Location, Type) VALUES (?, ?, ?, ?, ?, ?)";
+
+        try (Connection conn = JDBC.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(query)) {
             stmt.setString(1, clientId);
             stmt.setDate(2, java.sql.Date.valueOf(date));
             stmt.setTime(3, java.sql.Time.valueOf(startTime));
-            stmt.setString(4, "Tour for Client " + clientId);
+            stmt.setString(4, title);
             stmt.setString(5, location);
-            return stmt.executeUpdate() > 0;
+            stmt.setString(6, type);
+            if (stmt.executeUpdate() == 0) {
+                return false;
+            }
+            MeetingIntervalIndex index = meetingIndex;
+            if (index != null && location != null) {
+                index.confirm(location, date, startTime);
+            }
+            return true;
         } catch (SQLException | ClassNotFoundException e) {
-            e.printStackTrace();
+            SqlFailures.record(e);
             return false;
         }
     }
@@ -754,25 +1167,17 @@ public class MarketingData implements MarketingInterface {
     @Override
     public List<RoomUsageDTO> getRoomUsageDetails(LocalDate startDate, LocalDate endDate) {
         List<RoomUsageDTO> roomUsages = new ArrayList<>();
-        String query = "SELECT ClientID, Date, Time, Title, Location " +
-                "FROM Meeting " +
-                "WHERE Type = 'Meeting' AND Date BETWEEN ? AND ?";
 
-        try (PreparedStatement stmt = JDBC.getConnection().prepareStatement(query)) {
+        try (Connection conn = JDBC.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(ROOM_USAGE_QUERY)) {
             stmt.setDate(1, java.sql.Date.valueOf(startDate));
             stmt.setDate(2, java.sql.Date.valueOf(endDate));
             ResultSet rs = stmt.executeQuery();
             while (rs.next()) {
-                RoomUsageDTO usage = new RoomUsageDTO();
-                usage.setClientId(rs.getString("ClientID"));
-                usage.setDate(rs.getDate("Date").toLocalDate());
-                usage.setStartTime(rs.getTime("Time").toLocalTime());
-                usage.setTitle(rs.getString("Title"));
-                usage.setLocation(rs.getString("Location"));
-                roomUsages.add(usage);
+                roomUsages.add(toRoomUsage(rs));
             }
         } catch (SQLException | ClassNotFoundException e) {
-            e.printStackTrace();
+            SqlFailures.record(e);
         }
         return roomUsages;
     }
@@ -786,24 +1191,17 @@ public class MarketingData implements MarketingInterface {
     @Override
     public List<FilmScreeningDTO> getFilmScreeningSchedule(LocalDate startDate, LocalDate endDate) {
         List<FilmScreeningDTO> screenings = new ArrayList<>();
-        String query = "SELECT FilmID, Date, StartTime, Price " +
-                "FROM Screening " +
-                "WHERE Date BETWEEN ? AND ?";
 
-        try (PreparedStatement stmt = JDBC.getConnection().prepareStatement(query)) {
+        try (Connection conn = JDBC.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(SCREENING_SCHEDULE_QUERY)) {
             stmt.setDate(1, java.sql.Date.valueOf(startDate));
             stmt.setDate(2, java.sql.Date.valueOf(endDate));
             ResultSet rs = stmt.executeQuery();
             while (rs.next()) {
-                FilmScreeningDTO screening = new FilmScreeningDTO();
-                screening.setFilmId(rs.getString("FilmID"));
-                screening.setDate(rs.getDate("Date").toLocalDate());
-                screening.setStartTime(rs.getTime("StartTime").toLocalTime());
-                screening.setPrice(rs.getDouble("Price"));
-                screenings.add(screening);
+                screenings.add(toFilmScreening(rs));
             }
         } catch (SQLException | ClassNotFoundException e) {
-            e.printStackTrace();
+            SqlFailures.record(e);
         }
         return screenings;
     }
@@ -817,24 +1215,17 @@ public class MarketingData implements MarketingInterface {
     @Override
     public List<TourDTO> getTourSchedule(LocalDate startDate, LocalDate endDate) {
         List<TourDTO> tours = new ArrayList<>();
-        String query = "SELECT ClientID, Date, Time, Location " +
-                "FROM Meeting " +
-                "WHERE Type = 'Tour' AND Date BETWEEN ? AND ?";
 
-        try (PreparedStatement stmt = JDBC.getConnection().prepareStatement(query)) {
+        try (Connection conn = JDBC.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(TOUR_SCHEDULE_QUERY)) {
             stmt.setDate(1, java.sql.Date.valueOf(startDate));
             stmt.setDate(2, java.sql.Date.valueOf(endDate));
             ResultSet rs = stmt.executeQuery();
             while (rs.next()) {
-                TourDTO tour = new TourDTO();
-                tour.setClientId(rs.getString("ClientID"));
-                tour.setDate(rs.getDate("Date").toLocalDate());
-                tour.setStartTime(rs.getTime("Time").toLocalTime());
-                tour.setLocation(rs.getString("Location"));
-                tours.add(tour);
+                tours.add(toTour(rs));
             }
         } catch (SQLException | ClassNotFoundException e) {
-            e.printStackTrace();
+            SqlFailures.record(e);
         }
         return tours;
     }
@@ -846,23 +1237,280 @@ public class MarketingData implements MarketingInterface {
     @Override
     public List<ClientDTO> getFriendsOfLancasterClients() {
         List<ClientDTO> clients = new ArrayList<>();
-        String query = "SELECT ClientID, ContactEmail, ContactName, StreetAddress, IsFriendOfLancaster " +
-                "FROM Client WHERE IsFriendOfLancaster = TRUE";
 
-        try (PreparedStatement stmt = JDBC.getConnection().prepareStatement(query)) {
+        try (Connection conn = JDBC.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(FRIENDS_OF_LANCASTER_QUERY)) {
             ResultSet rs = stmt.executeQuery();
             while (rs.next()) {
-                ClientDTO client = new ClientDTO();
-                client.setClientId(rs.getString("ClientID"));
-                client.setContactEmail(rs.getString("ContactEmail"));
-                client.setContactName(rs.getString("ContactName"));
-                client.setStreetAddress(rs.getString("StreetAddress"));
-                client.setFriendOfLancaster(rs.getBoolean("IsFriendOfLancaster"));
-                clients.add(client);
+                clients.add(toClient(rs));
             }
         } catch (SQLException | ClassNotFoundException e) {
-            e.printStackTrace();
+            SqlFailures.record(e);
         }
         return clients;
     }
+
+    /**
+     * Streams room usage details for a date range, reading rows from the database as the
+     * stream is consumed.
+     *
+     * <p>The stream holds a pooled connection until it is exhausted or closed, so it
+     * should be used in a try-with-resources block.
+     * @param startDate the start date of the range
+     * @param endDate the end date of the range
+     * @return Stream of RoomUsageDTO objects
+     */
+    @Override
+    public Stream<RoomUsageDTO> streamRoomUsageDetails(LocalDate startDate, LocalDate endDate) {
+        return streamQuery(ROOM_USAGE_QUERY, stmt -> {
+            stmt.setDate(1, java.sql.Date.valueOf(startDate));
+            stmt.setDate(2, java.sql.Date.valueOf(endDate));
+        }, MarketingData::toRoomUsage);
+    }
+
+    /**
+     * Streams the film screening schedule for a date range, reading rows from the
+     * database as the stream is consumed.
+     *
+     * <p>The stream holds a pooled connection until it is exhausted or closed, so it
+     * should be used in a try-with-resources block.
+     * @param startDate the start date of the range
+     * @param endDate the end date of the range
+     * @return Stream of FilmScreeningDTO objects
+     */
+    @Override
+    public Stream<FilmScreeningDTO> streamFilmScreeningSchedule(LocalDate startDate, LocalDate endDate) {
+        return streamQuery(SCREENING_SCHEDULE_QUERY, stmt -> {
+            stmt.setDate(1, java.sql.Date.valueOf(startDate));
+            stmt.setDate(2, java.sql.Date.valueOf(endDate));
+        }, MarketingData::toFilmScreening);
+    }
+
+    /**
+     * Streams the tour schedule for a date range, reading rows from the database as the
+     * stream is consumed.
+     *
+     * <p>The stream holds a pooled connection until it is exhausted or closed, so it
+     * should be used in a try-with-resources block.
+     * @param startDate the start date of the range
+     * @param endDate the end date of the range
+     * @return Stream of TourDTO objects
+     */
+    @Override
+    public Stream<TourDTO> streamTourSchedule(LocalDate startDate, LocalDate endDate) {
+        return streamQuery(TOUR_SCHEDULE_QUERY, stmt -> {
+            stmt.setDate(1, java.sql.Date.valueOf(startDate));
+            stmt.setDate(2, java.sql.Date.valueOf(endDate));
+        }, MarketingData::toTour);
+    }
+
+    /**
+     * Streams all clients enrolled in the Friends of Lancaster program, reading rows from
+     * the database as the stream is consumed.
+     *
+     * <p>The stream holds a pooled connection until it is exhausted or closed, so it
+     * should be used in a try-with-resources block.
+     * @return Stream of ClientDTO objects
+     */
+    @Override
+    public Stream<ClientDTO> streamFriendsOfLancasterClients() {
+        return streamQuery(FRIENDS_OF_LANCASTER_QUERY, stmt -> { }, MarketingData::toClient);
+    }
+
+    /**
+     * Gets one page of confirmed bookings for a specific event, ordered by booking ID.
+     * @param eventName the name of the event
+     * @param eventDate the date of the event
+     * @param eventTime the start time of the event
+     * @param pageToken the token from the previous page, or null for the first page
+     * @param pageSize the maximum number of bookings to return
+     * @return Page of BookingDTO objects
+     * @throws IllegalArgumentException if the page token was not issued by this method
+     */
+    @Override
+    public Page<BookingDTO> getConfirmedBookingsPage(String eventName, LocalDate eventDate, String eventTime,
+                                                     String pageToken, int pageSize) {
+        String[] after = pageToken == null
+                ? new String[] { "0", "0" }
+                : PageToken.decode(pageToken, "getConfirmedBookings", 2);
+        int limit = Page.clampSize(pageSize);
+        return pageQuery(CONFIRMED_BOOKINGS_PAGE_QUERY, stmt -> {
+            stmt.setString(1, eventName);
+            stmt.setDate(2, java.sql.Date.valueOf(eventDate));
+            stmt.setString(3, eventTime);
+            stmt.setInt(4, Integer.parseInt(after[0]));
+            stmt.setInt(5, Integer.parseInt(after[0]));
+            stmt.setInt(6, Integer.parseInt(after[1]));
+            stmt.setInt(7, limit + 1);
+        }, limit, "getConfirmedBookings", rs -> {
+            BookingDTO booking = new BookingDTO();
+            booking.setBookingId(rs.getInt("FilmOrderID"));
+            booking.setPatronId(rs.getInt("ClientID"));
+            booking.setTotalCost(rs.getDouble("TotalCost"));
+            return booking;
+        }, rs -> new String[] { rs.getString("FilmOrderID"), rs.getString("InvoiceID") });
+    }
+
+    /**
+     * Gets one page of clients enrolled in the Friends of Lancaster program, ordered by
+     * client ID.
+     * @param pageToken the token from the previous page, or null for the first page
+     * @param pageSize the maximum number of clients to return
+     * @return Page of ClientDTO objects
+     * @throws IllegalArgumentException if the page token was not issued by this method
+     */
+    @Override
+    public Page<ClientDTO> getFriendsOfLancasterClientsPage(String pageToken, int pageSize) {
+        String[] after = pageToken == null
+                ? new String[] { "0" }
+                : PageToken.decode(pageToken, "getFriendsOfLancasterClients", 1);
+        int limit = Page.clampSize(pageSize);
+        return pageQuery(FRIENDS_OF_LANCASTER_PAGE_QUERY, stmt -> {
+            stmt.setInt(1, Integer.parseInt(after[0]));
+            stmt.setInt(2, limit + 1);
+        }, limit, "getFriendsOfLancasterClients", MarketingData::toClient,
+                rs -> new String[] { rs.getString("ClientID") });
+    }
+
+    /**
+     * Gets one page of the film screening schedule for a date range, ordered by date,
+     * start time and screening ID.
+     * @param startDate the start date (inclusive)
+     * @param endDate the end date (inclusive)
+     * @param pageToken the token from the previous page, or null for the first page
+     * @param pageSize the maximum number of screenings to return
+     * @return Page of FilmScreeningDTO objects
+     * @throws IllegalArgumentException if the page token was not issued by this method
+     */
+    @Override
+    public Page<FilmScreeningDTO> getFilmScreeningSchedulePage(LocalDate startDate, LocalDate endDate,
+                                                               String pageToken, int pageSize) {
+        String[] after = pageToken == null
+                ? new String[] { startDate.toString(), "00:00:00", "0" }
+                : PageToken.decode(pageToken, "getFilmScreeningSchedule", 3);
+        java.sql.Date afterDate = java.sql.Date.valueOf(after[0]);
+        java.sql.Time afterTime = java.sql.Time.valueOf(after[1]);
+        int limit = Page.clampSize(pageSize);
+        return pageQuery(SCREENING_SCHEDULE_PAGE_QUERY, stmt -> {
+            stmt.setDate(1, java.sql.Date.valueOf(startDate));
+            stmt.setDate(2, java.sql.Date.valueOf(endDate));
+            stmt.setDate(3, afterDate);
+            stmt.setDate(4, afterDate);
+            stmt.setTime(5, afterTime);
+            stmt.setTime(6, afterTime);
+            stmt.setInt(7, Integer.parseInt(after[2]));
+            stmt.setInt(8, limit + 1);
+        }, limit, "getFilmScreeningSchedule", MarketingData::toFilmScreening, rs -> new String[] {
+                rs.getDate("Date").toString(), rs.getTime("StartTime").toString(), rs.getString("ScreeningID") });
+    }
+
+    /**
+     * Runs a query whose rows are read lazily by the returned stream.
+     *
+     * <p>The statement is prepared outside the {@link StatementCache}, since it stays open
+     * for as long as the stream does, with a fetch size of {@link #STREAM_FETCH_SIZE}.
+     * If the query cannot be started the failure is recorded and an empty stream returned.
+     */
+    private static <T> Stream<T> streamQuery(String query, ParameterBinder binder,
+                                             ResultSetSpliterator.RowMapper<T> mapper) {
+        Connection conn = null;
+        PreparedStatement stmt = null;
+        try {
+            conn = JDBC.getConnection();
+            stmt = conn.prepareStatement(query, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            stmt.setFetchSize(STREAM_FETCH_SIZE);
+            binder.bind(stmt);
+            ResultSet rs = stmt.executeQuery();
+            ResultSetSpliterator<T> rows = new ResultSetSpliterator<>(conn, stmt, rs, mapper);
+            return StreamSupport.stream(rows, false).onClose(rows::close);
+        } catch (SQLException | ClassNotFoundException e) {
+            SqlFailures.record(e);
+            ResultSetSpliterator.closeAll(stmt, conn); // Release whatever was opened before the failure
+            return Stream.empty();
+        }
+    }
+
+    /**
+     * Runs one page of a keyset-paginated query.
+     *
+     * <p>The query must be ordered on its key and bound to fetch one row more than
+     * {@code pageSize}; that extra row is not returned, but shows that another page
+     * follows, so no separate count query is needed. If the query fails the failure is
+     * recorded and the rows read so far are returned as the last page.
+     */
+    private static <T> Page<T> pageQuery(String query, ParameterBinder binder, int pageSize, String name,
+                                         ResultSetSpliterator.RowMapper<T> mapper, KeyReader keyReader) {
+        List<T> items = new ArrayList<>();
+        String nextPageToken = null;
+
+        try (Connection conn = JDBC.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(query)) {
+            binder.bind(stmt);
+            ResultSet rs = stmt.executeQuery();
+            String[] lastKey = null;
+            while (rs.next()) {
+                if (items.size() == pageSize) {
+                    nextPageToken = PageToken.encode(name, lastKey);
+                    break;
+                }
+                items.add(mapper.map(rs));
+                lastKey = keyReader.read(rs);
+            }
+        } catch (SQLException | ClassNotFoundException e) {
+            SqlFailures.record(e);
+        }
+        return new Page<>(items, nextPageToken);
+    }
+
+    /**
+     * Binds the parameters of a streamed or paged query.
+     */
+    private interface ParameterBinder {
+        void bind(PreparedStatement stmt) throws SQLException;
+    }
+
+    /**
+     * Reads the ordering key of the current row of a paged query.
+     */
+    private interface KeyReader {
+        String[] read(ResultSet rs) throws SQLException;
+    }
+
+    private static RoomUsageDTO toRoomUsage(ResultSet rs) throws SQLException {
+        RoomUsageDTO usage = new RoomUsageDTO();
+        usage.setClientId(rs.getString("ClientID"));
+        usage.setDate(rs.getDate("Date").toLocalDate());
+        usage.setStartTime(rs.getTime("Time").toLocalTime());
+        usage.setTitle(rs.getString("Title"));
+        usage.setLocation(rs.getString("Location"));
+        return usage;
+    }
+
+    private static FilmScreeningDTO toFilmScreening(ResultSet rs) throws SQLException {
+        FilmScreeningDTO screening = new FilmScreeningDTO();
+        screening.setFilmId(rs.getString("FilmID"));
+        screening.setDate(rs.getDate("Date").toLocalDate());
+        screening.setStartTime(rs.getTime("StartTime").toLocalTime());
+        screening.setPrice(rs.getDouble("Price"));
+        return screening;
+    }
+
+    private static TourDTO toTour(ResultSet rs) throws SQLException {
+        TourDTO tour = new TourDTO();
+        tour.setClientId(rs.getString("ClientID"));
+        tour.setDate(rs.getDate("Date").toLocalDate());
+        tour.setStartTime(rs.getTime("Time").toLocalTime());
+        tour.setLocation(rs.getString("Location"));
+        return tour;
+    }
+
+    private static ClientDTO toClient(ResultSet rs) throws SQLException {
+        ClientDTO client = new ClientDTO();
+        client.setClientId(rs.getString("ClientID"));
+        client.setContactEmail(rs.getString("ContactEmail"));
+        client.setContactName(rs.getString("ContactName"));
+        client.setStreetAddress(rs.getString("StreetAddress"));
+        client.setFriendOfLancaster(rs.getBoolean("IsFriendOfLancaster"));
+        return client;
+    }
 }
\ No newline at end of file
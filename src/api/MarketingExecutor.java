@@ -0,0 +1,150 @@
+package api;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Executes marketing API calls on virtual threads with a bounded level of concurrency.
+ *
+ * <p>Every submitted call gets its own virtual thread, so a caller never ties up a
+ * platform thread while it waits. Only {@code maxConcurrency} calls run at a time;
+ * the rest wait cheaply on a semaphore. By default the limit matches the connection
+ * pool's maximum size, since a call cannot make progress without a connection anyway.
+ *
+ * <p>The {@link #getQueueDepth() queue depth} and {@link #getInFlight() in-flight}
+ * gauges show whether callers are waiting on the limit or on the database, which is
+ * what to look at when tuning {@code lancaster.executor.maxConcurrency} and
+ * {@code lancaster.pool.maxSize} under load.
+ *
+ * <p><b>Usage Example:</b>
+ * <pre>
+ * MarketingInterface marketing = new MarketingData();
+ * CompletableFuture&lt;ClientDTO&gt; client =
+ *         MarketingExecutor.shared().submit(() -&gt; marketing.getClientDetails("1"));
+ * </pre>
+ *
+ * @see AsyncMarketingData
+ */
+public class MarketingExecutor implements Executor, AutoCloseable {
+    private static MarketingExecutor shared;
+
+    private final int maxConcurrency;
+    private final Semaphore permits;
+    private final ExecutorService threads = Executors.newVirtualThreadPerTaskExecutor();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final LongAdder completed = new LongAdder();
+
+    /**
+     * Creates an executor that runs at most {@code maxConcurrency} calls at once.
+     * @param maxConcurrency the maximum number of calls running concurrently
+     * @throws IllegalArgumentException if maxConcurrency is not positive
+     */
+    public MarketingExecutor(int maxConcurrency) {
+        if (maxConcurrency < 1) {
+            throw new IllegalArgumentException("maxConcurrency must be positive: " + maxConcurrency);
+        }
+        this.maxConcurrency = maxConcurrency;
+        this.permits = new Semaphore(maxConcurrency, true);
+    }
+
+    /**
+     * Gets the executor shared by the marketing API, creating it on first use.
+     *
+     * <p>Its limit is read from {@code lancaster.executor.maxConcurrency}, defaulting to
+     * the connection pool size ({@code lancaster.pool.maxSize}).
+     *
+     * @return the shared MarketingExecutor
+     */
+    public static synchronized MarketingExecutor shared() {
+        if (shared == null) {
+            shared = new MarketingExecutor(Integer.getInteger("lancaster.executor.maxConcurrency",
+                    Integer.getInteger("lancaster.pool.maxSize", 10)));
+        }
+        return shared;
+    }
+
+    /**
+     * Runs a task on a new virtual thread once a concurrency permit is available.
+     * @param task the task to run
+     * @throws RejectedExecutionException if the executor has been closed
+     */
+    @Override
+    public void execute(Runnable task) {
+        queued.incrementAndGet();
+        try {
+            threads.execute(() -> {
+                permits.acquireUninterruptibly();
+                queued.decrementAndGet();
+                inFlight.incrementAndGet();
+                try {
+                    task.run();
+                } finally {
+                    inFlight.decrementAndGet();
+                    permits.release();
+                    completed.increment();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            queued.decrementAndGet();
+            throw e;
+        }
+    }
+
+    /**
+     * Runs a blocking call on a virtual thread.
+     * @param call the call to run
+     * @param <T> the result type
+     * @return future completing with the call's result
+     */
+    public <T> CompletableFuture<T> submit(Supplier<T> call) {
+        return CompletableFuture.supplyAsync(call, this);
+    }
+
+    /**
+     * Gets the number of submitted calls waiting for a concurrency permit.
+     * @return the current queue depth
+     */
+    public int getQueueDepth() {
+        return queued.get();
+    }
+
+    /**
+     * Gets the number of calls currently running.
+     * @return the current in-flight count
+     */
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * Gets the number of calls that have finished, successfully or not.
+     * @return the completed call count
+     */
+    public long getCompletedCount() {
+        return completed.sum();
+    }
+
+    /**
+     * Gets the maximum number of calls allowed to run at once.
+     * @return the concurrency limit
+     */
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    /**
+     * Stops accepting new calls. Calls already submitted are allowed to finish.
+     */
+    @Override
+    public void close() {
+        threads.shutdown();
+    }
+}
@@ -2,8 +2,13 @@ package api;
 
 import java.time.LocalDate;
 import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Stream;
 
 /**
  * Defines the contract for marketing operations in the cinema management system.
@@ -19,7 +24,9 @@ import java.util.Map;
  * </ul>
  *
  * <p>Implementations should handle all database operations and business logic
- * related to these marketing functions.
+ * related to these marketing functions. Methods added after the original contract are
+ * {@code default} methods built on the original ones, so existing implementations keep
+ * compiling; {@link MarketingData} overrides them with single-query versions.
  */
 public interface MarketingInterface {
 
@@ -138,6 +145,36 @@ public interface MarketingInterface {
      */
     boolean cancelGroupBooking(String eventName, String groupId, int groupSize);
 
+    /**
+     * Confirms several group bookings in a single transaction. The default implementation
+     * calls {@link #confirmGroupBooking} for each request, so the confirmations are not
+     * one transaction.
+     * @param requests the group bookings to confirm
+     * @return one outcome per request, in the same order: true if confirmation succeeded
+     */
+    default List<Boolean> confirmGroupBookings(List<GroupBookingRequest> requests) {
+        List<Boolean> outcomes = new ArrayList<>(requests.size());
+        for (GroupBookingRequest request : requests) {
+            outcomes.add(confirmGroupBooking(request.getEventName(), request.getGroupId(), request.getGroupSize()));
+        }
+        return outcomes;
+    }
+
+    /**
+     * Cancels several group bookings in a single transaction. The default implementation
+     * calls {@link #cancelGroupBooking} for each request, so the cancellations are not
+     * one transaction.
+     * @param requests the group bookings to cancel
+     * @return one outcome per request, in the same order: true if cancellation succeeded
+     */
+    default List<Boolean> cancelGroupBookings(List<GroupBookingRequest> requests) {
+        List<Boolean> outcomes = new ArrayList<>(requests.size());
+        for (GroupBookingRequest request : requests) {
+            outcomes.add(cancelGroupBooking(request.getEventName(), request.getGroupId(), request.getGroupSize()));
+        }
+        return outcomes;
+    }
+
     /**
      * Gets alerts for shows with low ticket sales.
      * @return List of event names with fewer than 10 tickets sold
@@ -192,6 +229,23 @@ public interface MarketingInterface {
      */
     boolean generateInvoiceForRoomUsage(String clientId, LocalDate date, double cost);
 
+    /**
+     * Generates room usage invoices in bulk, in a single transaction. The default
+     * implementation calls {@link #generateInvoiceForRoomUsage} for each request, so the
+     * invoices are not one transaction and a failure leaves the others saved.
+     * @param requests the invoices to generate
+     * @return the number of invoices generated; 0 if the batch failed and nothing was saved
+     */
+    default int generateInvoicesForRoomUsage(List<RoomInvoiceRequest> requests) {
+        int generated = 0;
+        for (RoomInvoiceRequest request : requests) {
+            if (generateInvoiceForRoomUsage(request.getClientId(), request.getDate(), request.getCost())) {
+                generated++;
+            }
+        }
+        return generated;
+    }
+
     // Show pricing methods
 
     /**
@@ -226,6 +280,37 @@ public interface MarketingInterface {
      */
     double getShowDiscount(String showId);
 
+    /**
+     * Gets the price, discount and effective price of a show in a single call.
+     *
+     * <p>The default implementation calls {@link #getShowTicketPrice(String)} and
+     * {@link #getShowDiscount(String)}, so it cannot tell a missing show from a free one
+     * and never returns null.
+     *
+     * @param showId the unique identifier of the show
+     * @return ShowPricingDTO for the show, or null if the show does not exist
+     */
+    default ShowPricingDTO getShowPricing(String showId) {
+        return new ShowPricingDTO(showId, getShowTicketPrice(showId), getShowDiscount(showId));
+    }
+
+    /**
+     * Gets the pricing of several shows in a single call. The default implementation
+     * calls {@link #getShowPricing(String)} for each show.
+     * @param showIds the unique identifiers of the shows
+     * @return Map from ShowID to ShowPricingDTO; shows that do not exist are omitted
+     */
+    default Map<String, ShowPricingDTO> getShowPricing(Collection<String> showIds) {
+        Map<String, ShowPricingDTO> pricing = new LinkedHashMap<>();
+        for (String showId : showIds) {
+            ShowPricingDTO show = getShowPricing(showId);
+            if (show != null) {
+                pricing.put(showId, show);
+            }
+        }
+        return pricing;
+    }
+
     // Scheduling methods
 
     /**
@@ -279,4 +364,125 @@ public interface MarketingInterface {
      * @return List of ClientDTO objects
      */
     List<ClientDTO> getFriendsOfLancasterClients();
+
+    // Streaming methods
+    //
+    // The default implementations stream the matching list method's result, so they load
+    // every row first; MarketingData streams straight from the result set.
+
+    /**
+     * Streams room usage details for a date range without loading them all into memory.
+     * The stream holds a database connection until it is exhausted or closed.
+     * @param startDate the start date (inclusive)
+     * @param endDate the end date (inclusive)
+     * @return Stream of RoomUsageDTO objects, to be closed after use
+     */
+    default Stream<RoomUsageDTO> streamRoomUsageDetails(LocalDate startDate, LocalDate endDate) {
+        return getRoomUsageDetails(startDate, endDate).stream();
+    }
+
+    /**
+     * Streams the film screening schedule for a date range without loading it all into
+     * memory. The stream holds a database connection until it is exhausted or closed.
+     * @param startDate the start date (inclusive)
+     * @param endDate the end date (inclusive)
+     * @return Stream of FilmScreeningDTO objects, to be closed after use
+     */
+    default Stream<FilmScreeningDTO> streamFilmScreeningSchedule(LocalDate startDate, LocalDate endDate) {
+        return getFilmScreeningSchedule(startDate, endDate).stream();
+    }
+
+    /**
+     * Streams the tour schedule for a date range without loading it all into memory.
+     * The stream holds a database connection until it is exhausted or closed.
+     * @param startDate the start date (inclusive)
+     * @param endDate the end date (inclusive)
+     * @return Stream of TourDTO objects, to be closed after use
+     */
+    default Stream<TourDTO> streamTourSchedule(LocalDate startDate, LocalDate endDate) {
+        return getTourSchedule(startDate, endDate).stream();
+    }
+
+    /**
+     * Streams all clients enrolled in the Friends of Lancaster program without loading
+     * them all into memory. The stream holds a database connection until it is exhausted
+     * or closed.
+     * @return Stream of ClientDTO objects, to be closed after use
+     */
+    default Stream<ClientDTO> streamFriendsOfLancasterClients() {
+        return getFriendsOfLancasterClients().stream();
+    }
+
+    // Paginated methods
+    //
+    // The default implementations read the matching list method's full result and page
+    // through it by position, with the position in the token; MarketingData seeks by key.
+
+    /**
+     * Gets one page of confirmed bookings for a specific event, ordered by booking ID.
+     * @param eventName the name of the event
+     * @param eventDate the date of the event
+     * @param eventTime the start time of the event
+     * @param pageToken the token from the previous page, or null for the first page
+     * @param pageSize the maximum number of bookings to return
+     * @return Page of BookingDTO objects
+     * @throws IllegalArgumentException if the page token was not issued by this method
+     */
+    default Page<BookingDTO> getConfirmedBookingsPage(String eventName, LocalDate eventDate, String eventTime,
+                                                      String pageToken, int pageSize) {
+        List<BookingDTO> bookings = new ArrayList<>(getConfirmedBookings(eventName, eventDate, eventTime));
+        bookings.sort(Comparator.comparingInt(BookingDTO::getBookingId));
+        return pageOf(bookings, "confirmedBookingsByPosition", pageToken, pageSize);
+    }
+
+    /**
+     * Gets one page of clients enrolled in the Friends of Lancaster program, ordered by
+     * client ID.
+     * @param pageToken the token from the previous page, or null for the first page
+     * @param pageSize the maximum number of clients to return
+     * @return Page of ClientDTO objects
+     * @throws IllegalArgumentException if the page token was not issued by this method
+     */
+    default Page<ClientDTO> getFriendsOfLancasterClientsPage(String pageToken, int pageSize) {
+        List<ClientDTO> clients = new ArrayList<>(getFriendsOfLancasterClients());
+        // Numeric IDs in numeric order: shorter first, then alphabetically
+        clients.sort(Comparator.comparing(ClientDTO::getClientId,
+                Comparator.nullsFirst(Comparator.comparingInt(String::length).thenComparing(Comparator.naturalOrder()))));
+        return pageOf(clients, "friendsOfLancasterByPosition", pageToken, pageSize);
+    }
+
+    /**
+     * Gets one page of the film screening schedule for a date range, ordered by date,
+     * start time and screening ID.
+     * @param startDate the start date (inclusive)
+     * @param endDate the end date (inclusive)
+     * @param pageToken the token from the previous page, or null for the first page
+     * @param pageSize the maximum number of screenings to return
+     * @return Page of FilmScreeningDTO objects
+     * @throws IllegalArgumentException if the page token was not issued by this method
+     */
+    default Page<FilmScreeningDTO> getFilmScreeningSchedulePage(LocalDate startDate, LocalDate endDate,
+                                                                String pageToken, int pageSize) {
+        List<FilmScreeningDTO> screenings = new ArrayList<>(getFilmScreeningSchedule(startDate, endDate));
+        screenings.sort(Comparator.comparing(FilmScreeningDTO::getDate, Comparator.nullsFirst(Comparator.naturalOrder()))
+                .thenComparing(FilmScreeningDTO::getStartTime, Comparator.nullsFirst(Comparator.naturalOrder())));
+        return pageOf(screenings, "filmScreeningsByPosition", pageToken, pageSize);
+    }
+
+    /**
+     * Cuts one page out of a fully loaded, ordered list, for the default paginated methods.
+     * @param items every row, in page order
+     * @param query the name of the paginated query, checked when the token is decoded
+     * @param pageToken the token from the previous page, or null for the first page
+     * @param pageSize the maximum number of rows to return
+     * @return the page, with a token holding the position of the next row
+     * @throws IllegalArgumentException if the page token was not issued for this query
+     */
+    private static <T> Page<T> pageOf(List<T> items, String query, String pageToken, int pageSize) {
+        int size = Page.clampSize(pageSize);
+        int from = pageToken == null ? 0 : Math.max(0, Integer.parseInt(PageToken.decode(pageToken, query, 1)[0]));
+        int to = (int) Math.min(items.size(), (long) from + size);
+        List<T> rows = from < to ? new ArrayList<>(items.subList(from, to)) : new ArrayList<>();
+        return new Page<>(rows, to < items.size() ? PageToken.encode(query, String.valueOf(to)) : null);
+    }
 }
\ No newline at end of file
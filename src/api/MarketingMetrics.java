@@ -0,0 +1,167 @@
+package api;
+
+import com.sun.net.httpserver.HttpServer;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The set of per-method metrics recorded by {@link InstrumentedMarketingData}, and the
+ * ways of reading them.
+ *
+ * <p>Metrics can be read:
+ * <ul>
+ *   <li>over JMX, with one MBean per method named
+ *       {@code api:type=MarketingMetrics,method=<name>} (see {@link #registerMBeans()})
+ *   <li>as plain text in the Prometheus exposition format, from {@link #render()} or
+ *       from the HTTP endpoint started by {@link #startHttpServer(int)}, which listens on
+ *       loopback unless {@code lancaster.metrics.bindAddress} names another address
+ * </ul>
+ *
+ * <p><b>Usage Example:</b>
+ * <pre>
+ * MarketingInterface marketing = new InstrumentedMarketingData(new MarketingData());
+ * MarketingMetrics.shared().registerMBeans();
+ * MarketingMetrics.shared().startHttpServer(9404);   // curl localhost:9404/metrics
+ * </pre>
+ */
+public class MarketingMetrics {
+    private static MarketingMetrics shared;
+
+    private final Map<String, MethodMetrics> methods = new ConcurrentHashMap<>();
+
+    /**
+     * Gets the metrics shared by the marketing API, creating them on first use.
+     * @return the shared MarketingMetrics
+     */
+    public static synchronized MarketingMetrics shared() {
+        if (shared == null) {
+            shared = new MarketingMetrics();
+        }
+        return shared;
+    }
+
+    /**
+     * Gets the metrics for a method, creating them on first use. Calls through the same
+     * method name share one set of metrics.
+     * @param method the method name
+     * @return the MethodMetrics for the method
+     */
+    public MethodMetrics forMethod(String method) {
+        return methods.computeIfAbsent(method, MethodMetrics::new);
+    }
+
+    /**
+     * Gets the metrics of every method seen so far.
+     * @return the per-method metrics, sorted by method name
+     */
+    public Collection<MethodMetrics> getMethods() {
+        List<MethodMetrics> sorted = new ArrayList<>(methods.values());
+        sorted.sort((a, b) -> a.getMethod().compareTo(b.getMethod()));
+        return sorted;
+    }
+
+    /**
+     * Registers an MBean for every method with the platform MBean server. Methods already
+     * registered are skipped.
+     *
+     * @throws JMException if an MBean cannot be registered
+     */
+    public void registerMBeans() throws JMException {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        for (MethodMetrics metrics : getMethods()) {
+            ObjectName name = new ObjectName("api:type=MarketingMetrics,method=" + metrics.getMethod());
+            if (!server.isRegistered(name)) {
+                server.registerMBean(metrics, name);
+            }
+        }
+    }
+
+    /**
+     * Renders every metric as plain text in the Prometheus exposition format.
+     * @return the metrics text
+     */
+    public String render() {
+        Collection<MethodMetrics> all = getMethods();
+        StringBuilder out = new StringBuilder();
+        out.append("# TYPE marketing_calls_total counter\n");
+        for (MethodMetrics m : all) {
+            line(out, "marketing_calls_total", m, null, m.getCalls());
+        }
+        out.append("# TYPE marketing_errors_total counter\n");
+        for (MethodMetrics m : all) {
+            line(out, "marketing_errors_total", m, null, m.getErrors());
+        }
+        out.append("# TYPE marketing_in_flight gauge\n");
+        for (MethodMetrics m : all) {
+            line(out, "marketing_in_flight", m, null, m.getInFlight());
+        }
+        out.append("# TYPE marketing_latency_seconds summary\n");
+        for (MethodMetrics m : all) {
+            for (String quantile : new String[] { "0.5", "0.9", "0.99", "0.999", "1" }) {
+                double seconds = m.getPercentileMicros(Double.parseDouble(quantile) * 100) / 1_000_000;
+                line(out, "marketing_latency_seconds", m, quantile, seconds);
+            }
+        }
+        out.append("# TYPE marketing_sql_failures_total counter\n");
+        out.append("marketing_sql_failures_total ").append(SqlFailures.getTotal()).append('\n');
+        return out.toString();
+    }
+
+    private static void line(StringBuilder out, String name, MethodMetrics m, String quantile, double value) {
+        out.append(name).append("{method=\"").append(m.getMethod()).append('"');
+        if (quantile != null) {
+            out.append(",quantile=\"").append(quantile).append('"');
+        }
+        out.append("} ");
+        if (value == Math.rint(value)) {
+            out.append((long) value);
+        } else {
+            out.append(String.format(Locale.ROOT, "%.9f", value));
+        }
+        out.append('\n');
+    }
+
+    /**
+     * Starts an HTTP server answering {@code GET /metrics} with {@link #render()}. The
+     * server runs until {@link HttpServer#stop(int)} is called.
+     *
+     * <p>The server listens on the loopback interface only, since the metrics name every
+     * API method. Set {@code lancaster.metrics.bindAddress} to listen on another address,
+     * e.g. {@code 0.0.0.0} for every interface when a remote scraper needs access.
+     *
+     * @param port the port to listen on
+     * @return the running HttpServer
+     * @throws IOException if the port cannot be bound
+     */
+    public HttpServer startHttpServer(int port) throws IOException {
+        String bindAddress = System.getProperty("lancaster.metrics.bindAddress");
+        InetSocketAddress address = bindAddress == null
+                ? new InetSocketAddress(InetAddress.getLoopbackAddress(), port)
+                : new InetSocketAddress(bindAddress, port);
+        HttpServer server = HttpServer.create(address, 0);
+        server.createContext("/metrics", exchange -> {
+            byte[] body = render().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "text/plain; version=0.0.4; charset=utf-8");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+        return server;
+    }
+}
@@ -0,0 +1,384 @@
+package api;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * An in-memory index of the bookings in every room, used to reject double bookings and
+ * to find free rooms without querying the database.
+ *
+ * <p>The {@code Meeting} table only records when a booking starts, so each booking is
+ * taken to last a fixed time depending on its type ({@code Meeting} or {@code Tour}).
+ * For each location the index keeps a sorted map from start minute to end minute. Since
+ * no booking is longer than the longest duration, the bookings that could overlap a
+ * new one are exactly those starting within that duration before it ends, which a
+ * single sorted-map range lookup finds in O(log n), however many years of bookings are
+ * loaded.
+ *
+ * <p>The index is loaded from the database with {@link #load()} and kept in sync by
+ * {@link MarketingData} and {@link WriteBehindMarketingData}, which reserve each booking
+ * here before writing it. Bookings written by other processes are only seen after the
+ * next {@link #load()}.
+ *
+ * <p>A reservation stays marked as unconfirmed until its writer calls {@link #confirm}
+ * once the row is committed; bookings still waiting in a {@link MeetingWriteBehind} log
+ * are marked the same way with {@link #hold}. A reload keeps every unconfirmed booking,
+ * and every booking confirmed while it was reading, so bookings the database did not
+ * have yet are never dropped. Each location is updated under its own lock, so
+ * {@link #tryReserve} never sees it half loaded.
+ *
+ * <p>{@link JDBC} creates, loads and uses an index when {@code lancaster.booking.index}
+ * is true.
+ *
+ * <p><b>Properties</b> (read by {@link #fromSystemProperties()}):
+ * <ul>
+ *   <li>{@code lancaster.booking.meetingMinutes} - length of a room booking (default 60)
+ *   <li>{@code lancaster.booking.tourMinutes} - length of a tour (default 60)
+ * </ul>
+ *
+ * <p><b>Usage Example:</b>
+ * <pre>
+ * MeetingIntervalIndex index = MeetingIntervalIndex.fromSystemProperties();
+ * index.load();
+ * MarketingData marketing = new MarketingData();
+ * marketing.setMeetingIndex(index);
+ * List&lt;String&gt; free = index.getFreeRooms(LocalDate.now(), LocalTime.of(14, 0), "Meeting");
+ * </pre>
+ */
+public class MeetingIntervalIndex {
+    private static final String LOAD_QUERY = "SELECT Location, Date, Time, Type FROM Meeting WHERE Date >= ?";
+
+    private static final long MINUTES_PER_DAY = 24 * 60;
+
+    private final int meetingMinutes;
+    private final int tourMinutes;
+    private final int longestMinutes;
+
+    /** The bookings in each location. Each room is guarded by itself. */
+    private final Map<String, Room> locations = new ConcurrentHashMap<>();
+
+    /** The number of {@link #load} calls reading from the database. */
+    private final AtomicInteger loadsRunning = new AtomicInteger();
+
+    /**
+     * Creates an empty index.
+     * @param meetingMinutes how long a room booking lasts
+     * @param tourMinutes how long a tour lasts
+     */
+    public MeetingIntervalIndex(int meetingMinutes, int tourMinutes) {
+        this.meetingMinutes = meetingMinutes;
+        this.tourMinutes = tourMinutes;
+        this.longestMinutes = Math.max(meetingMinutes, tourMinutes);
+    }
+
+    /**
+     * Creates an empty index with durations from the {@code lancaster.booking.*} system
+     * properties.
+     * @return a new MeetingIntervalIndex
+     */
+    public static MeetingIntervalIndex fromSystemProperties() {
+        return new MeetingIntervalIndex(
+                Integer.getInteger("lancaster.booking.meetingMinutes", 60),
+                Integer.getInteger("lancaster.booking.tourMinutes", 60));
+    }
+
+    /**
+     * Replaces the contents of the index with every booking in the {@code Meeting} table.
+     *
+     * @throws SQLException if the bookings cannot be read
+     * @throws ClassNotFoundException if the JDBC driver cannot be loaded
+     */
+    public void load() throws SQLException, ClassNotFoundException {
+        load(LocalDate.of(1900, 1, 1));
+    }
+
+    /**
+     * Replaces the contents of the index with the bookings in the {@code Meeting} table
+     * from a given date onwards. Only bookings that have not ended can conflict with new
+     * ones, so loading from yesterday, to catch bookings running past midnight, is enough
+     * for conflict checks. Bookings reserved here but not yet
+     * confirmed as written are kept.
+     *
+     * @param from the earliest booking date to load
+     * @throws SQLException if the bookings cannot be read
+     * @throws ClassNotFoundException if the JDBC driver cannot be loaded
+     */
+    public void load(LocalDate from) throws SQLException, ClassNotFoundException {
+        loadsRunning.incrementAndGet();
+        try {
+            swapIn(read(from));
+        } finally {
+            if (loadsRunning.decrementAndGet() == 0) {
+                for (Room room : locations.values()) {
+                    synchronized (room) {
+                        room.confirmedDuringLoad.clear();
+                    }
+                }
+            }
+        }
+    }
+
+    /** Reads the bookings from a given date onwards, by location. */
+    private Map<String, NavigableMap<Long, Long>> read(LocalDate from) throws SQLException, ClassNotFoundException {
+        Map<String, NavigableMap<Long, Long>> loaded = new TreeMap<>();
+        try (Connection conn = JDBC.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(LOAD_QUERY, ResultSet.TYPE_FORWARD_ONLY,
+                     ResultSet.CONCUR_READ_ONLY)) {
+            stmt.setFetchSize(Integer.MIN_VALUE);
+            stmt.setDate(1, java.sql.Date.valueOf(from));
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    String location = rs.getString("Location");
+                    java.sql.Date date = rs.getDate("Date");
+                    java.sql.Time time = rs.getTime("Time");
+                    if (location == null || date == null || time == null) {
+                        continue;
+                    }
+                    long start = minuteOf(date.toLocalDate(), time.toLocalTime());
+                    long end = start + durationOf(rs.getString("Type"));
+                    loaded.computeIfAbsent(location, l -> new TreeMap<>()).merge(start, end, Math::max);
+                }
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * Replaces each location's bookings with the loaded ones plus its unconfirmed
+     * bookings, and drops locations left with none.
+     */
+    private void swapIn(Map<String, NavigableMap<Long, Long>> loaded) {
+        Set<String> names = new HashSet<>(locations.keySet());
+        names.addAll(loaded.keySet());
+        for (String location : names) {
+            NavigableMap<Long, Long> bookings = loaded.get(location);
+            if (bookings == null && !locations.containsKey(location)) {
+                continue;
+            }
+            Room room = lockableRoom(location);
+            synchronized (room) {
+                if (locations.get(location) != room) {
+                    continue; // Another load dropped it; it had nothing unconfirmed
+                }
+                room.bookings.clear();
+                if (bookings != null) {
+                    room.bookings.putAll(bookings);
+                }
+                room.unconfirmed.forEach((start, end) -> room.bookings.merge(start, end, Math::max));
+                room.confirmedDuringLoad.forEach((start, end) -> room.bookings.merge(start, end, Math::max));
+                if (room.bookings.isEmpty()) {
+                    locations.remove(location, room);
+                }
+            }
+        }
+    }
+
+    /** Gets the room for a location, creating it if necessary. Callers lock it and check it is still mapped. */
+    private Room lockableRoom(String location) {
+        return locations.computeIfAbsent(location, l -> new Room());
+    }
+
+    /**
+     * Records a booking if it does not overlap any booking already in its location.
+     * @param location the room location
+     * @param date the date of the booking
+     * @param startTime the start time of the booking
+     * @param type {@code Meeting} or {@code Tour}
+     * @return true if the booking was recorded, false if it conflicts
+     */
+    public boolean tryReserve(String location, LocalDate date, LocalTime startTime, String type) {
+        long start = minuteOf(date, startTime);
+        long end = start + durationOf(type);
+        while (true) {
+            Room room = lockableRoom(location);
+            synchronized (room) {
+                if (locations.get(location) != room) {
+                    continue; // Dropped by a load while empty
+                }
+                if (overlaps(room.bookings, start, end)) {
+                    return false;
+                }
+                room.bookings.put(start, end);
+                room.unconfirmed.put(start, end);
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Records a booking that is going to be written whether or not it conflicts, such as
+     * one replayed from a {@link MeetingWriteBehind} log, and marks it unconfirmed.
+     * @param location the room location
+     * @param date the date of the booking
+     * @param startTime the start time of the booking
+     * @param type {@code Meeting} or {@code Tour}
+     */
+    public void hold(String location, LocalDate date, LocalTime startTime, String type) {
+        long start = minuteOf(date, startTime);
+        long end = start + durationOf(type);
+        while (true) {
+            Room room = lockableRoom(location);
+            synchronized (room) {
+                if (locations.get(location) != room) {
+                    continue;
+                }
+                room.bookings.merge(start, end, Math::max);
+                room.unconfirmed.merge(start, end, Math::max);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Marks a booking recorded by {@link #tryReserve} or {@link #hold} as committed to the
+     * database, so the next {@link #load()} finds it there rather than keeping it.
+     * @param location the room location
+     * @param date the date of the booking
+     * @param startTime the start time of the booking
+     */
+    public void confirm(String location, LocalDate date, LocalTime startTime) {
+        Room room = locations.get(location);
+        if (room != null) {
+            synchronized (room) {
+                long start = minuteOf(date, startTime);
+                Long end = room.unconfirmed.remove(start);
+                if (end != null && loadsRunning.get() > 0) {
+                    // The running load may have read the table before this was committed
+                    room.confirmedDuringLoad.put(start, end);
+                }
+            }
+        }
+    }
+
+    /**
+     * Removes a booking recorded by {@link #tryReserve}, for example because writing it
+     * to the database failed.
+     * @param location the room location
+     * @param date the date of the booking
+     * @param startTime the start time of the booking
+     */
+    public void release(String location, LocalDate date, LocalTime startTime) {
+        Room room = locations.get(location);
+        if (room != null) {
+            synchronized (room) {
+                long start = minuteOf(date, startTime);
+                room.bookings.remove(start);
+                room.unconfirmed.remove(start);
+                room.confirmedDuringLoad.remove(start);
+            }
+        }
+    }
+
+    /**
+     * Checks whether a booking would fit in a location.
+     * @param location the room location
+     * @param date the date of the booking
+     * @param startTime the start time of the booking
+     * @param type {@code Meeting} or {@code Tour}
+     * @return true if no booking in the location overlaps it
+     */
+    public boolean isFree(String location, LocalDate date, LocalTime startTime, String type) {
+        long start = minuteOf(date, startTime);
+        Room room = locations.get(location);
+        if (room == null) {
+            return true;
+        }
+        synchronized (room) {
+            return !overlaps(room.bookings, start, start + durationOf(type));
+        }
+    }
+
+    /**
+     * Finds the known locations that are free at a moment in time.
+     * @param at the moment to check
+     * @return the free locations, in alphabetical order
+     */
+    public List<String> getFreeRooms(LocalDateTime at) {
+        long minute = minuteOf(at.toLocalDate(), at.toLocalTime());
+        return freeRooms(minute, minute + 1);
+    }
+
+    /**
+     * Finds the known locations where a booking would fit.
+     * @param date the date of the booking
+     * @param startTime the start time of the booking
+     * @param type {@code Meeting} or {@code Tour}
+     * @return the free locations, in alphabetical order
+     */
+    public List<String> getFreeRooms(LocalDate date, LocalTime startTime, String type) {
+        long start = minuteOf(date, startTime);
+        return freeRooms(start, start + durationOf(type));
+    }
+
+    private List<String> freeRooms(long start, long end) {
+        List<String> free = new ArrayList<>();
+        for (Map.Entry<String, Room> entry : locations.entrySet()) {
+            Room room = entry.getValue();
+            synchronized (room) {
+                if (!overlaps(room.bookings, start, end)) {
+                    free.add(entry.getKey());
+                }
+            }
+        }
+        free.sort(null);
+        return free;
+    }
+
+    /**
+     * Gets the number of bookings in the index.
+     * @return the booking count across all locations
+     */
+    public int size() {
+        int size = 0;
+        for (Room room : locations.values()) {
+            synchronized (room) {
+                size += room.bookings.size();
+            }
+        }
+        return size;
+    }
+
+    /** Whether any booking in {@code bookings} overlaps {@code [start, end)}. */
+    private boolean overlaps(NavigableMap<Long, Long> bookings, long start, long end) {
+        for (long otherEnd : bookings.subMap(start - longestMinutes, false, end, false).values()) {
+            if (otherEnd > start) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private int durationOf(String type) {
+        return "Tour".equalsIgnoreCase(type) ? tourMinutes : meetingMinutes;
+    }
+
+    private static long minuteOf(LocalDate date, LocalTime time) {
+        return date.toEpochDay() * MINUTES_PER_DAY + time.getHour() * 60L + time.getMinute();
+    }
+
+    /**
+     * The bookings in one location, each as start minute to end minute.
+     */
+    private static final class Room {
+        private final NavigableMap<Long, Long> bookings = new TreeMap<>();
+        /** Bookings not yet confirmed as committed, which a load must keep. */
+        private final Map<Long, Long> unconfirmed = new HashMap<>();
+        /** Bookings confirmed while a load was running, which it may have missed. */
+        private final Map<Long, Long> confirmedDuringLoad = new HashMap<>();
+    }
+}
@@ -0,0 +1,577 @@
+package api;
+
+import org.json.JSONObject;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.SQLTransientException;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Accepts room bookings and tour arrangements into a local write-ahead log and writes
+ * them to the {@code Meeting} table in the background.
+ *
+ * <p>A call is validated, appended to the log and forced to disk before it returns, so
+ * the caller waits for a local fsync rather than a database round-trip, and an
+ * acknowledged booking survives a crash. A background thread then inserts the logged
+ * bookings in JDBC batches, one transaction per batch, and records how far it has got in
+ * a checkpoint file next to the log. Once everything logged has been written the log is
+ * truncated.
+ *
+ * <p>Inserts are idempotent: a meeting is only inserted if no meeting of the same type
+ * already exists for the same client, date, time and location. Bookings replayed from
+ * the log after a crash, or a batch retried after the database was unreachable, are
+ * therefore never duplicated. If the database is unreachable the batch is retried with
+ * an increasing delay, up to {@link #MAX_RETRY_DELAY_MILLIS}.
+ *
+ * <p>Only transient failures are retried: lost connections (SQLState class {@code 08})
+ * and {@link SQLTransientException}s such as deadlocks and lock timeouts. If a batch is
+ * rejected for any other reason, its bookings are inserted one at a time, and any
+ * booking the database rejects outright is appended to a dead-letter file next to the
+ * log ({@code file.dead}) with the error, so one bad booking cannot hold up the ones
+ * accepted after it. {@link #accept} checks the same limits as the {@code Meeting} table
+ * up front, so in practice only a changed schema or constraint sends bookings there.
+ *
+ * <p>Bookings accepted but not yet written are not visible to queries such as
+ * {@link MarketingInterface#getRoomUsageDetails(LocalDate, LocalDate)} until the next
+ * flush; see {@link #getPendingCount()}.
+ *
+ * <p><b>Properties</b> (read by {@link #fromSystemProperties()}):
+ * <ul>
+ *   <li>{@code lancaster.writeBehind.file} - enables write-behind; the log file
+ *   <li>{@code lancaster.writeBehind.batchSize} - bookings inserted per batch (default 100)
+ *   <li>{@code lancaster.writeBehind.flushMs} - longest wait before a partial batch is
+ *       written (default 200)
+ * </ul>
+ *
+ * @see WriteBehindMarketingData
+ */
+public class MeetingWriteBehind implements AutoCloseable {
+    /** Longest wait between retries while the database is unreachable. */
+    public static final long MAX_RETRY_DELAY_MILLIS = 30_000;
+
+    private static final long FIRST_RETRY_DELAY_MILLIS = 500;
+
+    /** Longest title and location the {@code Meeting} table holds. */
+    private static final int MAX_TEXT_LENGTH = 100;
+
+    private static final String INSERT_MEETING = "INSERT INTO Meeting (ClientID, Date, Time, Title, Location, Type) " +
+            "SELECT ?, ?, ?, ?, ?, ? FROM DUAL " +
+            "WHERE NOT EXISTS (SELECT 1 FROM Meeting " +
+            "WHERE Type = ? AND Date = ? AND Time = ? AND ClientID = ? AND Location = ?)";
+
+    private final Path file;
+    private final Path checkpointFile;
+    private final Path deadLetterFile;
+    private final FileChannel channel;
+    private final int batchSize;
+    private final long flushIntervalMillis;
+    private final BlockingQueue<Entry> pending = new LinkedBlockingQueue<>();
+    /** Bookings logged but not yet written or dead-lettered, including the batch being written. */
+    private final Set<Entry> unwritten = ConcurrentHashMap.newKeySet();
+    private final LongAdder accepted = new LongAdder();
+    private final LongAdder written = new LongAdder();
+    private final LongAdder retries = new LongAdder();
+    private final LongAdder deadLettered = new LongAdder();
+    private final Thread writer;
+    private volatile boolean closed;
+    private volatile MeetingIntervalIndex meetingIndex;
+
+    /** End of the last record in the log. Guarded by {@code this}. */
+    private long logEnd;
+
+    /**
+     * Opens the log, queues any bookings it holds that were not yet written, and starts
+     * the writer thread.
+     *
+     * @param file the write-ahead log file; its checkpoint is kept in {@code file.checkpoint}
+     * @param batchSize the number of bookings inserted per batch
+     * @param flushIntervalMillis the longest wait before a partial batch is written
+     * @throws IOException if the log cannot be opened or read
+     */
+    public MeetingWriteBehind(Path file, int batchSize, long flushIntervalMillis) throws IOException {
+        this.file = file;
+        this.checkpointFile = file.resolveSibling(file.getFileName() + ".checkpoint");
+        this.deadLetterFile = file.resolveSibling(file.getFileName() + ".dead");
+        this.batchSize = batchSize;
+        this.flushIntervalMillis = flushIntervalMillis;
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        replay();
+        this.writer = new Thread(this::writeEntries, "meeting-write-behind");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Creates a write-behind log from the {@code lancaster.writeBehind.*} system properties.
+     * @return a MeetingWriteBehind, or null if {@code lancaster.writeBehind.file} is not set
+     * @throws IOException if the log cannot be opened or read
+     */
+    public static MeetingWriteBehind fromSystemProperties() throws IOException {
+        String file = System.getProperty("lancaster.writeBehind.file");
+        if (file == null) {
+            return null;
+        }
+        return new MeetingWriteBehind(Paths.get(file),
+                Integer.getInteger("lancaster.writeBehind.batchSize", 100),
+                Long.getLong("lancaster.writeBehind.flushMs", 200L));
+    }
+
+    /**
+     * Accepts a room booking for a client meeting.
+     * @param clientId the unique identifier of the client
+     * @param date the date of the meeting
+     * @param startTime the start time of the meeting
+     * @param title the title/description of the meeting
+     * @param location the room location
+     * @return true if the booking is valid and was logged, false otherwise
+     */
+    public boolean bookRoomForClient(String clientId, LocalDate date, LocalTime startTime, String title, String location) {
+        return accept("Meeting", clientId, date, startTime, title, location);
+    }
+
+    /**
+     * Accepts a venue tour for a client.
+     * @param clientId the unique identifier of the client
+     * @param date the tour date
+     * @param startTime the tour start time
+     * @param location the tour starting location
+     * @return true if the tour is valid and was logged, false otherwise
+     */
+    public boolean arrangeTour(String clientId, LocalDate date, LocalTime startTime, String location) {
+        return accept("Tour", clientId, date, startTime, "Tour for Client " + clientId, location);
+    }
+
+    /**
+     * Validates a booking and appends it to the log.
+     *
+     * <p>A booking is only acknowledged if the {@code Meeting} table can hold it: the
+     * client ID must fit its INT column and the title and location its VARCHAR(100)
+     * columns. The synchronous insert reported such bookings as failed, and so does this.
+     *
+     * @param type {@code Meeting} for a room booking or {@code Tour} for a tour
+     * @return true if the booking is valid and was logged, false otherwise
+     */
+    boolean accept(String type, String clientId, LocalDate date, LocalTime startTime,
+                   String title, String location) {
+        if (!isValidId(clientId) || date == null || startTime == null
+                || title == null || title.length() > MAX_TEXT_LENGTH
+                || location == null || location.isBlank() || location.length() > MAX_TEXT_LENGTH) {
+            return false;
+        }
+        Entry entry = new Entry(type, clientId, date, startTime, title, location);
+        byte[] record = (entry.toJson() + "\n").getBytes(StandardCharsets.UTF_8);
+        try {
+            synchronized (this) {
+                if (closed) {
+                    return false;
+                }
+                ByteBuffer buffer = ByteBuffer.wrap(record);
+                long position = logEnd;
+                while (buffer.hasRemaining()) {
+                    position += channel.write(buffer, position);
+                }
+                channel.force(false);
+                logEnd = position;
+                entry.end = position;
+                accepted.increment();
+                unwritten.add(entry);
+                pending.add(entry);
+            }
+        } catch (IOException e) {
+            SqlFailures.record(e);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Sets the index that double bookings are checked against. Every booking still
+     * waiting to be written is held in it, so reloading the index cannot drop them, and
+     * each booking is confirmed in it once written, or released if it is dead-lettered.
+     * @param meetingIndex the index, or null for none
+     */
+    public void setMeetingIndex(MeetingIntervalIndex meetingIndex) {
+        this.meetingIndex = meetingIndex;
+        if (meetingIndex != null) {
+            for (Entry entry : unwritten) {
+                meetingIndex.hold(entry.location, entry.date, entry.startTime, entry.type);
+            }
+        }
+    }
+
+    /** Whether {@code id} is a whole number that fits the INT {@code ClientID} column. */
+    private static boolean isValidId(String id) {
+        if (id == null || !id.trim().matches("-?\\d{1,10}")) {
+            return false;
+        }
+        long value = Long.parseLong(id.trim());
+        return value >= Integer.MIN_VALUE && value <= Integer.MAX_VALUE;
+    }
+
+    /**
+     * Queues the records after the checkpoint. A record cut short by a crash, which was
+     * never acknowledged, is truncated away.
+     */
+    private void replay() throws IOException {
+        long size = channel.size();
+        long start = 0;
+        if (Files.exists(checkpointFile)) {
+            start = Long.parseLong(new String(Files.readAllBytes(checkpointFile), StandardCharsets.US_ASCII).trim());
+            if (start > size) {
+                start = 0;
+            }
+        }
+        ByteBuffer buffer = ByteBuffer.allocate((int) (size - start));
+        while (buffer.hasRemaining() && channel.read(buffer, start + buffer.position()) >= 0) {
+            // Read the unwritten tail of the log
+        }
+        byte[] bytes = buffer.array();
+        long end = start;
+        int lineStart = 0;
+        for (int i = 0; i < bytes.length; i++) {
+            if (bytes[i] != '\n') {
+                continue;
+            }
+            Entry entry;
+            try {
+                entry = Entry.fromJson(new String(bytes, lineStart, i - lineStart, StandardCharsets.UTF_8));
+            } catch (RuntimeException e) {
+                break;
+            }
+            end = start + i + 1;
+            entry.end = end;
+            unwritten.add(entry);
+            pending.add(entry);
+            accepted.increment();
+            lineStart = i + 1;
+        }
+        if (end < size) {
+            channel.truncate(end);
+            channel.force(true);
+        }
+        logEnd = end;
+    }
+
+    private void writeEntries() {
+        List<Entry> batch = new ArrayList<>(batchSize);
+        long retryDelay = FIRST_RETRY_DELAY_MILLIS;
+        try {
+            while (true) {
+                if (batch.isEmpty()) {
+                    Entry first = pending.poll(flushIntervalMillis, TimeUnit.MILLISECONDS);
+                    if (first == null) {
+                        if (closed) {
+                            return;
+                        }
+                        continue;
+                    }
+                    batch.add(first);
+                    pending.drainTo(batch, batchSize - 1);
+                }
+                try {
+                    List<Entry> rejected = write(batch);
+                    checkpoint(batch.get(batch.size() - 1).end);
+                    written.add(batch.size() - rejected.size());
+                    deadLettered.add(rejected.size());
+                    settle(batch, rejected);
+                    batch.clear();
+                    retryDelay = FIRST_RETRY_DELAY_MILLIS;
+                } catch (SQLException | ClassNotFoundException | IOException e) {
+                    SqlFailures.record(e);
+                    retries.increment();
+                    if (closed) {
+                        return; // Left in the log, and replayed on the next start
+                    }
+                    Thread.sleep(retryDelay);
+                    retryDelay = Math.min(retryDelay * 2, MAX_RETRY_DELAY_MILLIS);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Writes a batch, falling back to one booking at a time if the database rejects it,
+     * and dead-letters the bookings that are rejected on their own.
+     *
+     * @return the bookings dead-lettered
+     * @throws SQLException if a transient failure means the batch should be retried
+     * @throws IOException if a rejected booking cannot be dead-lettered
+     */
+    private List<Entry> write(List<Entry> batch) throws SQLException, ClassNotFoundException, IOException {
+        try (Connection conn = JDBC.getConnection()) {
+            try {
+                insert(conn, batch);
+                return List.of();
+            } catch (SQLException e) {
+                if (isTransient(e)) {
+                    throw e;
+                }
+            }
+            List<Entry> rejected = new ArrayList<>();
+            for (Entry entry : batch) {
+                try {
+                    insert(conn, List.of(entry));
+                } catch (SQLException e) {
+                    if (isTransient(e)) {
+                        throw e; // Bookings already inserted are skipped by the idempotent retry
+                    }
+                    deadLetter(entry, e);
+                    rejected.add(entry);
+                }
+            }
+            return rejected;
+        }
+    }
+
+    /**
+     * Confirms a written batch in the meeting index, releasing the bookings that were
+     * dead-lettered instead.
+     */
+    private void settle(List<Entry> batch, List<Entry> rejected) {
+        MeetingIntervalIndex index = meetingIndex;
+        for (Entry entry : batch) {
+            unwritten.remove(entry);
+            if (index == null) {
+                continue;
+            }
+            if (rejected.contains(entry)) {
+                index.release(entry.location, entry.date, entry.startTime);
+            } else {
+                index.confirm(entry.location, entry.date, entry.startTime);
+            }
+        }
+    }
+
+    /**
+     * Whether a failure may go away on retry: a lost connection (SQLState class 08) or a
+     * transient error such as a deadlock or lock wait timeout.
+     */
+    static boolean isTransient(SQLException e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof SQLTransientException) {
+                return true;
+            }
+            if (t instanceof SQLException) {
+                String state = ((SQLException) t).getSQLState();
+                if (state != null && state.startsWith("08")) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /** Appends a booking the database rejected, and why, to the dead-letter file. */
+    private void deadLetter(Entry entry, SQLException e) throws IOException {
+        SqlFailures.record(e);
+        JSONObject record = new JSONObject(entry.toJson())
+                .put("sql_state", e.getSQLState())
+                .put("error", e.getMessage());
+        byte[] line = (record + "\n").getBytes(StandardCharsets.UTF_8);
+        try (FileChannel out = FileChannel.open(deadLetterFile, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            ByteBuffer buffer = ByteBuffer.wrap(line);
+            while (buffer.hasRemaining()) {
+                out.write(buffer);
+            }
+            out.force(true);
+        }
+    }
+
+    private static void insert(Connection conn, List<Entry> batch) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(INSERT_MEETING)) {
+            conn.setAutoCommit(false);
+            try {
+                for (Entry entry : batch) {
+                    java.sql.Date date = java.sql.Date.valueOf(entry.date);
+                    java.sql.Time time = java.sql.Time.valueOf(entry.startTime);
+                    stmt.setString(1, entry.clientId);
+                    stmt.setDate(2, date);
+                    stmt.setTime(3, time);
+                    stmt.setString(4, entry.title);
+                    stmt.setString(5, entry.location);
+                    stmt.setString(6, entry.type);
+                    stmt.setString(7, entry.type);
+                    stmt.setDate(8, date);
+                    stmt.setTime(9, time);
+                    stmt.setString(10, entry.clientId);
+                    stmt.setString(11, entry.location);
+                    stmt.addBatch();
+                }
+                stmt.executeBatch();
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        }
+    }
+
+    /**
+     * Records that everything up to {@code offset} is in the database. If that is the
+     * whole log, the log is emptied instead; the checkpoint is reset first, so a crash in
+     * between can only replay bookings already written, which the idempotent insert
+     * ignores.
+     */
+    private void checkpoint(long offset) throws IOException {
+        synchronized (this) {
+            if (offset == logEnd) {
+                writeCheckpoint(0);
+                channel.truncate(0);
+                channel.force(true);
+                logEnd = 0;
+                return;
+            }
+        }
+        writeCheckpoint(offset);
+    }
+
+    private void writeCheckpoint(long offset) throws IOException {
+        Path temp = checkpointFile.resolveSibling(checkpointFile.getFileName() + ".tmp");
+        try (FileChannel out = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            out.write(ByteBuffer.wrap(Long.toString(offset).getBytes(StandardCharsets.US_ASCII)));
+            out.force(true);
+        }
+        Files.move(temp, checkpointFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Gets the write-ahead log file.
+     * @return the log path
+     */
+    public Path getFile() {
+        return file;
+    }
+
+    /**
+     * Gets the number of bookings accepted but not yet written to the database.
+     * @return the pending booking count
+     */
+    public long getPendingCount() {
+        return accepted.sum() - written.sum() - deadLettered.sum();
+    }
+
+    /**
+     * Gets the number of bookings written to the database since the log was opened.
+     * @return the written booking count
+     */
+    public long getWrittenCount() {
+        return written.sum();
+    }
+
+    /**
+     * Gets the number of bookings the database rejected, which were moved to the
+     * dead-letter file instead of being written.
+     * @return the dead-lettered booking count
+     */
+    public long getDeadLetterCount() {
+        return deadLettered.sum();
+    }
+
+    /**
+     * Gets the dead-letter file, where bookings the database rejected are kept.
+     * @return the dead-letter path
+     */
+    public Path getDeadLetterFile() {
+        return deadLetterFile;
+    }
+
+    /**
+     * Gets the number of batches that failed and were retried.
+     * @return the retry count
+     */
+    public long getRetryCount() {
+        return retries.sum();
+    }
+
+    /**
+     * Stops accepting bookings, writes those already accepted if the database is
+     * reachable, and closes the log. Bookings that could not be written stay in the log
+     * and are written when it is next opened.
+     */
+    @Override
+    public void close() {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+        }
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            channel.close();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * One accepted booking, and where its record ends in the log.
+     */
+    private static final class Entry {
+        private final String type;
+        private final String clientId;
+        private final LocalDate date;
+        private final LocalTime startTime;
+        private final String title;
+        private final String location;
+        private long end;
+
+        private Entry(String type, String clientId, LocalDate date, LocalTime startTime, String title, String location) {
+            this.type = type;
+            this.clientId = clientId;
+            this.date = date;
+            this.startTime = startTime;
+            this.title = title;
+            this.location = location;
+        }
+
+        private String toJson() {
+            return new JSONObject()
+                    .put("type", type)
+                    .put("client_id", clientId)
+                    .put("date", date.toString())
+                    .put("time", startTime.toString())
+                    .put("title", title)
+                    .put("location", location)
+                    .toString();
+        }
+
+        private static Entry fromJson(String line) {
+            JSONObject json = new JSONObject(line);
+            return new Entry(json.getString("type"), json.getString("client_id"),
+                    LocalDate.parse(json.getString("date")), LocalTime.parse(json.getString("time")),
+                    json.getString("title"), json.getString("location"));
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package api;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Call, error, in-flight and latency metrics for one {@link MarketingInterface} method.
+ *
+ * <p>All counters are {@link LongAdder}s and latencies go into a lock-free
+ * {@link LatencyHistogram}, so recording a call neither locks nor allocates.
+ *
+ * <p><b>Usage Example:</b>
+ * <pre>
+ * long start = metrics.begin();
+ * try {
+ *     return delegate.getClientDetails(clientId);
+ * } catch (RuntimeException e) {
+ *     SqlFailures.mark();
+ *     throw e;
+ * } finally {
+ *     metrics.end(start);
+ * }
+ * </pre>
+ */
+public class MethodMetrics implements MethodMetricsMBean {
+    private final String method;
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder inFlight = new LongAdder();
+    private final LatencyHistogram latency = new LatencyHistogram();
+
+    /**
+     * Creates empty metrics for a method.
+     * @param method the name of the method
+     */
+    MethodMetrics(String method) {
+        this.method = method;
+    }
+
+    /**
+     * Marks the start of a call.
+     * @return the start time to pass to {@link #end(long)}
+     */
+    long begin() {
+        inFlight.increment();
+        SqlFailures.clear();
+        return System.nanoTime();
+    }
+
+    /**
+     * Marks the end of a call, counting it as an error if a failure was flagged on this
+     * thread since {@link #begin()}.
+     * @param start the value returned by {@link #begin()}
+     */
+    void end(long start) {
+        latency.record(System.nanoTime() - start);
+        inFlight.decrement();
+        calls.increment();
+        if (SqlFailures.take()) {
+            errors.increment();
+        }
+    }
+
+    @Override
+    public String getMethod() {
+        return method;
+    }
+
+    @Override
+    public long getCalls() {
+        return calls.sum();
+    }
+
+    @Override
+    public long getErrors() {
+        return errors.sum();
+    }
+
+    @Override
+    public long getInFlight() {
+        return inFlight.sum();
+    }
+
+    @Override
+    public double getMeanMicros() {
+        return latency.getMean() / 1_000;
+    }
+
+    @Override
+    public double getP50Micros() {
+        return getPercentileMicros(50);
+    }
+
+    @Override
+    public double getP90Micros() {
+        return getPercentileMicros(90);
+    }
+
+    @Override
+    public double getP99Micros() {
+        return getPercentileMicros(99);
+    }
+
+    @Override
+    public double getP999Micros() {
+        return getPercentileMicros(99.9);
+    }
+
+    @Override
+    public double getMaxMicros() {
+        return latency.getMax() / 1_000.0;
+    }
+
+    /**
+     * Gets the latency at any percentile.
+     * @param percentile the percentile, from 0 to 100
+     * @return the latency in microseconds
+     */
+    public double getPercentileMicros(double percentile) {
+        return latency.getValueAtPercentile(percentile) / 1_000.0;
+    }
+}
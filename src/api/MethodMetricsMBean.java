@@ -0,0 +1,70 @@
+package api;
+
+/**
+ * JMX view of the metrics recorded for one {@link MarketingInterface} method.
+ *
+ * <p>Latencies are in microseconds.
+ *
+ * @see MethodMetrics
+ */
+public interface MethodMetricsMBean {
+    /**
+     * Gets the name of the method.
+     * @return the method name
+     */
+    String getMethod();
+
+    /**
+     * Gets the number of calls that have finished.
+     * @return the call count
+     */
+    long getCalls();
+
+    /**
+     * Gets the number of calls that failed.
+     * @return the error count
+     */
+    long getErrors();
+
+    /**
+     * Gets the number of calls currently running.
+     * @return the in-flight count
+     */
+    long getInFlight();
+
+    /**
+     * Gets the mean latency.
+     * @return the mean in microseconds
+     */
+    double getMeanMicros();
+
+    /**
+     * Gets the median latency.
+     * @return the 50th percentile in microseconds
+     */
+    double getP50Micros();
+
+    /**
+     * Gets the 90th percentile latency.
+     * @return the 90th percentile in microseconds
+     */
+    double getP90Micros();
+
+    /**
+     * Gets the 99th percentile latency.
+     * @return the 99th percentile in microseconds
+     */
+    double getP99Micros();
+
+    /**
+     * Gets the 99.9th percentile latency.
+     * @return the 99.9th percentile in microseconds
+     */
+    double getP999Micros();
+
+    /**
+     * Gets the largest latency recorded.
+     * @return the maximum in microseconds
+     */
+    double getMaxMicros();
+}
@@ -0,0 +1,79 @@
+package api;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * One page of results from a paginated query, with the token needed to fetch the next.
+ *
+ * <p>Pages are read with keyset (seek) pagination: the token records the ordering key of
+ * the last row returned, and the next page starts directly after that key using an
+ * index, so fetching page 1000 costs the same as fetching page 1. Tokens are opaque
+ * strings and are only valid for the method that issued them.
+ *
+ * <p><b>Usage Example:</b>
+ * <pre>
+ * String token = null;
+ * do {
+ *     Page&lt;ClientDTO&gt; page = marketing.getFriendsOfLancasterClientsPage(token, 100);
+ *     page.getItems().forEach(client -&gt; System.out.println(client.getContactName()));
+ *     token = page.getNextPageToken();
+ * } while (token != null);
+ * </pre>
+ *
+ * @param <T> the type of the items on the page
+ */
+public final class Page<T> {
+    /** Page size used when the requested size is not positive. */
+    public static final int DEFAULT_SIZE = 50;
+
+    /** Largest page size served; larger requests are reduced to this. */
+    public static final int MAX_SIZE = Integer.getInteger("lancaster.page.maxSize", 500);
+
+    private final List<T> items;
+    private final String nextPageToken;
+
+    /**
+     * Creates a page.
+     * @param items the items on the page
+     * @param nextPageToken the token for the following page, or null if this is the last
+     */
+    public Page(List<T> items, String nextPageToken) {
+        this.items = Collections.unmodifiableList(items);
+        this.nextPageToken = nextPageToken;
+    }
+
+    /**
+     * Gets the items on this page.
+     * @return unmodifiable list of items, in query order
+     */
+    public List<T> getItems() {
+        return items;
+    }
+
+    /**
+     * Gets the token to pass back to fetch the following page.
+     * @return the continuation token, or null if there are no more pages
+     */
+    public String getNextPageToken() {
+        return nextPageToken;
+    }
+
+    /**
+     * Checks whether there is a page after this one.
+     * @return true if {@link #getNextPageToken()} is not null
+     */
+    public boolean hasNextPage() {
+        return nextPageToken != null;
+    }
+
+    /**
+     * Limits a requested page size to the range served.
+     * @param pageSize the requested size
+     * @return {@link #DEFAULT_SIZE} if the request is not positive, otherwise the request
+     *         capped at {@link #MAX_SIZE}
+     */
+    static int clampSize(int pageSize) {
+        return pageSize <= 0 ? DEFAULT_SIZE : Math.min(pageSize, MAX_SIZE);
+    }
+}
@@ -0,0 +1,54 @@
+package api;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Encodes and decodes the continuation tokens handed out with each {@link Page}.
+ *
+ * <p>A token holds the name of the query that issued it and the ordering key of the last
+ * row returned, Base64-encoded so callers treat it as opaque. Decoding checks both, so a
+ * token passed to the wrong method is rejected rather than silently seeking to the wrong
+ * place.
+ */
+final class PageToken {
+    private static final String SEPARATOR = "|";
+
+    private PageToken() {
+    }
+
+    /**
+     * Encodes a continuation token.
+     * @param query the name of the paginated query
+     * @param key the ordering key of the last row returned, one value per column
+     * @return the opaque token
+     */
+    static String encode(String query, String... key) {
+        String raw = query + SEPARATOR + String.join(SEPARATOR, key);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a continuation token.
+     * @param token the token from {@link Page#getNextPageToken()}
+     * @param query the name of the paginated query being resumed
+     * @param keyColumns the number of values in the query's ordering key
+     * @return the ordering key of the last row of the previous page
+     * @throws IllegalArgumentException if the token is malformed or belongs to another query
+     */
+    static String[] decode(String token, String query, int keyColumns) {
+        String raw;
+        try {
+            raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Malformed page token: " + token, e);
+        }
+        String[] parts = raw.split("\\|", -1);
+        if (parts.length != keyColumns + 1 || !parts[0].equals(query)) {
+            throw new IllegalArgumentException("Page token does not belong to " + query + ": " + token);
+        }
+        String[] key = new String[keyColumns];
+        System.arraycopy(parts, 1, key, 0, keyColumns);
+        return key;
+    }
+}
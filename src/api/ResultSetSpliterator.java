@@ -0,0 +1,102 @@
+package api;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+
+/**
+ * Feeds the rows of an open {@link ResultSet} to a {@link java.util.stream.Stream} one at
+ * a time, and releases the result set, its statement and its connection as soon as the
+ * rows run out or the stream is closed.
+ *
+ * <p>A database failure part-way through is recorded with {@link SqlFailures} and ends
+ * the stream early, just as the list-returning queries in {@link MarketingData} return
+ * whatever they had read.
+ *
+ * @param <T> the type each row is mapped to
+ */
+final class ResultSetSpliterator<T> extends Spliterators.AbstractSpliterator<T> implements AutoCloseable {
+    /**
+     * Maps the current row of a result set to an object.
+     * @param <T> the type each row is mapped to
+     */
+    interface RowMapper<T> {
+        T map(ResultSet rs) throws SQLException;
+    }
+
+    private final Connection conn;
+    private final Statement stmt;
+    private final ResultSet rs;
+    private final RowMapper<T> mapper;
+    private boolean closed;
+
+    /**
+     * Creates a spliterator that owns the given resources.
+     * @param conn the connection, closed (returned to the pool) when done
+     * @param stmt the statement, closed when done
+     * @param rs the result set to read
+     * @param mapper maps each row
+     */
+    ResultSetSpliterator(Connection conn, Statement stmt, ResultSet rs, RowMapper<T> mapper) {
+        super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL);
+        this.conn = conn;
+        this.stmt = stmt;
+        this.rs = rs;
+        this.mapper = mapper;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super T> action) {
+        if (closed) {
+            return false;
+        }
+        T row;
+        try {
+            if (!rs.next()) {
+                close();
+                return false;
+            }
+            row = mapper.map(rs);
+        } catch (SQLException e) {
+            SqlFailures.record(e);
+            close();
+            return false;
+        }
+        action.accept(row);
+        return true;
+    }
+
+    /**
+     * Closes the result set, the statement and the connection. Safe to call more than once.
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        closeAll(rs, stmt, conn);
+    }
+
+    /**
+     * Closes JDBC resources in the order given, skipping nulls. Every resource is closed
+     * even if an earlier one fails; failures are recorded with {@link SqlFailures}.
+     * @param resources the resources, innermost (result set) first
+     */
+    static void closeAll(AutoCloseable... resources) {
+        for (AutoCloseable resource : resources) {
+            if (resource == null) {
+                continue;
+            }
+            try {
+                resource.close();
+            } catch (Exception e) {
+                SqlFailures.record(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package api;
+
+import java.time.LocalDate;
+
+/**
+ * One room usage invoice to generate in a bulk call.
+ *
+ * <p>Instances are immutable, so a list of requests can be built once and handed to
+ * another thread, such as the executor behind {@link AsyncMarketingData}, without copying.
+ *
+ * <p><b>Usage Example</b> (month-end invoicing of every meeting room booking):
+ * <pre>
+ * LocalDate first = LocalDate.of(2024, 3, 1);
+ * LocalDate last = first.withDayOfMonth(first.lengthOfMonth());
+ * List&lt;RoomInvoiceRequest&gt; invoices;
+ * try (Stream&lt;RoomUsageDTO&gt; usage = marketing.streamRoomUsageDetails(first, last)) {
+ *     invoices = usage.map(u -&gt; new RoomInvoiceRequest(u.getClientId(), last, 150.0)).toList();
+ * }
+ * int generated = marketing.generateInvoicesForRoomUsage(invoices);
+ * </pre>
+ *
+ * @see MarketingInterface#generateInvoicesForRoomUsage(java.util.List)
+ */
+public final class RoomInvoiceRequest {
+    /** The client being invoiced */
+    private final String clientId;
+
+    /** The date of the invoice */
+    private final LocalDate date;
+
+    /** The total cost of the room usage */
+    private final double cost;
+
+    /**
+     * Creates a room invoice request.
+     * @param clientId the unique identifier of the client
+     * @param date the date of the invoice
+     * @param cost the total cost
+     */
+    public RoomInvoiceRequest(String clientId, LocalDate date, double cost) {
+        this.clientId = clientId;
+        this.date = date;
+        this.cost = cost;
+    }
+
+    /**
+     * Gets the client being invoiced.
+     * @return the client ID
+     */
+    public String getClientId() {
+        return clientId;
+    }
+
+    /**
+     * Gets the date of the invoice.
+     * @return the invoice date
+     */
+    public LocalDate getDate() {
+        return date;
+    }
+
+    /**
+     * Gets the total cost of the room usage.
+     * @return the cost
+     */
+    public double getCost() {
+        return cost;
+    }
+
+    @Override
+    public String toString() {
+        return "RoomInvoiceRequest{clientId='" + clientId + "', date=" + date + ", cost=" + cost + "}";
+    }
+}
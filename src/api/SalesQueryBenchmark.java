@@ -0,0 +1,242 @@
+package api;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Regression benchmark for the low-sales query behind
+ * {@link MarketingData#getEventsNeedingPromotion()} and {@link MarketingData#getLowSalesAlerts()}.
+ *
+ * <p>The benchmark seeds a local database in several steps up to the target size
+ * (10,000 shows and 1,000,000 ticket rows by default) and times the query after each
+ * step. The {@link SalesSummary} triggers are installed first, so seeding also exercises
+ * incremental maintenance. Both queries {@link MarketingData} may run are timed: the
+ * summary query it uses once the summary is installed, and the set-based query over the
+ * raw tables it falls back to otherwise. With a linear plan the time per row stays roughly
+ * constant as the data grows. The old correlated-subquery version is timed alongside for
+ * the smaller steps so the plans can be compared directly, and the plans of both current
+ * queries are printed at the end.
+ *
+ * <p>Because it truncates and refills tables, the benchmark refuses to run unless
+ * {@code lancaster.db.url} points it at a database explicitly and
+ * {@code lancaster.bench.allowDestructive=true} confirms it may be overwritten
+ * (see {@link DestructiveRunGuard}):
+ * <pre>
+ * java -Dlancaster.db.url=jdbc:mysql://localhost:3306/bench?rewriteBatchedStatements=true \
+ *      -Dlancaster.db.user=root -Dlancaster.db.password=secret -Dlancaster.bench.allowDestructive=true \
+ *      -cp out:lib/* api.SalesQueryBenchmark
+ * </pre>
+ *
+ * <p><b>Tuning properties:</b>
+ * <ul>
+ *   <li>{@code lancaster.bench.shows} - number of shows at the last step (default 10000)
+ *   <li>{@code lancaster.bench.tickets} - number of ticket rows at the last step (default 1000000)
+ *   <li>{@code lancaster.bench.steps} - number of seeding steps (default 4)
+ *   <li>{@code lancaster.bench.legacyMaxShows} - largest step at which the old query is
+ *       still timed (default 2500)
+ * </ul>
+ */
+public class SalesQueryBenchmark {
+    /** The query used before the set-based rewrite, kept for comparison. */
+    private static final String LEGACY_LOW_SALES_QUERY = "SELECT s.Name " +
+            "FROM Shows s " +
+            "LEFT JOIN HeldSeats hs ON s.ShowID = hs.ShowID " +
+            "LEFT JOIN TicketSales ts ON ts.InvoiceID IN (SELECT InvoiceID FROM Invoice WHERE Date = s.Date) " +
+            "GROUP BY s.ShowID, s.Name " +
+            "HAVING COALESCE(SUM(ts.Quantity), 0) < ?";
+
+    private static final LocalDate FIRST_SHOW_DATE = LocalDate.of(2025, 1, 1);
+    private static final int SHOWS_PER_DAY = 8;
+    private static final int TICKETS_PER_INVOICE = 4;
+    private static final int BATCH_SIZE = 5_000;
+    private static final int MEASURED_RUNS = 5;
+    private static final int LEGACY_TIMEOUT_SECONDS = 120;
+
+    private SalesQueryBenchmark() {
+    }
+
+    /**
+     * Seeds the database step by step and prints the query timings for each step.
+     *
+     * @param args command line arguments (not used)
+     * @throws Exception if the database cannot be reached or seeded
+     */
+    public static void main(String[] args) throws Exception {
+        if (!DestructiveRunGuard.permits("seed")) {
+            return;
+        }
+        int targetShows = Integer.getInteger("lancaster.bench.shows", 10_000);
+        int targetTickets = Integer.getInteger("lancaster.bench.tickets", 1_000_000);
+        int steps = Integer.getInteger("lancaster.bench.steps", 4);
+        int legacyMaxShows = Integer.getInteger("lancaster.bench.legacyMaxShows", 2_500);
+        Random random = new Random(42);
+
+        try (Connection conn = JDBC.getConnection()) {
+            createSchema(conn);
+
+            System.out.printf("%10s %12s %12s %12s %14s %12s%n", "shows", "ticket rows", "summary (ms)",
+                    "raw (ms)", "raw (ns/row)", "legacy (ms)");
+            int shows = 0;
+            int tickets = 0;
+            for (int step = 1; step <= steps; step++) {
+                int nextShows = (int) ((long) targetShows * step / steps);
+                int nextTickets = (int) ((long) targetTickets * step / steps);
+                seedShows(conn, shows, nextShows);
+                seedTickets(conn, tickets, nextTickets, nextShows, random);
+                shows = nextShows;
+                tickets = nextTickets;
+
+                double summaryMillis = medianMillis(conn, MarketingData.LOW_SALES_QUERY);
+                double rawMillis = medianMillis(conn, MarketingData.LOW_SALES_RAW_QUERY);
+                String legacy = "skipped";
+                if (shows <= legacyMaxShows) {
+                    try {
+                        legacy = String.format("%.1f", medianMillis(conn, LEGACY_LOW_SALES_QUERY));
+                    } catch (SQLTimeoutException e) {
+                        legacy = "> " + LEGACY_TIMEOUT_SECONDS + " s";
+                    }
+                }
+                System.out.printf("%10d %12d %12.1f %12.1f %14.1f %12s%n", shows, tickets, summaryMillis,
+                        rawMillis, rawMillis * 1_000_000 / (shows + tickets), legacy);
+            }
+
+            System.out.println("\nPlan for the summary query:");
+            printPlan(conn, MarketingData.LOW_SALES_QUERY);
+            System.out.println("\nPlan for the set-based query over the raw tables:");
+            printPlan(conn, MarketingData.LOW_SALES_RAW_QUERY);
+        } finally {
+            JDBC.closeConnection();
+        }
+    }
+
+    /**
+     * Creates the tables read by the low-sales query, without foreign keys so they can
+     * be filled independently, and installs the {@link SalesSummary} so it is maintained
+     * while seeding.
+     */
+    private static void createSchema(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE TABLE IF NOT EXISTS Shows (ShowID INT PRIMARY KEY, Date DATE, StartTime TIME, " +
+                    "Name VARCHAR(100), Venue VARCHAR(100), Price DECIMAL(8,2), Discount DECIMAL(4,2), " +
+                    "Description VARCHAR(255), INDEX idx_shows_date (Date))");
+            stmt.execute("CREATE TABLE IF NOT EXISTS Invoice (InvoiceID INT PRIMARY KEY, FilmOrderID INT, Date DATE, " +
+                    "Costs DECIMAL(10,2), Total DECIMAL(10,2), ClientID INT, INDEX idx_invoice_date (Date))");
+            stmt.execute("CREATE TABLE IF NOT EXISTS TicketSales (TicketID INT PRIMARY KEY, InvoiceID INT, " +
+                    "FilmOrderID INT, Quantity INT, Value DECIMAL(8,2), INDEX idx_ticketsales_invoice (InvoiceID))");
+            stmt.execute("CREATE TABLE IF NOT EXISTS HeldSeats (SeatID VARCHAR(10), ScreeningID INT, ShowID INT, " +
+                    "INDEX idx_heldseats_show (ShowID))");
+            stmt.execute("TRUNCATE TABLE Shows");
+            stmt.execute("TRUNCATE TABLE Invoice");
+            stmt.execute("TRUNCATE TABLE TicketSales");
+            stmt.execute("TRUNCATE TABLE HeldSeats");
+        }
+        SalesSummary.install(conn);
+    }
+
+    /** Inserts shows {@code from + 1} to {@code to}, eight per day. */
+    private static void seedShows(Connection conn, int from, int to) throws SQLException {
+        String insert = "INSERT INTO Shows (ShowID, Date, StartTime, Name, Venue, Price, Discount, Description) " +
+                "VALUES (?, ?, '19:30:00', ?, 'Main Hall', 12.50, 0, NULL)";
+        conn.setAutoCommit(false);
+        try (PreparedStatement stmt = conn.prepareStatement(insert)) {
+            for (int showId = from + 1; showId <= to; showId++) {
+                stmt.setInt(1, showId);
+                stmt.setDate(2, java.sql.Date.valueOf(FIRST_SHOW_DATE.plusDays((showId - 1) / SHOWS_PER_DAY)));
+                stmt.setString(3, "Show " + showId);
+                stmt.addBatch();
+                if (showId % BATCH_SIZE == 0) {
+                    stmt.executeBatch();
+                }
+            }
+            stmt.executeBatch();
+            conn.commit();
+        } finally {
+            conn.setAutoCommit(true);
+        }
+    }
+
+    /**
+     * Inserts ticket rows {@code from + 1} to {@code to}, four per invoice, with invoice
+     * dates spread uniformly over the days that have shows.
+     */
+    private static void seedTickets(Connection conn, int from, int to, int shows, Random random) throws SQLException {
+        String insertInvoice = "INSERT INTO Invoice (InvoiceID, FilmOrderID, Date, Costs, Total, ClientID) " +
+                "VALUES (?, ?, ?, 50, 50, 1)";
+        String insertTicket = "INSERT INTO TicketSales (TicketID, InvoiceID, FilmOrderID, Quantity, Value) " +
+                "VALUES (?, ?, ?, ?, 12.50)";
+        int days = Math.max(1, (shows + SHOWS_PER_DAY - 1) / SHOWS_PER_DAY);
+
+        conn.setAutoCommit(false);
+        try (PreparedStatement invoiceStmt = conn.prepareStatement(insertInvoice);
+             PreparedStatement ticketStmt = conn.prepareStatement(insertTicket)) {
+            for (int ticketId = from + 1; ticketId <= to; ticketId++) {
+                int invoiceId = (ticketId - 1) / TICKETS_PER_INVOICE + 1;
+                if ((ticketId - 1) % TICKETS_PER_INVOICE == 0) {
+                    invoiceStmt.setInt(1, invoiceId);
+                    invoiceStmt.setInt(2, invoiceId);
+                    invoiceStmt.setDate(3, java.sql.Date.valueOf(FIRST_SHOW_DATE.plusDays(random.nextInt(days))));
+                    invoiceStmt.addBatch();
+                }
+                ticketStmt.setInt(1, ticketId);
+                ticketStmt.setInt(2, invoiceId);
+                ticketStmt.setInt(3, invoiceId);
+                ticketStmt.setInt(4, 1 + random.nextInt(4));
+                ticketStmt.addBatch();
+                if (ticketId % BATCH_SIZE == 0) {
+                    invoiceStmt.executeBatch();
+                    ticketStmt.executeBatch();
+                }
+            }
+            invoiceStmt.executeBatch();
+            ticketStmt.executeBatch();
+            conn.commit();
+        } finally {
+            conn.setAutoCommit(true);
+        }
+    }
+
+    /** Runs a low-sales query several times and returns the median wall-clock time. */
+    private static double medianMillis(Connection conn, String query) throws SQLException {
+        double[] runs = new double[MEASURED_RUNS];
+        try (PreparedStatement stmt = conn.prepareStatement(query)) {
+            stmt.setQueryTimeout(LEGACY_TIMEOUT_SECONDS);
+            stmt.setInt(1, 10);
+            for (int run = 0; run < MEASURED_RUNS; run++) {
+                long start = System.nanoTime();
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        rs.getString(1);
+                    }
+                }
+                runs[run] = (System.nanoTime() - start) / 1_000_000.0;
+            }
+        }
+        Arrays.sort(runs);
+        return runs[MEASURED_RUNS / 2];
+    }
+
+    /** Prints the output of EXPLAIN for a query. */
+    private static void printPlan(Connection conn, String query) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement("EXPLAIN " + query)) {
+            stmt.setInt(1, 10);
+            try (ResultSet rs = stmt.executeQuery()) {
+                ResultSetMetaData meta = rs.getMetaData();
+                while (rs.next()) {
+                    StringBuilder row = new StringBuilder();
+                    for (int i = 1; i <= meta.getColumnCount(); i++) {
+                        row.append(meta.getColumnLabel(i)).append('=').append(rs.getString(i)).append("  ");
+                    }
+                    System.out.println(row);
+                }
+            }
+        }
+    }
+}
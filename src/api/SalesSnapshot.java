@@ -0,0 +1,543 @@
+package api;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * An in-memory, column-oriented copy of the ticket sales data used to answer marketing
+ * analytics without querying the transactional database.
+ *
+ * <p>The snapshot loads {@code Shows}, {@code FilmOrder}, {@code Invoice} and
+ * {@code TicketSales} into primitive arrays (IDs, epoch-day dates and quantities) and
+ * derives per-day totals from them. Analytics calls are then answered with array lookups
+ * and never contend with box-office writes.
+ *
+ * <p>Each call returns what the matching {@link MarketingData} query returns. In
+ * particular {@link #getTicketSalesTrends} counts ticket rows linked to the day's invoices
+ * through their film order ({@code TicketSales.FilmOrderID = Invoice.FilmOrderID}, for
+ * invoices whose film order exists), as the SQL join does, rather than by invoice.
+ *
+ * <p><b>Refreshing:</b>
+ * <ul>
+ *   <li>Each refresh reloads {@code Shows} (small) and only appends invoices and ticket
+ *       rows whose ID is above the highest ID already loaded
+ *   <li>Every {@code fullReloadEvery} refreshes everything is reloaded, picking up rows
+ *       that were updated or deleted since
+ *   <li>{@link #getStaleness()} reports how old the data being served is
+ * </ul>
+ *
+ * <p><b>Usage Example:</b>
+ * <pre>
+ * SalesSnapshot snapshot = new SalesSnapshot(60);
+ * snapshot.start(Duration.ofMinutes(1));
+ * MarketingInterface marketing = new SnapshotMarketingData(snapshot);
+ * List&lt;String&gt; events = marketing.getEventsNeedingPromotion();
+ * </pre>
+ *
+ * @see SnapshotMarketingData
+ */
+public class SalesSnapshot implements AutoCloseable {
+    /** Marks a missing date in an epoch-day column. */
+    private static final int NO_DATE = Integer.MIN_VALUE;
+
+    /** Marks a missing film order in a FilmOrderID column. */
+    private static final int NO_ID = Integer.MIN_VALUE;
+
+    /** Tickets a show must sell on its date to count as high traffic. */
+    private static final int HIGH_TRAFFIC_THRESHOLD = 20;
+
+    /** Tickets below which a show is reported as needing promotion. */
+    private static final int LOW_SALES_THRESHOLD = 10;
+
+    private final int fullReloadEvery;
+
+    // Append-only columns, written only by refresh()
+    private final IntColumn filmOrderIds = new IntColumn();
+    private final IntColumn invoiceIds = new IntColumn();
+    private final IntColumn invoiceDays = new IntColumn();
+    private final IntColumn invoiceFilmOrderIds = new IntColumn();
+    private final IntColumn ticketIds = new IntColumn();
+    private final IntColumn ticketInvoiceIds = new IntColumn();
+    private final IntColumn ticketFilmOrderIds = new IntColumn();
+    private final IntColumn ticketQuantities = new IntColumn();
+    private int refreshesSinceFullReload;
+
+    /** The data currently served to readers, replaced atomically by each refresh. */
+    private volatile View view;
+
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * Creates an empty snapshot. Call {@link #refresh()} or {@link #start(Duration)}
+     * before querying it.
+     * @param fullReloadEvery how many incremental refreshes to run between full reloads
+     */
+    public SalesSnapshot(int fullReloadEvery) {
+        this.fullReloadEvery = Math.max(1, fullReloadEvery);
+    }
+
+    /**
+     * Loads the snapshot on the calling thread and then refreshes it in the background,
+     * so it can be queried as soon as this returns. If the first load fails the error is
+     * recorded, the snapshot stays unloaded (see {@link #isLoaded()}) and loading is
+     * retried by the background refresh.
+     * @param interval time between refreshes
+     */
+    public synchronized void start(Duration interval) {
+        if (scheduler != null) {
+            return;
+        }
+        try {
+            refresh();
+        } catch (SQLException | ClassNotFoundException e) {
+            SqlFailures.record(e);
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "sales-snapshot-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                refresh();
+            } catch (SQLException | ClassNotFoundException e) {
+                SqlFailures.record(e);
+            }
+        }, interval.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Brings the snapshot up to date with the database.
+     *
+     * @throws SQLException if the data cannot be read; the previous view keeps being served
+     * @throws ClassNotFoundException if JDBC driver not found
+     */
+    public synchronized void refresh() throws SQLException, ClassNotFoundException {
+        boolean fullReload = view == null || ++refreshesSinceFullReload >= fullReloadEvery;
+        if (fullReload) {
+            refreshesSinceFullReload = 0;
+            filmOrderIds.clear();
+            invoiceIds.clear();
+            invoiceDays.clear();
+            invoiceFilmOrderIds.clear();
+            ticketIds.clear();
+            ticketInvoiceIds.clear();
+            ticketFilmOrderIds.clear();
+            ticketQuantities.clear();
+        }
+
+        try (Connection conn = JDBC.getConnection()) {
+            Shows shows = loadShows(conn);
+            loadFilmOrders(conn, filmOrderIds.size == 0 ? Integer.MIN_VALUE : filmOrderIds.last());
+            loadInvoices(conn, invoiceIds.size == 0 ? Integer.MIN_VALUE : invoiceIds.last());
+            loadTickets(conn, ticketIds.size == 0 ? Integer.MIN_VALUE : ticketIds.last());
+            view = buildView(shows);
+        } catch (SQLException | ClassNotFoundException e) {
+            // Columns may be half-appended; start from scratch next time
+            refreshesSinceFullReload = fullReloadEvery;
+            throw e;
+        }
+    }
+
+    /** Reads every show, sorted by ShowID so lookups can use binary search. */
+    private Shows loadShows(Connection conn) throws SQLException {
+        String query = "SELECT ShowID, Date, StartTime, Name FROM Shows ORDER BY ShowID";
+        IntColumn ids = new IntColumn();
+        IntColumn days = new IntColumn();
+        IntColumn startSeconds = new IntColumn();
+        List<String> names = new ArrayList<>();
+
+        try (PreparedStatement stmt = conn.prepareStatement(query)) {
+            ResultSet rs = stmt.executeQuery();
+            while (rs.next()) {
+                ids.add(rs.getInt("ShowID"));
+                java.sql.Date date = rs.getDate("Date");
+                days.add(date == null ? NO_DATE : (int) date.toLocalDate().toEpochDay());
+                java.sql.Time time = rs.getTime("StartTime");
+                startSeconds.add(time == null ? -1 : time.toLocalTime().toSecondOfDay());
+                names.add(rs.getString("Name"));
+            }
+        }
+        return new Shows(ids.toArray(), days.toArray(), startSeconds.toArray(), names.toArray(new String[0]));
+    }
+
+    /** Appends the IDs of film orders above {@code afterId}. */
+    private void loadFilmOrders(Connection conn, int afterId) throws SQLException {
+        String query = "SELECT FilmOrderID FROM FilmOrder WHERE FilmOrderID > ? ORDER BY FilmOrderID";
+        try (PreparedStatement stmt = conn.prepareStatement(query)) {
+            stmt.setInt(1, afterId);
+            ResultSet rs = stmt.executeQuery();
+            while (rs.next()) {
+                filmOrderIds.add(rs.getInt("FilmOrderID"));
+            }
+        }
+    }
+
+    /** Appends invoices with an ID above {@code afterId}. */
+    private void loadInvoices(Connection conn, int afterId) throws SQLException {
+        String query = "SELECT InvoiceID, Date, FilmOrderID FROM Invoice WHERE InvoiceID > ? ORDER BY InvoiceID";
+        try (PreparedStatement stmt = conn.prepareStatement(query)) {
+            stmt.setInt(1, afterId);
+            ResultSet rs = stmt.executeQuery();
+            while (rs.next()) {
+                invoiceIds.add(rs.getInt("InvoiceID"));
+                java.sql.Date date = rs.getDate("Date");
+                invoiceDays.add(date == null ? NO_DATE : (int) date.toLocalDate().toEpochDay());
+                int filmOrderId = rs.getInt("FilmOrderID");
+                invoiceFilmOrderIds.add(rs.wasNull() ? NO_ID : filmOrderId);
+            }
+        }
+    }
+
+    /** Appends ticket rows with an ID above {@code afterId}. */
+    private void loadTickets(Connection conn, int afterId) throws SQLException {
+        String query = "SELECT TicketID, InvoiceID, FilmOrderID, Quantity FROM TicketSales " +
+                "WHERE TicketID > ? ORDER BY TicketID";
+        try (PreparedStatement stmt = conn.prepareStatement(query)) {
+            stmt.setInt(1, afterId);
+            ResultSet rs = stmt.executeQuery();
+            while (rs.next()) {
+                ticketIds.add(rs.getInt("TicketID"));
+                ticketInvoiceIds.add(rs.getInt("InvoiceID"));
+                int filmOrderId = rs.getInt("FilmOrderID");
+                ticketFilmOrderIds.add(rs.wasNull() ? NO_ID : filmOrderId);
+                ticketQuantities.add(rs.getInt("Quantity"));
+            }
+        }
+    }
+
+    /** Derives the per-day totals from the columns and packages them with the shows. */
+    private View buildView(Shows shows) {
+        int minDay = Integer.MAX_VALUE;
+        int maxDay = Integer.MIN_VALUE;
+        for (int day : shows.days) {
+            if (day != NO_DATE) {
+                minDay = Math.min(minDay, day);
+                maxDay = Math.max(maxDay, day);
+            }
+        }
+        for (int i = 0; i < invoiceDays.size; i++) {
+            int day = invoiceDays.values[i];
+            if (day != NO_DATE) {
+                minDay = Math.min(minDay, day);
+                maxDay = Math.max(maxDay, day);
+            }
+        }
+        if (minDay > maxDay) {
+            minDay = 0;
+            maxDay = 0;
+        }
+        int dayCount = maxDay - minDay + 1;
+
+        int[] dayQuantity = new int[dayCount];
+        int[] dayInvoices = new int[dayCount];
+        for (int i = 0; i < invoiceDays.size; i++) {
+            int day = invoiceDays.values[i];
+            if (day != NO_DATE) {
+                dayInvoices[day - minDay]++;
+            }
+        }
+        for (int t = 0; t < ticketIds.size; t++) {
+            int invoice = Arrays.binarySearch(invoiceIds.values, 0, invoiceIds.size, ticketInvoiceIds.values[t]);
+            if (invoice >= 0 && invoiceDays.values[invoice] != NO_DATE) {
+                int slot = invoiceDays.values[invoice] - minDay;
+                dayQuantity[slot] += ticketQuantities.values[t];
+            }
+        }
+
+        // dayOrderTicketRows[d] = rows of Invoice JOIN FilmOrder JOIN TicketSales ON FilmOrderID dated d
+        int[] dayOrderTicketRows = new int[dayCount];
+        int[] ticketOrders = Arrays.copyOf(ticketFilmOrderIds.values, ticketFilmOrderIds.size);
+        Arrays.sort(ticketOrders);
+        for (int i = 0; i < invoiceIds.size; i++) {
+            int day = invoiceDays.values[i];
+            int order = invoiceFilmOrderIds.values[i];
+            if (day != NO_DATE && order != NO_ID
+                    && Arrays.binarySearch(filmOrderIds.values, 0, filmOrderIds.size, order) >= 0) {
+                dayOrderTicketRows[day - minDay] += countOf(ticketOrders, order);
+            }
+        }
+
+        // quantityFrom[d] = tickets on day d or later; invoicesBefore[d] = invoices before day d
+        long[] quantityFrom = new long[dayCount + 1];
+        for (int d = dayCount - 1; d >= 0; d--) {
+            quantityFrom[d] = quantityFrom[d + 1] + dayQuantity[d];
+        }
+        int[] invoicesBefore = new int[dayCount + 1];
+        for (int d = 0; d < dayCount; d++) {
+            invoicesBefore[d + 1] = invoicesBefore[d] + dayInvoices[d];
+        }
+
+        return new View(shows, minDay, dayQuantity, dayOrderTicketRows, quantityFrom, invoicesBefore,
+                invoiceIds.size, ticketIds.size, System.currentTimeMillis());
+    }
+
+    /** Counts the occurrences of {@code value} in a sorted array. */
+    private static int countOf(int[] sorted, int value) {
+        int from = Arrays.binarySearch(sorted, value);
+        if (from < 0) {
+            return 0;
+        }
+        int to = from;
+        while (from > 0 && sorted[from - 1] == value) {
+            from--;
+        }
+        while (to + 1 < sorted.length && sorted[to + 1] == value) {
+            to++;
+        }
+        return to - from + 1;
+    }
+
+    /**
+     * Checks whether the snapshot has been loaded and can be queried.
+     * @return true once a refresh has succeeded
+     */
+    public boolean isLoaded() {
+        return view != null;
+    }
+
+    /**
+     * Gets how long ago the data being served was loaded.
+     * @return time since the last successful refresh, or null if never loaded
+     */
+    public Duration getStaleness() {
+        View current = view;
+        return current == null ? null : Duration.ofMillis(System.currentTimeMillis() - current.loadedAt);
+    }
+
+    /**
+     * Gets the number of rows held in memory per table.
+     * @return Map with keys "shows", "invoices" and "ticket_sales"
+     */
+    public Map<String, Integer> getRowCounts() {
+        View current = requireView();
+        Map<String, Integer> counts = new HashMap<>();
+        counts.put("shows", current.shows.ids.length);
+        counts.put("invoices", current.invoiceCount);
+        counts.put("ticket_sales", current.ticketCount);
+        return counts;
+    }
+
+    /**
+     * Identifies high traffic dates for a specific show.
+     * @param showId the unique identifier of the show
+     * @return List of dates with attendance exceeding 20 tickets
+     * @see MarketingInterface#getHighTrafficDates(String)
+     */
+    public List<LocalDate> getHighTrafficDates(String showId) {
+        View current = requireView();
+        List<LocalDate> dates = new ArrayList<>();
+        int show = current.findShow(showId);
+        if (show >= 0) {
+            int day = current.shows.days[show];
+            if (current.quantityOn(day) > HIGH_TRAFFIC_THRESHOLD) {
+                dates.add(LocalDate.ofEpochDay(day));
+            }
+        }
+        return dates;
+    }
+
+    /**
+     * Identifies high traffic dates for a show within a specific timeframe.
+     * @param showId the unique identifier of the show
+     * @param timeframe the number of days to look back (defaults to 30 if invalid)
+     * @return List of dates with attendance exceeding 20 tickets
+     * @see MarketingInterface#getHighTrafficDates(String, String)
+     */
+    public List<LocalDate> getHighTrafficDates(String showId, String timeframe) {
+        View current = requireView();
+        List<LocalDate> dates = new ArrayList<>();
+        int days = timeframe.matches("\\d+") ? Integer.parseInt(timeframe) : 30;
+        int show = current.findShow(showId);
+        if (show >= 0 && current.shows.days[show] != NO_DATE) {
+            int day = current.shows.days[show];
+            if (current.quantityFrom(day - days) > HIGH_TRAFFIC_THRESHOLD) {
+                dates.add(LocalDate.ofEpochDay(day));
+            }
+        }
+        return dates;
+    }
+
+    /**
+     * Analyzes pre-sale trends for a specific show.
+     * @param showId the unique identifier of the show
+     * @param ticketType the type of ticket being analyzed
+     * @return Map containing pre-sale count with key "pre_sale_count"
+     * @see MarketingInterface#getPreSaleTrends(String, String)
+     */
+    public Map<String, Integer> getPreSaleTrends(String showId, String ticketType) {
+        View current = requireView();
+        Map<String, Integer> trends = new HashMap<>();
+        int show = current.findShow(showId);
+        trends.put("pre_sale_count", show >= 0 ? current.invoicesBefore(current.shows.days[show]) : 0);
+        return trends;
+    }
+
+    /**
+     * Gets ticket sales trends for a specific event as JSON data.
+     * @param eventName the name of the event
+     * @param eventDate the date of the event
+     * @param eventTime the start time of the event
+     * @return JSON array string containing sales data by date
+     * @see MarketingInterface#getTicketSalesTrends(String, LocalDate, String)
+     */
+    public String getTicketSalesTrends(String eventName, LocalDate eventDate, String eventTime) {
+        View current = requireView();
+        JSONArray jsonArray = new JSONArray();
+        int startSecond;
+        try {
+            startSecond = LocalTime.parse(eventTime).toSecondOfDay();
+        } catch (DateTimeParseException e) {
+            return jsonArray.toString();
+        }
+        int day = (int) eventDate.toEpochDay();
+        Shows shows = current.shows;
+        // the SQL joins every matching show to the day's rows and groups them into one date
+        int matchingShows = 0;
+        for (int i = 0; i < shows.ids.length; i++) {
+            if (shows.days[i] == day && shows.startSeconds[i] == startSecond && eventName.equals(shows.names[i])) {
+                matchingShows++;
+            }
+        }
+        long sales = (long) matchingShows * current.orderTicketRowsOn(day);
+        if (sales > 0) {
+            JSONObject obj = new JSONObject();
+            obj.put("date", eventDate.toString());
+            obj.put("sales", sales);
+            jsonArray.put(obj);
+        }
+        return jsonArray.toString();
+    }
+
+    /**
+     * Identifies events needing promotion based on low ticket sales.
+     * @return List of event names with fewer than 10 tickets sold
+     * @see MarketingInterface#getEventsNeedingPromotion()
+     */
+    public List<String> getEventsNeedingPromotion() {
+        View current = requireView();
+        List<String> events = new ArrayList<>();
+        Shows shows = current.shows;
+        for (int i = 0; i < shows.ids.length; i++) {
+            if (current.quantityOn(shows.days[i]) < LOW_SALES_THRESHOLD) {
+                events.add(shows.names[i]);
+            }
+        }
+        return events;
+    }
+
+    /** Gets the current view, throwing IllegalStateException if nothing is loaded yet. */
+    private View requireView() {
+        View current = view;
+        if (current == null) {
+            throw new IllegalStateException("Sales snapshot has not been loaded yet");
+        }
+        return current;
+    }
+
+    /**
+     * Stops background refreshing. The last loaded data remains queryable.
+     */
+    @Override
+    public synchronized void close() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    /**
+     * Show columns, sorted by ShowID.
+     */
+    private static final class Shows {
+        private final int[] ids;
+        private final int[] days;
+        private final int[] startSeconds;
+        private final String[] names;
+
+        private Shows(int[] ids, int[] days, int[] startSeconds, String[] names) {
+            this.ids = ids;
+            this.days = days;
+            this.startSeconds = startSeconds;
+            this.names = names;
+        }
+    }
+
+    /**
+     * An immutable view of the snapshot, published to readers as a whole.
+     */
+    private static final class View {
+        private final Shows shows;
+        private final int firstDay;
+        private final int[] dayQuantity;
+        private final int[] dayOrderTicketRows;
+        private final long[] quantityFrom;
+        private final int[] invoicesBefore;
+        private final int invoiceCount;
+        private final int ticketCount;
+        private final long loadedAt;
+
+        private View(Shows shows, int firstDay, int[] dayQuantity, int[] dayOrderTicketRows, long[] quantityFrom,
+                     int[] invoicesBefore, int invoiceCount, int ticketCount, long loadedAt) {
+            this.shows = shows;
+            this.firstDay = firstDay;
+            this.dayQuantity = dayQuantity;
+            this.dayOrderTicketRows = dayOrderTicketRows;
+            this.quantityFrom = quantityFrom;
+            this.invoicesBefore = invoicesBefore;
+            this.invoiceCount = invoiceCount;
+            this.ticketCount = ticketCount;
+            this.loadedAt = loadedAt;
+        }
+
+        /** Returns the index of a show, or -1 if the ID is unknown or not numeric. */
+        private int findShow(String showId) {
+            try {
+                int index = Arrays.binarySearch(shows.ids, Integer.parseInt(showId.trim()));
+                return index >= 0 ? index : -1;
+            } catch (NumberFormatException e) {
+                return -1;
+            }
+        }
+
+        private int quantityOn(int day) {
+            int slot = day == NO_DATE ? -1 : day - firstDay;
+            return slot >= 0 && slot < dayQuantity.length ? dayQuantity[slot] : 0;
+        }
+
+        private int orderTicketRowsOn(int day) {
+            int slot = day == NO_DATE ? -1 : day - firstDay;
+            return slot >= 0 && slot < dayOrderTicketRows.length ? dayOrderTicketRows[slot] : 0;
+        }
+
+        private long quantityFrom(int day) {
+            int slot = Math.max(0, day - firstDay);
+            return slot < dayQuantity.length ? quantityFrom[slot] : 0;
+        }
+
+        private int invoicesBefore(int day) {
+            if (day == NO_DATE) {
+                return 0;
+            }
+            int slot = Math.min(Math.max(0, day - firstDay), dayQuantity.length);
+            return invoicesBefore[slot];
+        }
+    }
+}
@@ -0,0 +1,250 @@
+package api;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Maintains {@code DailySalesSummary}, a materialized per-day rollup of ticket sales
+ * that the marketing analytics read instead of scanning {@code TicketSales}.
+ *
+ * <p>The marketing queries attribute ticket sales to a show through the invoice date
+ * ({@code Invoice.Date = Shows.Date}), so one row per sale date holds everything they need:
+ * <ul>
+ *   <li>{@code SaleDate} - the invoice date
+ *   <li>{@code TicketQuantity} - the sum of {@code TicketSales.Quantity} invoiced that day
+ *   <li>{@code TicketRows} - the number of {@code TicketSales} rows invoiced that day
+ * </ul>
+ *
+ * <p>The summary is kept up to date incrementally by database triggers, so writes from
+ * the box office and the UI are captured no matter which application makes them:
+ * <ul>
+ *   <li>inserting, updating or deleting a {@code TicketSales} row adjusts its invoice date
+ *   <li>inserting an invoice picks up tickets recorded against it beforehand
+ *   <li>moving an invoice to another date or deleting it moves or removes its tickets
+ * </ul>
+ * Invoices without a date are left out, as they are by {@link #rebuild(Connection)}.
+ *
+ * <p><b>Write contention:</b> every ticket sale updates the single summary row for its
+ * invoice date inside the selling transaction, and holds that row's lock until the
+ * transaction commits. Concurrent sales for the same day therefore queue behind each
+ * other for the rest of their transactions, which adds latency to the box office on busy
+ * days. Keep ticket transactions short while the summary is installed, and uninstall it
+ * if that queueing costs more than the analytics reads it saves.
+ *
+ * <p>Installing the summary is optional. {@link MarketingData} checks with
+ * {@link #isInstalled(Connection)} and, on a database where the table or its triggers are
+ * missing, answers from the raw {@code Invoice} and {@code TicketSales} tables instead.
+ *
+ * <p><b>Usage:</b>
+ * <pre>
+ * java -cp out:lib/* api.SalesSummary install   # create the table and triggers, then rebuild;
+ *                                               # same-day ticket writes then queue on one row
+ * java -cp out:lib/* api.SalesSummary rebuild   # recompute the table from TicketSales
+ * </pre>
+ *
+ * @see MarketingData#getHighTrafficDates(String)
+ * @see MarketingData#getEventsNeedingPromotion()
+ */
+public class SalesSummary {
+    /** The name of the summary table. */
+    public static final String TABLE = "DailySalesSummary";
+
+    private static final String CREATE_TABLE = "CREATE TABLE IF NOT EXISTS " + TABLE + " (" +
+            "SaleDate DATE PRIMARY KEY, " +
+            "TicketQuantity INT NOT NULL DEFAULT 0, " +
+            "TicketRows INT NOT NULL DEFAULT 0)";
+
+    /** Adds {@code qty} tickets over {@code rows} rows to the invoice date of {@code invoice}. */
+    private static String addSql(String invoice, String qty, String rows) {
+        return "INSERT INTO " + TABLE + " (SaleDate, TicketQuantity, TicketRows) " +
+                "SELECT i.Date, " + qty + ", " + rows + " FROM Invoice i " +
+                "WHERE i.InvoiceID = " + invoice + " AND i.Date IS NOT NULL " +
+                "ON DUPLICATE KEY UPDATE TicketQuantity = TicketQuantity + VALUES(TicketQuantity), " +
+                "TicketRows = TicketRows + VALUES(TicketRows)";
+    }
+
+    /** Removes {@code qty} tickets over {@code rows} rows from {@code date}. */
+    private static String subtractSql(String date, String qty, String rows) {
+        return "UPDATE " + TABLE + " SET TicketQuantity = TicketQuantity - " + qty + ", " +
+                "TicketRows = TicketRows - " + rows + " WHERE SaleDate = " + date;
+    }
+
+    private static final String INVOICE_TICKETS =
+            "(SELECT COALESCE(SUM(Quantity), 0) FROM TicketSales WHERE InvoiceID = %s)";
+    private static final String INVOICE_ROWS =
+            "(SELECT COUNT(*) FROM TicketSales WHERE InvoiceID = %s)";
+
+    private static final String[][] TRIGGERS = {
+            { "trg_sales_summary_ticket_insert",
+                    "AFTER INSERT ON TicketSales FOR EACH ROW " +
+                            addSql("NEW.InvoiceID", "NEW.Quantity", "1") },
+            { "trg_sales_summary_ticket_delete",
+                    "AFTER DELETE ON TicketSales FOR EACH ROW " +
+                            subtractSql("(SELECT Date FROM Invoice WHERE InvoiceID = OLD.InvoiceID)", "OLD.Quantity", "1") },
+            { "trg_sales_summary_ticket_update",
+                    "AFTER UPDATE ON TicketSales FOR EACH ROW BEGIN " +
+                            subtractSql("(SELECT Date FROM Invoice WHERE InvoiceID = OLD.InvoiceID)", "OLD.Quantity", "1") + "; " +
+                            addSql("NEW.InvoiceID", "NEW.Quantity", "1") + "; END" },
+            { "trg_sales_summary_invoice_insert",
+                    "AFTER INSERT ON Invoice FOR EACH ROW " +
+                            "IF " + String.format(INVOICE_ROWS, "NEW.InvoiceID") + " > 0 THEN " +
+                            addSql("NEW.InvoiceID", String.format(INVOICE_TICKETS, "NEW.InvoiceID"),
+                                    String.format(INVOICE_ROWS, "NEW.InvoiceID")) + "; END IF" },
+            { "trg_sales_summary_invoice_update",
+                    "AFTER UPDATE ON Invoice FOR EACH ROW " +
+                            "IF NOT (OLD.Date <=> NEW.Date) OR OLD.InvoiceID <> NEW.InvoiceID THEN " +
+                            subtractSql("OLD.Date", String.format(INVOICE_TICKETS, "OLD.InvoiceID"),
+                                    String.format(INVOICE_ROWS, "OLD.InvoiceID")) + "; " +
+                            addSql("NEW.InvoiceID", String.format(INVOICE_TICKETS, "NEW.InvoiceID"),
+                                    String.format(INVOICE_ROWS, "NEW.InvoiceID")) + "; END IF" },
+            { "trg_sales_summary_invoice_delete",
+                    "AFTER DELETE ON Invoice FOR EACH ROW " +
+                            subtractSql("OLD.Date", String.format(INVOICE_TICKETS, "OLD.InvoiceID"),
+                                    String.format(INVOICE_ROWS, "OLD.InvoiceID")) },
+    };
+
+    /** Counts the summary table and its triggers in the current schema. */
+    private static final String INSTALLED_QUERY = "SELECT " +
+            "(SELECT COUNT(*) FROM information_schema.TABLES WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ?), " +
+            "(SELECT COUNT(*) FROM information_schema.TRIGGERS WHERE TRIGGER_SCHEMA = DATABASE() " +
+            "AND TRIGGER_NAME LIKE 'trg\\_sales\\_summary\\_%')";
+
+    /** How long a "not installed" answer is reused before the database is asked again. */
+    private static final long RECHECK_NANOS = java.util.concurrent.TimeUnit.SECONDS.toNanos(60);
+
+    /** Whether the summary was found installed; once true it stays true until {@link #uninstall}. */
+    private static volatile boolean installed;
+
+    /** When the database was last asked, in {@link System#nanoTime()} units. */
+    private static volatile long checkedAt;
+
+    /** Whether the database has been asked at all. */
+    private static volatile boolean checked;
+
+    private SalesSummary() {
+    }
+
+    /**
+     * Checks whether the summary table and all of its triggers exist, so that it can be
+     * read in place of the raw sales tables.
+     *
+     * <p>A positive answer is remembered; a negative one is rechecked at most once a
+     * minute, so installing the summary on a running system is picked up without a
+     * restart and an uninstalled database costs one extra query a minute.
+     *
+     * @param conn the connection to check on
+     * @return true if the summary is installed
+     * @throws SQLException if the schema cannot be queried
+     */
+    public static boolean isInstalled(Connection conn) throws SQLException {
+        if (installed || checked && System.nanoTime() - checkedAt < RECHECK_NANOS) {
+            return installed;
+        }
+        try (PreparedStatement stmt = conn.prepareStatement(INSTALLED_QUERY)) {
+            stmt.setString(1, TABLE);
+            try (ResultSet rs = stmt.executeQuery()) {
+                installed = rs.next() && rs.getInt(1) > 0 && rs.getInt(2) >= TRIGGERS.length;
+            }
+        }
+        checkedAt = System.nanoTime();
+        checked = true;
+        return installed;
+    }
+
+    /**
+     * Creates the summary table and its maintenance triggers, replacing any existing
+     * triggers, and then rebuilds the table from the raw sales data.
+     *
+     * <p>From then on, ticket writes for the same date serialize on that date's summary
+     * row until they commit; see the class documentation.
+     *
+     * @param conn the connection to install on
+     * @throws SQLException if the table or triggers cannot be created
+     */
+    public static void install(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute(CREATE_TABLE);
+            for (String[] trigger : TRIGGERS) {
+                stmt.execute("DROP TRIGGER IF EXISTS " + trigger[0]);
+                stmt.execute("CREATE TRIGGER " + trigger[0] + " " + trigger[1]);
+            }
+        }
+        rebuild(conn);
+        installed = true;
+    }
+
+    /**
+     * Removes the maintenance triggers, leaving the summary table in place. Use this
+     * before bulk loads, then {@link #install(Connection)} again afterwards.
+     *
+     * @param conn the connection to uninstall from
+     * @throws SQLException if the triggers cannot be dropped
+     */
+    public static void uninstall(Connection conn) throws SQLException {
+        installed = false;
+        checked = false;
+        try (Statement stmt = conn.createStatement()) {
+            for (String[] trigger : TRIGGERS) {
+                stmt.execute("DROP TRIGGER IF EXISTS " + trigger[0]);
+            }
+        }
+    }
+
+    /**
+     * Recomputes the summary table from {@code TicketSales} and {@code Invoice} in a
+     * single transaction. Use this to recover after the triggers were disabled or the
+     * table was edited by hand.
+     *
+     * @param conn the connection to rebuild on
+     * @throws SQLException if the rebuild fails; the previous contents are kept
+     */
+    public static void rebuild(Connection conn) throws SQLException {
+        boolean autoCommit = conn.getAutoCommit();
+        conn.setAutoCommit(false);
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("DELETE FROM " + TABLE);
+            stmt.execute("INSERT INTO " + TABLE + " (SaleDate, TicketQuantity, TicketRows) " +
+                    "SELECT i.Date, SUM(ts.Quantity), COUNT(*) " +
+                    "FROM TicketSales ts " +
+                    "JOIN Invoice i ON ts.InvoiceID = i.InvoiceID " +
+                    "WHERE i.Date IS NOT NULL " +
+                    "GROUP BY i.Date");
+            conn.commit();
+        } catch (SQLException e) {
+            conn.rollback();
+            throw e;
+        } finally {
+            conn.setAutoCommit(autoCommit);
+        }
+    }
+
+    /**
+     * Installs or rebuilds the summary from the command line.
+     *
+     * @param args {@code install} or {@code rebuild}
+     */
+    public static void main(String[] args) {
+        String command = args.length > 0 ? args[0] : "rebuild";
+        try (Connection conn = JDBC.getConnection()) {
+            if (command.equals("install")) {
+                install(conn);
+                System.out.println("Note: ticket sales for the same date now queue on one " + TABLE
+                        + " row until they commit.");
+            } else {
+                rebuild(conn);
+            }
+            System.out.println(TABLE + " " + command + " complete.");
+        } catch (Exception e) {
+            e.printStackTrace();
+        } finally {
+            try {
+                JDBC.closeConnection();
+            } catch (SQLException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+}
@@ -0,0 +1,324 @@
+package api;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Season-wide ticket sales rollups computed in parallel.
+ *
+ * <p>Instead of one SQL call per show, the aggregator reads the season's per-day totals in
+ * a single query. When the {@link SalesSummary} is installed they are read straight from
+ * its {@code DailySalesSummary} table, one row per day. Otherwise every ticket row
+ * invoiced during the season is read, holding only each row's sale day and quantity in
+ * primitive arrays, and the rows are split into ranges and summed per day by a
+ * fork-join task, so large seasons use every core. Each show is finally matched to the
+ * totals for its date, as {@link MarketingData} does.
+ *
+ * <p>Sales trends count tickets the way {@link MarketingInterface#getTicketSalesTrends}
+ * does, through the film order of the day's invoices rather than the invoice itself, so
+ * they are read with one grouped query over the season's invoices.
+ *
+ * <p>Available reports:
+ * <ul>
+ *   <li>{@link #getSeasonSalesTrends(LocalDate, LocalDate)} - sales for every show in the
+ *       season, replacing a loop over {@link MarketingInterface#getTicketSalesTrends}
+ *   <li>{@link #getSeasonHighTrafficDates(LocalDate, LocalDate)} - high traffic dates for
+ *       every show in the season
+ * </ul>
+ *
+ * <p><b>Usage Example:</b>
+ * <pre>
+ * SeasonAggregator aggregator = new SeasonAggregator();
+ * String trends = aggregator.getSeasonSalesTrends(LocalDate.of(2025, 9, 1), LocalDate.of(2025, 12, 31));
+ * </pre>
+ */
+public class SeasonAggregator {
+    /** Tickets a show must sell on its date to count as high traffic. */
+    private static final int HIGH_TRAFFIC_THRESHOLD = 20;
+
+    /** Ticket rows summed by a single task before it stops splitting. */
+    private static final int SPLIT_THRESHOLD = 1 << 16;
+
+    private final ForkJoinPool pool;
+
+    /**
+     * Creates an aggregator running on the common fork-join pool.
+     */
+    public SeasonAggregator() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Creates an aggregator running on the given fork-join pool.
+     * @param pool the pool to run aggregation tasks on
+     */
+    public SeasonAggregator(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Gets ticket sales for every show in a season as JSON data.
+     *
+     * <p>Each element holds {@code show_id}, {@code name}, {@code date}, {@code time},
+     * {@code sales} and {@code tickets} (tickets invoiced on the show date). {@code sales}
+     * is the array {@link MarketingInterface#getTicketSalesTrends} returns for the show's
+     * name, date and time, so it is empty when that call finds no sales. Shows are
+     * ordered by date and start time.
+     *
+     * @param seasonStart the first day of the season
+     * @param seasonEnd the last day of the season
+     * @return JSON array string with one element per show
+     */
+    public String getSeasonSalesTrends(LocalDate seasonStart, LocalDate seasonEnd) {
+        JSONArray jsonArray = new JSONArray();
+        try (Connection conn = JDBC.getConnection()) {
+            DailyTotals totals = aggregate(conn, seasonStart, seasonEnd);
+            Map<LocalDate, Long> orderRows = countFilmOrderRows(conn, seasonStart, seasonEnd);
+            List<SeasonShow> shows = loadShows(conn, seasonStart, seasonEnd);
+            // getTicketSalesTrends joins every show sharing the name, date and time
+            Map<String, Integer> sameShows = new HashMap<>();
+            for (SeasonShow show : shows) {
+                sameShows.merge(show.key(), 1, Integer::sum);
+            }
+            for (SeasonShow show : shows) {
+                JSONArray sales = new JSONArray();
+                long count = sameShows.get(show.key()) * orderRows.getOrDefault(show.date, 0L);
+                if (count > 0) {
+                    JSONObject sale = new JSONObject();
+                    sale.put("date", show.date.toString());
+                    sale.put("sales", count);
+                    sales.put(sale);
+                }
+                JSONObject obj = new JSONObject();
+                obj.put("show_id", show.showId);
+                obj.put("name", show.name);
+                obj.put("date", show.date.toString());
+                obj.put("time", show.time);
+                obj.put("sales", sales);
+                obj.put("tickets", totals.quantityOn(show.date));
+                jsonArray.put(obj);
+            }
+        } catch (SQLException | ClassNotFoundException e) {
+            SqlFailures.record(e);
+        }
+        return jsonArray.toString();
+    }
+
+    /**
+     * Identifies high traffic dates for every show in a season.
+     * @param seasonStart the first day of the season
+     * @param seasonEnd the last day of the season
+     * @return Map of show ID to the dates on which it sold more than 20 tickets; shows
+     *         without any are omitted
+     * @see MarketingInterface#getHighTrafficDates(String)
+     */
+    public Map<String, List<LocalDate>> getSeasonHighTrafficDates(LocalDate seasonStart, LocalDate seasonEnd) {
+        Map<String, List<LocalDate>> dates = new LinkedHashMap<>();
+        try (Connection conn = JDBC.getConnection()) {
+            DailyTotals totals = aggregate(conn, seasonStart, seasonEnd);
+            for (SeasonShow show : loadShows(conn, seasonStart, seasonEnd)) {
+                if (totals.quantityOn(show.date) > HIGH_TRAFFIC_THRESHOLD) {
+                    dates.computeIfAbsent(show.showId, id -> new ArrayList<>()).add(show.date);
+                }
+            }
+        } catch (SQLException | ClassNotFoundException e) {
+            SqlFailures.record(e);
+        }
+        return dates;
+    }
+
+    /** Gets the season's per-day totals, from the summary table if it is installed. */
+    private DailyTotals aggregate(Connection conn, LocalDate seasonStart, LocalDate seasonEnd) throws SQLException {
+        int firstDay = (int) seasonStart.toEpochDay();
+        int dayCount = Math.max(0, (int) seasonEnd.toEpochDay() - firstDay + 1);
+        long[] sums = SalesSummary.isInstalled(conn)
+                ? readSummary(conn, seasonStart, seasonEnd, firstDay, dayCount)
+                : sumTicketRows(conn, seasonStart, seasonEnd, firstDay, dayCount);
+        return new DailyTotals(firstDay, sums, dayCount);
+    }
+
+    /** Reads the season's rows of the summary table, already totalled per day. */
+    private static long[] readSummary(Connection conn, LocalDate seasonStart, LocalDate seasonEnd,
+                                      int firstDay, int dayCount) throws SQLException {
+        String query = "SELECT SaleDate, TicketQuantity, TicketRows FROM " + SalesSummary.TABLE + " " +
+                "WHERE SaleDate BETWEEN ? AND ?";
+        long[] sums = new long[dayCount * 2];
+        try (PreparedStatement stmt = conn.prepareStatement(query)) {
+            stmt.setDate(1, java.sql.Date.valueOf(seasonStart));
+            stmt.setDate(2, java.sql.Date.valueOf(seasonEnd));
+            ResultSet rs = stmt.executeQuery();
+            while (rs.next()) {
+                int day = (int) rs.getDate(1).toLocalDate().toEpochDay() - firstDay;
+                sums[2 * day] = rs.getLong(2);
+                sums[2 * day + 1] = rs.getLong(3);
+            }
+        }
+        return sums;
+    }
+
+    /** Reads the season's ticket rows once and sums them per day in parallel. */
+    private long[] sumTicketRows(Connection conn, LocalDate seasonStart, LocalDate seasonEnd,
+                                 int firstDay, int dayCount) throws SQLException {
+        String query = "SELECT i.Date, ts.Quantity " +
+                "FROM TicketSales ts " +
+                "JOIN Invoice i ON ts.InvoiceID = i.InvoiceID " +
+                "WHERE i.Date BETWEEN ? AND ?";
+        IntColumn days = new IntColumn();
+        IntColumn quantities = new IntColumn();
+
+        try (PreparedStatement stmt = conn.prepareStatement(query)) {
+            stmt.setDate(1, java.sql.Date.valueOf(seasonStart));
+            stmt.setDate(2, java.sql.Date.valueOf(seasonEnd));
+            ResultSet rs = stmt.executeQuery();
+            while (rs.next()) {
+                days.add((int) rs.getDate(1).toLocalDate().toEpochDay() - firstDay);
+                quantities.add(rs.getInt(2));
+            }
+        }
+
+        return pool.invoke(new SumByDay(days.values, quantities.values, 0, days.size, dayCount));
+    }
+
+    /**
+     * Counts, per invoice date in the season, the ticket rows sharing a film order with
+     * that day's invoices, as {@link MarketingData#getTicketSalesTrends} joins them.
+     */
+    private static Map<LocalDate, Long> countFilmOrderRows(Connection conn, LocalDate seasonStart,
+                                                           LocalDate seasonEnd) throws SQLException {
+        String query = "SELECT i.Date, COUNT(*) " +
+                "FROM Invoice i " +
+                "JOIN FilmOrder fo ON i.FilmOrderID = fo.FilmOrderID " +
+                "JOIN TicketSales ts ON i.FilmOrderID = ts.FilmOrderID " +
+                "WHERE i.Date BETWEEN ? AND ? " +
+                "GROUP BY i.Date";
+        Map<LocalDate, Long> rows = new HashMap<>();
+        try (PreparedStatement stmt = conn.prepareStatement(query)) {
+            stmt.setDate(1, java.sql.Date.valueOf(seasonStart));
+            stmt.setDate(2, java.sql.Date.valueOf(seasonEnd));
+            ResultSet rs = stmt.executeQuery();
+            while (rs.next()) {
+                rows.put(rs.getDate(1).toLocalDate(), rs.getLong(2));
+            }
+        }
+        return rows;
+    }
+
+    /** Reads the shows scheduled in the season, ordered by date and start time. */
+    private List<SeasonShow> loadShows(Connection conn, LocalDate seasonStart, LocalDate seasonEnd) throws SQLException {
+        String query = "SELECT ShowID, Name, Date, StartTime FROM Shows " +
+                "WHERE Date BETWEEN ? AND ? ORDER BY Date, StartTime, ShowID";
+        List<SeasonShow> shows = new ArrayList<>();
+        try (PreparedStatement stmt = conn.prepareStatement(query)) {
+            stmt.setDate(1, java.sql.Date.valueOf(seasonStart));
+            stmt.setDate(2, java.sql.Date.valueOf(seasonEnd));
+            ResultSet rs = stmt.executeQuery();
+            while (rs.next()) {
+                shows.add(new SeasonShow(rs.getString("ShowID"), rs.getString("Name"),
+                        rs.getDate("Date").toLocalDate(), rs.getString("StartTime")));
+            }
+        }
+        return shows;
+    }
+
+    /**
+     * Sums ticket quantities and row counts per day over a range of ticket rows.
+     *
+     * <p>The result holds the quantity for day {@code d} at {@code 2 * d} and the row
+     * count at {@code 2 * d + 1}, so each task allocates a single small array however
+     * many rows it covers.
+     */
+    private static final class SumByDay extends RecursiveTask<long[]> {
+        private static final long serialVersionUID = 1L;
+
+        private final int[] days;
+        private final int[] quantities;
+        private final int from;
+        private final int to;
+        private final int dayCount;
+
+        private SumByDay(int[] days, int[] quantities, int from, int to, int dayCount) {
+            this.days = days;
+            this.quantities = quantities;
+            this.from = from;
+            this.to = to;
+            this.dayCount = dayCount;
+        }
+
+        @Override
+        protected long[] compute() {
+            if (to - from <= SPLIT_THRESHOLD) {
+                long[] sums = new long[dayCount * 2];
+                for (int i = from; i < to; i++) {
+                    sums[2 * days[i]] += quantities[i];
+                    sums[2 * days[i] + 1]++;
+                }
+                return sums;
+            }
+            int middle = (from + to) >>> 1;
+            SumByDay left = new SumByDay(days, quantities, from, middle, dayCount);
+            left.fork();
+            long[] sums = new SumByDay(days, quantities, middle, to, dayCount).compute();
+            long[] leftSums = left.join();
+            for (int i = 0; i < sums.length; i++) {
+                sums[i] += leftSums[i];
+            }
+            return sums;
+        }
+    }
+
+    /**
+     * Per-day totals for a season, indexed from its first day.
+     */
+    private static final class DailyTotals {
+        private final int firstDay;
+        private final long[] sums;
+        private final int dayCount;
+
+        private DailyTotals(int firstDay, long[] sums, int dayCount) {
+            this.firstDay = firstDay;
+            this.sums = sums;
+            this.dayCount = dayCount;
+        }
+
+        private long quantityOn(LocalDate date) {
+            int day = (int) date.toEpochDay() - firstDay;
+            return day >= 0 && day < dayCount ? sums[2 * day] : 0;
+        }
+
+    }
+
+    /**
+     * A show scheduled within the season.
+     */
+    private static final class SeasonShow {
+        private final String showId;
+        private final String name;
+        private final LocalDate date;
+        private final String time;
+
+        private SeasonShow(String showId, String name, LocalDate date, String time) {
+            this.showId = showId;
+            this.name = name;
+            this.date = date;
+            this.time = time;
+        }
+
+        /** Identifies the shows {@link MarketingData#getTicketSalesTrends} treats as one event. */
+        private String key() {
+            return name + '\0' + date + '\0' + time;
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package api;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A bounded in-memory cache of show prices and discounts, keyed by ShowID.
+ *
+ * <p>Price and discount are cached together because every ticket sale reads both.
+ * Entries are dropped when they are older than the configured time-to-live, and the
+ * least recently used entry is evicted once the cache is full.
+ *
+ * <p>Writers must call {@link #invalidate(String)} after changing a show's price or
+ * discount. A load that started before an invalidation is never stored, so a reader
+ * racing with a writer cannot put a stale value back into the cache.
+ *
+ * @see MarketingData#getShowTicketPrice(String)
+ * @see MarketingData#getShowDiscount(String)
+ */
+final class ShowPricingCache {
+    private final int maxEntries;
+    private final long ttlMillis;
+    private final LinkedHashMap<String, Entry> entries;
+
+    /** Incremented on every invalidation. Guarded by {@code this}. */
+    private long generation;
+
+    /**
+     * Creates an empty cache.
+     *
+     * @param maxEntries the maximum number of shows held
+     * @param ttlMillis how long an entry stays valid after it is loaded
+     */
+    ShowPricingCache(int maxEntries, long ttlMillis) {
+        this.maxEntries = maxEntries;
+        this.ttlMillis = ttlMillis;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > ShowPricingCache.this.maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Gets the cached pricing for a show.
+     *
+     * @param showId the unique identifier of the show
+     * @return the cached pricing, or null if absent or expired
+     */
+    synchronized ShowPricingDTO get(String showId) {
+        Entry entry = entries.get(showId);
+        if (entry == null) {
+            return null;
+        }
+        if (System.currentTimeMillis() - entry.loadedAt > ttlMillis) {
+            entries.remove(showId);
+            return null;
+        }
+        return entry.pricing;
+    }
+
+    /**
+     * Gets a stamp to pass to {@link #put} once a database load completes.
+     *
+     * @return the current invalidation generation
+     */
+    synchronized long stamp() {
+        return generation;
+    }
+
+    /**
+     * Stores freshly loaded pricing unless an invalidation happened since {@code stamp}.
+     *
+     * @param pricing the pricing read from the database
+     * @param stamp the value returned by {@link #stamp()} before the load started
+     */
+    synchronized void put(ShowPricingDTO pricing, long stamp) {
+        if (stamp == generation && maxEntries > 0) {
+            entries.put(pricing.getShowId(), new Entry(pricing, System.currentTimeMillis()));
+        }
+    }
+
+    /**
+     * Removes the cached pricing for a show after its price or discount changed.
+     *
+     * @param showId the unique identifier of the show
+     */
+    synchronized void invalidate(String showId) {
+        generation++;
+        entries.remove(showId);
+    }
+
+    /**
+     * Cached pricing of a single show together with its load time.
+     */
+    private static final class Entry {
+        private final ShowPricingDTO pricing;
+        private final long loadedAt;
+
+        private Entry(ShowPricingDTO pricing, long loadedAt) {
+            this.pricing = pricing;
+            this.loadedAt = loadedAt;
+        }
+    }
+}
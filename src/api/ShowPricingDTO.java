@@ -0,0 +1,82 @@
+package api;
+
+/**
+ * Immutable Data Transfer Object (DTO) representing the pricing of a single show.
+ *
+ * <p>This class encapsulates everything the box office needs to price a ticket:
+ * <ul>
+ *   <li>The show identifier
+ *   <li>The base ticket price
+ *   <li>The discount rate currently applied
+ *   <li>The effective price after the discount
+ * </ul>
+ *
+ * <p>Unlike the other DTOs in this package, instances are immutable so they can be
+ * shared safely between threads and held in caches.
+ *
+ * <p><b>Usage Example:</b>
+ * <pre>
+ * ShowPricingDTO pricing = marketing.getShowPricing("15");
+ * double toCharge = pricing.getEffectivePrice();
+ * </pre>
+ */
+public final class ShowPricingDTO {
+    /** The unique identifier of the show.*/
+    private final String showId;
+
+    /** The base ticket price of the show.*/
+    private final double price;
+
+    /** The discount rate represented as a decimal value between 0 and 1.*/
+    private final double discount;
+
+    /**
+     * Creates a pricing record for a show.
+     * @param showId the unique identifier of the show
+     * @param price the base ticket price
+     * @param discount the discount rate (0-1)
+     */
+    public ShowPricingDTO(String showId, double price, double discount) {
+        this.showId = showId;
+        this.price = price;
+        this.discount = discount;
+    }
+
+    /**
+     * Gets the unique identifier of the show.
+     * @return the show ID as a String
+     */
+    public String getShowId() {
+        return showId;
+    }
+
+    /**
+     * Gets the base ticket price.
+     * @return the ticket price before discount
+     */
+    public double getPrice() {
+        return price;
+    }
+
+    /**
+     * Gets the discount rate.
+     * @return the discount rate (0 to 1)
+     */
+    public double getDiscount() {
+        return discount;
+    }
+
+    /**
+     * Gets the price a customer pays once the discount is applied.
+     * @return the ticket price multiplied by (1 - discount)
+     */
+    public double getEffectivePrice() {
+        return price * (1 - discount);
+    }
+
+    @Override
+    public String toString() {
+        return "ShowPricingDTO{showId=" + showId + ", price=" + price
+                + ", discount=" + discount + ", effectivePrice=" + getEffectivePrice() + "}";
+    }
+}
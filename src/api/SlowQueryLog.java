@@ -0,0 +1,457 @@
+package api;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.CallableStatement;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * Logs SQL statements that take longer than a threshold, with enough detail to reproduce
+ * them.
+ *
+ * <p>When installed on the {@link ConnectionPool}, every statement handed out by a pooled
+ * connection is wrapped so that its executions are timed. A query is timed from the
+ * moment it is executed until its result set is exhausted or closed, so slow fetches
+ * count as well as slow plans. Each slow execution is logged as one JSON line holding:
+ * <ul>
+ *   <li>{@code time} - when the execution finished
+ *   <li>{@code elapsed_ms} - how long it took
+ *   <li>{@code rows} - rows read, or rows changed by an update
+ *   <li>{@code fingerprint} - the SQL with literals replaced by {@code ?}, whitespace
+ *       collapsed and {@code IN} lists folded, so repeats of one query group together
+ *   <li>{@code sql} and {@code binds} - the statement text and its bound parameters
+ * </ul>
+ *
+ * <p>Entries are handed to a background thread through a bounded queue, so a slow disk
+ * never slows down queries; when the queue is full entries are dropped and counted. The
+ * log file is rotated when it reaches {@code maxBytes}, keeping {@code maxFiles} old files.
+ *
+ * <p><b>Properties</b> (read by {@link #fromSystemProperties()}):
+ * <ul>
+ *   <li>{@code lancaster.slowQuery.thresholdMs} - enables the log; statements taking at
+ *       least this long are logged
+ *   <li>{@code lancaster.slowQuery.file} - log file (default {@code slow-queries.log})
+ *   <li>{@code lancaster.slowQuery.maxBytes} - size at which the file is rotated (default 10 MB)
+ *   <li>{@code lancaster.slowQuery.maxFiles} - rotated files kept (default 5)
+ *   <li>{@code lancaster.slowQuery.queueSize} - entries waiting to be written (default 1024)
+ * </ul>
+ *
+ * @see ConnectionPool#setSlowQueryLog(SlowQueryLog)
+ */
+public class SlowQueryLog implements AutoCloseable {
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^'\\\\]|\\\\.|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Pattern IN_LIST = Pattern.compile("(?i)\\bIN \\(\\?(?:, ?\\?)*\\)");
+    private static final Pattern VALUES_LIST = Pattern.compile("(\\(\\?(?:, ?\\?)*\\))(?:, ?\\(\\?(?:, ?\\?)*\\))+");
+
+    /** Logged as the SQL of a batch run on a plain Statement, which has no single SQL text. */
+    private static final String BATCH_SQL = "<batch>";
+
+    /** Fingerprints are cached per SQL text, up to this many. */
+    private static final int MAX_CACHED_FINGERPRINTS = 10_000;
+
+    private static final Object STOP = new Object();
+
+    private final long thresholdNanos;
+    private final Path file;
+    private final long maxBytes;
+    private final int maxFiles;
+    private final BlockingQueue<Object> queue;
+    private final Map<String, String> fingerprints = new ConcurrentHashMap<>();
+    private final LongAdder logged = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final Thread writer;
+    private volatile boolean closed;
+
+    /**
+     * Creates a log and starts its writer thread.
+     *
+     * @param thresholdMillis statements taking at least this long are logged
+     * @param file the log file
+     * @param maxBytes the size at which the file is rotated
+     * @param maxFiles the number of rotated files kept
+     * @param queueSize the number of entries that may wait to be written
+     */
+    public SlowQueryLog(long thresholdMillis, Path file, long maxBytes, int maxFiles, int queueSize) {
+        this.thresholdNanos = TimeUnit.MILLISECONDS.toNanos(thresholdMillis);
+        this.file = file;
+        this.maxBytes = maxBytes;
+        this.maxFiles = maxFiles;
+        this.queue = new ArrayBlockingQueue<>(queueSize);
+        this.writer = new Thread(this::writeEntries, "slow-query-log-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Creates a log from the {@code lancaster.slowQuery.*} system properties.
+     * @return a SlowQueryLog, or null if {@code lancaster.slowQuery.thresholdMs} is not set
+     */
+    public static SlowQueryLog fromSystemProperties() {
+        Long thresholdMillis = Long.getLong("lancaster.slowQuery.thresholdMs");
+        if (thresholdMillis == null) {
+            return null;
+        }
+        return new SlowQueryLog(thresholdMillis,
+                Paths.get(System.getProperty("lancaster.slowQuery.file", "slow-queries.log")),
+                Long.getLong("lancaster.slowQuery.maxBytes", 10L * 1024 * 1024),
+                Integer.getInteger("lancaster.slowQuery.maxFiles", 5),
+                Integer.getInteger("lancaster.slowQuery.queueSize", 1024));
+    }
+
+    /**
+     * Wraps a statement so that its executions are timed.
+     *
+     * @param statement the statement to wrap
+     * @param sql the SQL it was prepared with, or null for a plain {@link Statement}
+     * @return a statement of the same kind that reports slow executions to this log
+     */
+    public Statement wrap(Statement statement, String sql) {
+        Class<?> type = statement instanceof CallableStatement ? CallableStatement.class
+                : statement instanceof PreparedStatement ? PreparedStatement.class
+                : Statement.class;
+        return (Statement) Proxy.newProxyInstance(SlowQueryLog.class.getClassLoader(),
+                new Class<?>[] { type }, new StatementHandler(statement, sql));
+    }
+
+    /**
+     * Normalizes SQL so that executions of the same query with different literals share
+     * one fingerprint.
+     *
+     * @param sql the SQL text
+     * @return the fingerprint
+     */
+    public static String fingerprint(String sql) {
+        String normalized = STRING_LITERAL.matcher(sql).replaceAll("?");
+        normalized = NUMBER_LITERAL.matcher(normalized).replaceAll("?");
+        normalized = WHITESPACE.matcher(normalized).replaceAll(" ").trim();
+        normalized = IN_LIST.matcher(normalized).replaceAll("IN (?+)");
+        return VALUES_LIST.matcher(normalized).replaceAll("$1, ...");
+    }
+
+    private String cachedFingerprint(String sql) {
+        String cached = fingerprints.get(sql);
+        if (cached == null) {
+            cached = fingerprint(sql);
+            if (fingerprints.size() < MAX_CACHED_FINGERPRINTS) {
+                fingerprints.put(sql, cached);
+            }
+        }
+        return cached;
+    }
+
+    /**
+     * Queues an entry if the execution was slow.
+     * @param sql the SQL executed, or null for a batch of statements added to a plain Statement
+     */
+    private void finish(String sql, Object[] binds, long startNanos, long rows) {
+        long elapsed = System.nanoTime() - startNanos;
+        if (elapsed < thresholdNanos || closed) {
+            return;
+        }
+        if (sql == null) {
+            sql = BATCH_SQL;
+        }
+        JSONObject entry = new JSONObject();
+        entry.put("time", Instant.now().toString());
+        entry.put("elapsed_ms", elapsed / 1_000_000.0);
+        entry.put("rows", rows);
+        entry.put("fingerprint", cachedFingerprint(sql));
+        entry.put("sql", sql);
+        JSONArray bindValues = new JSONArray();
+        if (binds != null) {
+            for (Object bind : binds) {
+                bindValues.put(bind == null ? JSONObject.NULL : String.valueOf(bind));
+            }
+        }
+        entry.put("binds", bindValues);
+        if (!queue.offer(entry.toString())) {
+            dropped.increment();
+        }
+    }
+
+    /** Writer thread: appends queued entries to the file, rotating it when it is full. */
+    private void writeEntries() {
+        BufferedWriter out = null;
+        long size = 0;
+        try {
+            while (true) {
+                Object entry = queue.take();
+                if (entry == STOP) {
+                    break;
+                }
+                if (out == null) {
+                    out = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                            StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+                    size = Files.size(file);
+                }
+                String line = entry + System.lineSeparator();
+                out.write(line);
+                size += line.length();
+                logged.increment();
+                if (queue.isEmpty()) {
+                    out.flush();
+                }
+                if (size >= maxBytes) {
+                    out.close();
+                    out = null;
+                    rotate();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            e.printStackTrace();
+        } finally {
+            if (out != null) {
+                try {
+                    out.close();
+                } catch (IOException e) {
+                    e.printStackTrace();
+                }
+            }
+        }
+    }
+
+    /** Shifts {@code file.1 .. file.(maxFiles - 1)} up by one and moves the current file to {@code file.1}. */
+    private void rotate() throws IOException {
+        Files.deleteIfExists(rotated(maxFiles));
+        for (int i = maxFiles - 1; i >= 1; i--) {
+            if (Files.exists(rotated(i))) {
+                Files.move(rotated(i), rotated(i + 1), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        if (maxFiles > 0) {
+            Files.move(file, rotated(1), StandardCopyOption.REPLACE_EXISTING);
+        } else {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private Path rotated(int index) {
+        return file.resolveSibling(file.getFileName() + "." + index);
+    }
+
+    /**
+     * Gets the number of entries written to the file.
+     * @return the logged entry count
+     */
+    public long getLoggedCount() {
+        return logged.sum();
+    }
+
+    /**
+     * Gets the number of entries dropped because the queue was full.
+     * @return the dropped entry count
+     */
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    /**
+     * Stops logging, writes the entries already queued and closes the file.
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            queue.put(STOP);
+            writer.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Times the executions of one statement and remembers its bind values.
+     */
+    private final class StatementHandler implements InvocationHandler {
+        private final Statement target;
+        private final String preparedSql;
+        private Object[] binds = new Object[8];
+        private int bindCount;
+
+        /** The query whose result set is still being read, if any. */
+        private String pendingSql;
+        private Object[] pendingBinds;
+        private long pendingStart;
+        private RowCount pendingRows;
+
+        private StatementHandler(Statement target, String preparedSql) {
+            this.target = target;
+            this.preparedSql = preparedSql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            switch (name) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "close":
+                    finishPending();
+                    break;
+                case "clearParameters":
+                    Arrays.fill(binds, 0, bindCount, null);
+                    bindCount = 0;
+                    break;
+                default:
+                    if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer) {
+                        bind((Integer) args[0], name.equals("setNull") ? null : args[1]);
+                    } else if (name.startsWith("execute")) {
+                        return execute(method, args);
+                    }
+                    break;
+            }
+            return call(method, args);
+        }
+
+        private Object execute(Method method, Object[] args) throws Throwable {
+            finishPending();
+            String sql = args != null && args.length > 0 && args[0] instanceof String ? (String) args[0] : preparedSql;
+            Object[] executedBinds = args != null && args.length > 0 && args[0] instanceof String ? null : currentBinds();
+            long start = System.nanoTime();
+            Object result = call(method, args);
+
+            if (result instanceof ResultSet) {
+                pendingSql = sql;
+                pendingBinds = executedBinds;
+                pendingStart = start;
+                pendingRows = new RowCount(this);
+                return Proxy.newProxyInstance(SlowQueryLog.class.getClassLoader(),
+                        new Class<?>[] { ResultSet.class }, new ResultSetHandler((ResultSet) result, pendingRows));
+            }
+            long rows;
+            if (result instanceof Integer || result instanceof Long) {
+                rows = ((Number) result).longValue();
+            } else if (result instanceof int[]) {
+                rows = Arrays.stream((int[]) result).filter(count -> count > 0).asLongStream().sum();
+            } else if (result instanceof long[]) {
+                rows = Arrays.stream((long[]) result).filter(count -> count > 0).sum();
+            } else {
+                rows = -1;
+            }
+            finish(sql, executedBinds, start, rows);
+            return result;
+        }
+
+        private void bind(int index, Object value) {
+            if (index > binds.length) {
+                binds = Arrays.copyOf(binds, Math.max(index, binds.length * 2));
+            }
+            binds[index - 1] = value;
+            bindCount = Math.max(bindCount, index);
+        }
+
+        private Object[] currentBinds() {
+            return bindCount == 0 ? null : Arrays.copyOf(binds, bindCount);
+        }
+
+        /** Logs the query whose result set is still open, if it turned out slow. */
+        private void finishPending() {
+            if (pendingRows != null) {
+                RowCount rows = pendingRows;
+                pendingRows = null;
+                finish(pendingSql, pendingBinds, pendingStart, rows.rows);
+            }
+        }
+
+        private Object call(Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+
+    /**
+     * Row count of one result set, finished when the rows run out or the set is closed.
+     */
+    private static final class RowCount {
+        private final StatementHandler statement;
+        private long rows;
+
+        private RowCount(StatementHandler statement) {
+            this.statement = statement;
+        }
+
+        private void done() {
+            if (statement.pendingRows == this) {
+                statement.finishPending();
+            }
+        }
+    }
+
+    /**
+     * Counts the rows read from a result set.
+     */
+    private static final class ResultSetHandler implements InvocationHandler {
+        private final ResultSet target;
+        private final RowCount counter;
+
+        private ResultSetHandler(ResultSet target, RowCount counter) {
+            this.target = target;
+            this.counter = counter;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "close":
+                    counter.done();
+                    break;
+                default:
+                    break;
+            }
+            Object result;
+            try {
+                result = method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+            if (method.getName().equals("next")) {
+                if ((Boolean) result) {
+                    counter.rows++;
+                } else {
+                    counter.done();
+                }
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package api;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A MarketingData that answers the ticket sales analytics from a {@link SalesSnapshot}
+ * instead of the transactional database.
+ *
+ * <p>The following calls are served entirely in memory:
+ * <ul>
+ *   <li>{@link #getHighTrafficDates(String)} and {@link #getHighTrafficDates(String, String)}
+ *   <li>{@link #getPreSaleTrends(String, String)}
+ *   <li>{@link #getTicketSalesTrends(String, LocalDate, String)}
+ *   <li>{@link #getEventsNeedingPromotion()}
+ * </ul>
+ * Every other call goes to the database as usual. Results may lag the database by up to
+ * the snapshot's refresh interval; see {@link SalesSnapshot#getStaleness()}. Until the
+ * snapshot has loaded, the analytics are read from the database too.
+ *
+ * <p><b>Usage Example:</b>
+ * <pre>
+ * SalesSnapshot snapshot = new SalesSnapshot(60);
+ * snapshot.start(Duration.ofMinutes(1));
+ * MarketingInterface marketing = new SnapshotMarketingData(snapshot);
+ * </pre>
+ */
+public class SnapshotMarketingData extends MarketingData {
+    private final SalesSnapshot snapshot;
+
+    /**
+     * Creates a MarketingData reading its sales analytics from a snapshot.
+     * @param snapshot the snapshot to read from once it has loaded
+     */
+    public SnapshotMarketingData(SalesSnapshot snapshot) {
+        this.snapshot = snapshot;
+    }
+
+    /**
+     * Gets the snapshot the analytics are read from.
+     * @return the SalesSnapshot
+     */
+    public SalesSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    @Override
+    public String getTicketSalesTrends(String eventName, LocalDate eventDate, String eventTime) {
+        if (!snapshot.isLoaded()) {
+            return super.getTicketSalesTrends(eventName, eventDate, eventTime);
+        }
+        return snapshot.getTicketSalesTrends(eventName, eventDate, eventTime);
+    }
+
+    @Override
+    public List<LocalDate> getHighTrafficDates(String showId) {
+        if (!snapshot.isLoaded()) {
+            return super.getHighTrafficDates(showId);
+        }
+        return snapshot.getHighTrafficDates(showId);
+    }
+
+    @Override
+    public List<LocalDate> getHighTrafficDates(String showId, String timeframe) {
+        if (!snapshot.isLoaded()) {
+            return super.getHighTrafficDates(showId, timeframe);
+        }
+        return snapshot.getHighTrafficDates(showId, timeframe);
+    }
+
+    @Override
+    public Map<String, Integer> getPreSaleTrends(String showId, String ticketType) {
+        if (!snapshot.isLoaded()) {
+            return super.getPreSaleTrends(showId, ticketType);
+        }
+        return snapshot.getPreSaleTrends(showId, ticketType);
+    }
+
+    @Override
+    public List<String> getEventsNeedingPromotion() {
+        if (!snapshot.isLoaded()) {
+            return super.getEventsNeedingPromotion();
+        }
+        return snapshot.getEventsNeedingPromotion();
+    }
+}
@@ -0,0 +1,63 @@
+package api;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Records database failures that {@link MarketingData} handles internally.
+ *
+ * <p>MarketingData reports errors by printing them and returning an empty or default
+ * result, so a caller cannot tell a failed call from one that found nothing. Each
+ * handled failure is therefore also flagged on the calling thread, where
+ * {@link InstrumentedMarketingData} picks it up to count the call as an error.
+ */
+final class SqlFailures {
+    private static final ThreadLocal<Boolean> FAILED = ThreadLocal.withInitial(() -> Boolean.FALSE);
+    private static final LongAdder TOTAL = new LongAdder();
+
+    private SqlFailures() {
+    }
+
+    /**
+     * Prints a handled failure and flags it on the current thread.
+     * @param e the exception that was handled
+     */
+    static void record(Exception e) {
+        e.printStackTrace();
+        TOTAL.increment();
+        mark();
+    }
+
+    /**
+     * Flags a failure on the current thread without printing anything.
+     */
+    static void mark() {
+        FAILED.set(Boolean.TRUE);
+    }
+
+    /**
+     * Clears the current thread's flag before a call.
+     */
+    static void clear() {
+        FAILED.set(Boolean.FALSE);
+    }
+
+    /**
+     * Reads and clears the current thread's flag after a call.
+     * @return true if a failure was flagged since the last {@link #clear()}
+     */
+    static boolean take() {
+        boolean failed = FAILED.get();
+        if (failed) {
+            FAILED.set(Boolean.FALSE);
+        }
+        return failed;
+    }
+
+    /**
+     * Gets the number of failures handled inside MarketingData by every thread.
+     * @return the total handled failure count
+     */
+    static long getTotal() {
+        return TOTAL.sum();
+    }
+}
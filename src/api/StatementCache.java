@@ -0,0 +1,241 @@
+package api;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A least-recently-used cache of prepared statements belonging to one pooled connection.
+ *
+ * <p>Statements are keyed by their SQL text. Closing a statement obtained from the cache
+ * only resets it and hands it back, so the next {@code prepareStatement} call with the
+ * same SQL skips the parse/prepare round-trip and goes straight to execution. Resetting
+ * closes any open result set, clears parameters and batch, and restores the fetch size,
+ * maximum row count and query timeout it was prepared with, so one borrower's settings
+ * (such as a streaming fetch size) never leak into the next.
+ *
+ * <p>A connection is only ever used by one borrower at a time, so the cache itself is not
+ * thread-safe. The hit, miss and eviction counters are shared by every connection in the
+ * pool and may be updated concurrently.
+ *
+ * @see ConnectionPool
+ */
+final class StatementCache {
+    private final Connection physical;
+    private final int capacity;
+    private final LongAdder hits;
+    private final LongAdder misses;
+    private final LongAdder evictions;
+    private final LinkedHashMap<String, CachedStatement> statements;
+
+    /**
+     * Creates an empty cache for a physical connection.
+     *
+     * @param physical the connection statements are prepared on
+     * @param capacity the maximum number of statements kept open
+     * @param hits counter incremented when a cached statement is reused
+     * @param misses counter incremented when a statement has to be prepared
+     * @param evictions counter incremented when a statement is dropped to make room
+     */
+    StatementCache(Connection physical, int capacity, LongAdder hits, LongAdder misses, LongAdder evictions) {
+        this.physical = physical;
+        this.capacity = capacity;
+        this.hits = hits;
+        this.misses = misses;
+        this.evictions = evictions;
+        this.statements = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedStatement> eldest) {
+                if (size() <= StatementCache.this.capacity) {
+                    return false;
+                }
+                StatementCache.this.evictions.increment();
+                eldest.getValue().evict();
+                return true;
+            }
+        };
+    }
+
+    /**
+     * Gets a prepared statement for the given SQL, reusing a cached one when possible.
+     *
+     * <p>If the cached statement for this SQL is still in use (the same query prepared
+     * twice before the first was closed) an uncached statement is returned instead.
+     *
+     * @param sql the SQL text
+     * @param owner the borrowed connection that {@link PreparedStatement#getConnection()} should report
+     * @return a statement whose {@code close()} returns it to the cache
+     * @throws SQLException if the statement cannot be prepared
+     */
+    PreparedStatement prepare(String sql, Connection owner) throws SQLException {
+        if (capacity <= 0) {
+            return physical.prepareStatement(sql);
+        }
+        CachedStatement cached = statements.get(sql);
+        if (cached != null && cached.evicted && !cached.inUse) {
+            statements.remove(sql); // Closed after it could not be reset
+            cached = null;
+        }
+        if (cached != null && !cached.inUse) {
+            hits.increment();
+        } else {
+            misses.increment();
+            if (cached != null) {
+                return physical.prepareStatement(sql);
+            }
+            cached = new CachedStatement(physical.prepareStatement(sql));
+            statements.put(sql, cached);
+        }
+        cached.inUse = true;
+        return cached.newHandle(owner);
+    }
+
+    /**
+     * Returns every statement still checked out, e.g. when the borrower returns the
+     * connection without closing them.
+     */
+    void releaseAll() {
+        for (CachedStatement cached : statements.values()) {
+            cached.giveBack();
+        }
+    }
+
+    /**
+     * Closes every cached statement. Called when the physical connection is closed.
+     */
+    void clear() {
+        for (CachedStatement cached : statements.values()) {
+            cached.evict();
+        }
+        statements.clear();
+    }
+
+    /**
+     * A physical prepared statement held by the cache.
+     */
+    private static final class CachedStatement {
+        private final PreparedStatement physical;
+        private final int fetchSize;
+        private final int maxRows;
+        private final int queryTimeout;
+        private boolean inUse;
+        private boolean evicted;
+
+        private CachedStatement(PreparedStatement physical) throws SQLException {
+            this.physical = physical;
+            this.fetchSize = physical.getFetchSize();
+            this.maxRows = physical.getMaxRows();
+            this.queryTimeout = physical.getQueryTimeout();
+        }
+
+        private PreparedStatement newHandle(Connection owner) {
+            return (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+                    new Class<?>[] { PreparedStatement.class }, new Handle(this, owner));
+        }
+
+        /**
+         * Resets the statement and makes it available again, or closes it if it was
+         * evicted while in use or cannot be reset.
+         */
+        private void giveBack() {
+            if (!inUse) {
+                return;
+            }
+            inUse = false;
+            if (evicted) {
+                closeQuietly();
+                return;
+            }
+            try {
+                ResultSet open = physical.getResultSet();
+                if (open != null) {
+                    open.close();
+                }
+                physical.clearParameters();
+                physical.clearBatch();
+                if (physical.getFetchSize() != fetchSize) {
+                    physical.setFetchSize(fetchSize);
+                }
+                if (physical.getMaxRows() != maxRows) {
+                    physical.setMaxRows(maxRows);
+                }
+                if (physical.getQueryTimeout() != queryTimeout) {
+                    physical.setQueryTimeout(queryTimeout);
+                }
+            } catch (SQLException e) {
+                evicted = true;
+                closeQuietly();
+            }
+        }
+
+        private void evict() {
+            evicted = true;
+            if (!inUse) {
+                closeQuietly();
+            }
+        }
+
+        private void closeQuietly() {
+            try {
+                physical.close();
+            } catch (SQLException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    /**
+     * Invocation handler behind a checked-out statement. Closing the handle returns the
+     * statement to the cache; further use of the handle fails.
+     */
+    private static final class Handle implements InvocationHandler {
+        private final CachedStatement cached;
+        private final Connection owner;
+        private boolean closed;
+
+        private Handle(CachedStatement cached, Connection owner) {
+            this.cached = cached;
+            this.owner = owner;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!closed) {
+                        closed = true;
+                        cached.giveBack();
+                    }
+                    return null;
+                case "isClosed":
+                    return closed || cached.physical.isClosed();
+                case "getConnection":
+                    return owner;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Cached" + cached.physical;
+                default:
+                    break;
+            }
+            if (closed) {
+                throw new SQLException("Statement has already been closed");
+            }
+            try {
+                return method.invoke(cached.physical, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package api;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * A MarketingData that accepts room bookings and tour arrangements through a
+ * {@link MeetingWriteBehind} log instead of inserting them while the caller waits.
+ *
+ * <p>{@link #bookRoomForClient(String, LocalDate, LocalTime, String, String)} and
+ * {@link #arrangeTour(String, LocalDate, LocalTime, String)} return as soon as the
+ * booking is validated and forced to the local log, which keeps front-desk latency
+ * independent of the database. Every other call goes to the database as usual, so a
+ * booking shows up in queries once the log's writer has flushed it.
+ *
+ * <p><b>Usage Example:</b>
+ * <pre>
+ * MeetingWriteBehind log = new MeetingWriteBehind(Paths.get("meetings.wal"), 100, 200);
+ * MarketingInterface marketing = new WriteBehindMarketingData(log);
+ * marketing.bookRoomForClient("7", LocalDate.now(), LocalTime.of(10, 0), "Launch", "Green Room");
+ * </pre>
+ */
+public class WriteBehindMarketingData extends MarketingData {
+    private final MeetingWriteBehind writeBehind;
+
+    /**
+     * Creates a MarketingData writing meetings through a write-behind log.
+     * @param writeBehind the log bookings are accepted into
+     */
+    public WriteBehindMarketingData(MeetingWriteBehind writeBehind) {
+        this.writeBehind = writeBehind;
+    }
+
+    /**
+     * Gets the log bookings are accepted into.
+     * @return the MeetingWriteBehind
+     */
+    public MeetingWriteBehind getWriteBehind() {
+        return writeBehind;
+    }
+
+    /**
+     * Sets the index used to reject double bookings, and gives it to the write-behind
+     * log too, which holds its unwritten bookings in the index and confirms each one
+     * once it is written.
+     * @param meetingIndex the loaded index, or null to stop checking
+     */
+    @Override
+    public void setMeetingIndex(MeetingIntervalIndex meetingIndex) {
+        super.setMeetingIndex(meetingIndex);
+        writeBehind.setMeetingIndex(meetingIndex);
+    }
+
+    /**
+     * Accepts the booking into the write-behind log instead of inserting it. A
+     * {@link MeetingIntervalIndex} set with {@link #setMeetingIndex} still checks it for
+     * conflicts first.
+     */
+    @Override
+    boolean writeMeeting(String clientId, LocalDate date, LocalTime startTime, String title, String location, String type) {
+        return writeBehind.accept(type, clientId, date, startTime, title, location);
+    }
+}
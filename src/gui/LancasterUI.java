@@ -2,6 +2,8 @@ package gui;
 
 import api.JDBC;
 import javax.swing.*;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
 import javax.swing.table.DefaultTableCellRenderer;
 import javax.swing.table.DefaultTableModel;
 import javax.swing.table.JTableHeader;
@@ -12,6 +14,15 @@ import java.awt.geom.GeneralPath;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 
 /**
  * The main application window for Lancaster Music Hall cinerma management system.
@@ -41,6 +52,49 @@ public class LancasterUI extends JFrame {
     /** Layout manager for the main panel to handle view switching */
     private CardLayout cardLayout;
 
+    /** Rows shown per page by the "View All" dialog */
+    private static final int VIEW_ALL_PAGE_SIZE = 200;
+
+    /** The background load currently running for each panel's table model */
+    private final transient Map<DefaultTableModel, TableLoader> loaders = new HashMap<>();
+
+    /**
+     * Seconds a panel's table data is reused before it is reloaded on being shown again.
+     * Zero reloads on every visit; a negative value never reloads automatically.
+     * Read from {@code lancaster.ui.refreshSeconds} (default 300).
+     */
+    private static final long REFRESH_SECONDS = Long.getLong("lancaster.ui.refreshSeconds", 300);
+
+    /**
+     * Panels whose tables can grow too large to hold in memory. Their tables use a
+     * {@link PagedTableModel}, which keeps only the rows being looked at.
+     */
+    private static final Set<String> PAGED_PANELS = Set.of("Invoice", "TicketSales");
+
+    /**
+     * Incremental refreshes of a table between full reloads, which pick up updated and
+     * deleted rows. Read from {@code lancaster.ui.fullReloadEvery} (default 10).
+     */
+    private static final int FULL_RELOAD_EVERY = Integer.getInteger("lancaster.ui.fullReloadEvery", 10);
+
+    /**
+     * Milliseconds after the last key press before a filter is applied. Read from
+     * {@code lancaster.ui.filterDelayMs} (default 300).
+     */
+    private static final int FILTER_DELAY_MS = Integer.getInteger("lancaster.ui.filterDelayMs", 300);
+
+    /** How far each panel's table model has been loaded */
+    private final transient Map<DefaultTableModel, ChangeFeed> feeds = new HashMap<>();
+
+    /** Client property of a form panel holding a {@link Runnable} that reloads its table */
+    private static final String RELOAD_PROPERTY = "lancaster.reload";
+
+    /** Form panels by card name, built the first time each card is shown */
+    private final transient Map<String, LazyPanel> lazyPanels = new LinkedHashMap<>();
+
+    /** When each panel's table data was last loaded, in {@link System#nanoTime()} units */
+    private final transient Map<String, Long> loadedAt = new HashMap<>();
+
 
     /**
      * Constructs the LancasterUI frame and initializes all components.
@@ -50,7 +104,7 @@ public class LancasterUI extends JFrame {
      *   <li>Sets up the window title, size and default close operation
      *   <li>Initializes the sidebar navigation panel
      *   <li>Creates the main content panel with CardLayout
-     *   <li>Adds all management panels to the main content area
+     *   <li>Registers the management panels, which are built when first shown
      *   <li>Configures the top bar with logo and user information
      * </ul>
      */
@@ -135,7 +189,7 @@ public class LancasterUI extends JFrame {
                 }
             });
 
-            button.addActionListener(e -> cardLayout.show(mainPanel, service));
+            button.addActionListener(e -> showCard(service));
             sidebarPanel.add(button);
             sidebarPanel.add(Box.createVerticalStrut(8));
         }
@@ -201,8 +255,9 @@ public class LancasterUI extends JFrame {
      *   <li>Held/Seats - Seat reservation management
      * </ul>
      *
-     * <p>Each panel is created using {@link #createFormPanel} and added to
-     * the main panel's CardLayout with a corresponding identifier.
+     * <p>The Home panel is added straight away. Each other panel is registered under its
+     * CardLayout identifier and only created using {@link #createFormPanel} when
+     * {@link #showCard} first shows it, so no table is queried before the window appears.
      */
     private void setupMainPanels() {
         // Home Panel with SVG-Inspired Background
@@ -338,28 +393,21 @@ public class LancasterUI extends JFrame {
         homePanel.add(centerPanel, BorderLayout.CENTER);
         mainPanel.add(homePanel, "Home");
 
-        // Other Panels
-        JPanel showPanel = createFormPanel("Show", new String[] {"ShowID","Date", "Start Time", "Name", "Venue", "Price", "Discount", "Description"});
-        mainPanel.add(showPanel, "Show");
+        // Other Panels, built when first shown
+        registerPanel("Show", "Show", new String[] {"ShowID","Date", "Start Time", "Name", "Venue", "Price", "Discount", "Description"});
 
-        JPanel clientPanel = createFormPanel("Client", new String[] {"ClientID", "CompanyID", "ContactEmail", "ContactName","StreetAddress"});
-        mainPanel.add(clientPanel, "Client");
-        JPanel meetingPanel = createFormPanel("Meeting", new String[] {"ClientID","MeetingID","Date","Time","Location"});
-        mainPanel.add(meetingPanel, "Meeting");
+        registerPanel("Client", "Client", new String[] {"ClientID", "CompanyID", "ContactEmail", "ContactName","StreetAddress"});
+        registerPanel("Meeting", "Meeting", new String[] {"ClientID","MeetingID","Date","Time","Location"});
 
-        JPanel heldSeatsPanel = createFormPanel("Held/Seats", new String[] { "SeatID", "ScreeningID", "ShowID"});
-        mainPanel.add(heldSeatsPanel, "Held/Seats");
+        registerPanel("Held/Seats", "Held/Seats", new String[] { "SeatID", "ScreeningID", "ShowID"});
 
-        JPanel screeningPanel = createFormPanel("Screening", new String[] {"ScreeningID","Date", "Start Time", "FilmID", "Price", "ScreeningID"});
-        mainPanel.add(screeningPanel, "Screening");
+        registerPanel("Screening", "Screening", new String[] {"ScreeningID","Date", "Start Time", "FilmID", "Price", "ScreeningID"});
 
-        JPanel folPanel = createFormPanel("FoL", new String[] {"Name", "Address", "Email"});
-        mainPanel.add(folPanel, "FoL");
+        registerPanel("FoL", "FoL", new String[] {"Name", "Address", "Email"});
 
-        JPanel filmPanel = createFormPanel("Film", new String[] {
+        registerPanel("Film", "Film", new String[] {
                 "FilmID", "Name", "Certificate"
         });
-        mainPanel.add(filmPanel, "Film");
 
         for (String service : new String[] {  "Film Orders"}) {
             JPanel placeholderPanel = new JPanel(new BorderLayout());
@@ -369,26 +417,89 @@ public class LancasterUI extends JFrame {
         }
 
         // === Invoice Panel ===
-        JPanel invoicePanel = createFormPanel("Invoice", new String[] {
+        registerPanel("Invoice", "Invoice", new String[] {
                 "InvoiceID", "FilmOrderID", "Date", "Costs", "Total", "ClientID"
         });
-        mainPanel.add(invoicePanel, "Invoice");
 
-        JPanel groupSalePanel = createFormPanel("GroupSale", new String[] {
+        registerPanel("Group Sale", "GroupSale", new String[] {
                 "GroupSaleID", "GroupID", "CompanyID", "ShowID", "SeatsQuantity", "Discount", "Confirmed"
         });
-        mainPanel.add(groupSalePanel, "Group Sale");
-        JPanel groupPanel = createFormPanel("Group", new String[] {
+        registerPanel("Group", "Group", new String[] {
                 "GroupID", "CompanyID", "GroupName", "ContactEmail"
         });
-        mainPanel.add(groupPanel, "Group");
-        JPanel ticketSalesPanel = createFormPanel("TicketSales", new String[] {
+        registerPanel("Ticket Sales", "TicketSales", new String[] {
                 "TicketID", "InvoiceID", "FilmOrderID", "Quantity", "Value"
         });
-        mainPanel.add(ticketSalesPanel, "Ticket Sales");
 
     }
 
+    /**
+     * Registers a form panel to be built the first time its card is shown.
+     *
+     * @param card The CardLayout name of the panel
+     * @param panelName The name of the management section
+     * @param tableColumns The column names for the data table
+     */
+    private void registerPanel(String card, String panelName, String[] tableColumns) {
+        lazyPanels.put(card, new LazyPanel(panelName, tableColumns));
+    }
+
+    /**
+     * Shows a card of the main panel, building its form panel on first use.
+     *
+     * <p>A panel's table is loaded when the panel is built, so startup issues no queries
+     * and costs the same however large the database is. When a panel is shown again its
+     * table is reused, unless it was loaded more than {@link #REFRESH_SECONDS} ago, in
+     * which case it is reloaded in the background.
+     *
+     * @param card The CardLayout name of the card to show
+     */
+    private void showCard(String card) {
+        LazyPanel lazy = lazyPanels.get(card);
+        if (lazy != null) {
+            if (lazy.panel == null) {
+                lazy.panel = createFormPanel(lazy.panelName, lazy.tableColumns);
+                mainPanel.add(lazy.panel, card);
+            } else if (isStale(lazy.panelName)) {
+                ((Runnable) lazy.panel.getClientProperty(RELOAD_PROPERTY)).run();
+            }
+        }
+        cardLayout.show(mainPanel, card);
+    }
+
+    /**
+     * Checks whether a panel's table data is due to be reloaded under the refresh policy.
+     *
+     * @param panelName The name of the management section
+     * @return true if the data should be reloaded
+     */
+    private boolean isStale(String panelName) {
+        Long loaded = loadedAt.get(panelName);
+        if (loaded == null || REFRESH_SECONDS < 0) {
+            return false; // Never loaded (skipped panels) or automatic refresh is off
+        }
+        return System.nanoTime() - loaded >= TimeUnit.SECONDS.toNanos(REFRESH_SECONDS);
+    }
+
+    /**
+     * A form panel that is built the first time its card is shown.
+     */
+    private static final class LazyPanel {
+        /** The name of the management section */
+        final String panelName;
+
+        /** The column names for the data table */
+        final String[] tableColumns;
+
+        /** The built panel, or null until first shown */
+        JPanel panel;
+
+        LazyPanel(String panelName, String[] tableColumns) {
+            this.panelName = panelName;
+            this.tableColumns = tableColumns;
+        }
+    }
+
     /**
      * Creates a standardized form panel for data management.
      *
@@ -548,57 +659,76 @@ public class LancasterUI extends JFrame {
                 viewButton.setBackground(new Color(76, 175, 80));
             }
         });
-        viewButton.addActionListener(e -> {
-            try {
-                Connection conn = JDBC.getConnection();
-                String query = "SELECT * FROM " + getTableName(panelName);
-                PreparedStatement pstmt = conn.prepareStatement(query);
-                java.sql.ResultSet rs = pstmt.executeQuery();
-
-                StringBuilder sb = new StringBuilder();
-                int colCount = rs.getMetaData().getColumnCount();
-
-                while (rs.next()) {
-                    for (int i = 1; i <= colCount; i++) {
-                        sb.append(rs.getMetaData().getColumnName(i)).append(": ").append(rs.getString(i)).append("  ");
-                    }
-                    sb.append("\n");
-                }
-
-                if (sb.length() == 0) {
-                    sb.append("No records found.");
-                }
-
-                JTextArea textArea = new JTextArea(sb.toString());
-                textArea.setEditable(false);
-                textArea.setFont(new Font("Monospaced", Font.PLAIN, 12));
-                textArea.setCaretPosition(0);
-                JScrollPane scrollPane = new JScrollPane(textArea);
-                scrollPane.setPreferredSize(new Dimension(600, 300));
-
-                JOptionPane.showMessageDialog(null, scrollPane, "All " + panelName + " Data", JOptionPane.INFORMATION_MESSAGE);
-                rs.close();
-                pstmt.close();
-            } catch (Exception ex) {
-                JOptionPane.showMessageDialog(null, "Failed to fetch data: " + ex.getMessage());
-                ex.printStackTrace();
-            }
-        });
+        viewButton.addActionListener(e -> showViewAllDialog(panelName));
      buttonPanel.add(viewButton); // ✅ ADD the view button to the panel
 
 
 
-        DefaultTableModel tableModel = new DefaultTableModel(tableColumns, 0);
-        loadTableData(tableModel, panelName, tableColumns);
+        // Large tables are paged in on demand rather than loaded whole
+        PagedTableModel pagedModel = PAGED_PANELS.contains(panelName)
+                ? new PagedTableModel(getTableName(panelName), toDatabaseColumns(tableColumns), getKeyColumns(panelName), tableColumns)
+                : null;
+        DefaultTableModel tableModel = pagedModel == null ? new DefaultTableModel(tableColumns, 0) : null;
 
-        JTable table = new JTable(tableModel);
+        JTable table = new JTable(pagedModel != null ? pagedModel : tableModel);
         styleTable(table);
 
 
 
         JScrollPane scrollPane = new JScrollPane(table);
         scrollPane.setBorder(BorderFactory.createLineBorder(Color.decode("#122023"), 1));
-        panel.add(scrollPane, BorderLayout.CENTER);
+        if (pagedModel != null) {
+            // Tell the model what is on screen, so it can drop requests scrolled past
+            scrollPane.getViewport().addChangeListener(e -> {
+                Rectangle view = scrollPane.getViewport().getViewRect();
+                int first = table.rowAtPoint(new Point(0, view.y));
+                int last = table.rowAtPoint(new Point(0, view.y + view.height - 1));
+                if (first >= 0) {
+                    pagedModel.setVisibleRows(first, last >= 0 ? last : table.getRowCount() - 1);
+                }
+            });
+        }
+        JPanel tablePanel = new JPanel(new BorderLayout(0, 5));
+        tablePanel.setOpaque(false);
+        tablePanel.add(scrollPane, BorderLayout.CENTER);
+        panel.add(tablePanel, BorderLayout.CENTER);
+
+        // Progress of the background table load, with a button to stop it
+        JProgressBar progressBar = new JProgressBar(0, 100);
+        progressBar.setStringPainted(true);
+        JButton cancelLoadButton = new JButton("Cancel");
+        cancelLoadButton.addActionListener(e -> {
+            TableLoader loader = loaders.get(tableModel);
+            if (loader != null) {
+                loader.cancel(true);
+            }
+        });
+        JPanel loadingPanel = new JPanel(new BorderLayout(10, 0));
+        loadingPanel.setOpaque(false);
+        loadingPanel.add(progressBar, BorderLayout.CENTER);
+        loadingPanel.add(cancelLoadButton, BorderLayout.EAST);
+        loadingPanel.setVisible(false);
+        panel.add(loadingPanel, BorderLayout.SOUTH);
+
+        // The filter and sort order chosen in the filter bar, applied by every reload
+        TableFilter[] filterState = { TableFilter.NONE };
+        Runnable reload = pagedModel != null
+                ? () -> {
+                    pagedModel.setFilter(filterState[0]); // Refreshes the count and drops cached pages
+                    loadedAt.put(panelName, System.nanoTime());
+                }
+                : () -> loadTableData(tableModel, panelName, tableColumns, filterState[0], loadingPanel, progressBar);
+        if (pagedModel == null) {
+            reload.run();
+        } else {
+            loadedAt.put(panelName, System.nanoTime()); // A paged model starts loading itself
+        }
+        panel.putClientProperty(RELOAD_PROPERTY, reload);
+
+        String[] searchColumns = getSearchColumns(panelName);
+        if (searchColumns.length > 0) {
+            tablePanel.add(createFilterBar(table, tableColumns, searchColumns, filterState, reload), BorderLayout.NORTH);
+        }
 
         addButton.addActionListener(e -> {
             String[] row = new String[tableColumns.length];
@@ -615,39 +745,83 @@ public class LancasterUI extends JFrame {
             }
             row[tableColumns.length - 1] = ""; // Actions column
 
-            // Add to database
-            try {
-                Connection conn = JDBC.getConnection(); // ✅ this is your DB connection
-                String insertQuery = getInsertQuery(panelName, tableColumns);
-                PreparedStatement pstmt = conn.prepareStatement(insertQuery);
+            // Add to database off the Event Dispatch Thread
+            String insertQuery = getInsertQuery(panelName, tableColumns);
+            addButton.setEnabled(false);
+            String[] keys = getKeyColumns(panelName);
+            int keyInput = Arrays.asList(toDatabaseColumns(tableColumns)).indexOf(keys[0]);
+            new SwingWorker<Integer, Void>() {
+                /** The key of the inserted row, and the row as stored, if it could be read back */
+                private String newKey;
+                private String[] newRow;
 
-                // Set parameters based on panelName
-                for (int i = 0; i < inputs.length; i++) {
-                    pstmt.setString(i + 1, row[i]);
-                }
+                @Override
+                protected Integer doInBackground() throws SQLException, ClassNotFoundException {
+                    try (Connection conn = JDBC.getConnection(); // ✅ this is your DB connection
+                         PreparedStatement pstmt = conn.prepareStatement(insertQuery, Statement.RETURN_GENERATED_KEYS)) {
 
-                int rowsAffected = pstmt.executeUpdate();
-                if (rowsAffected > 0) {
-                    // ✅ Refresh the table right after successful DB insert
-                    loadTableData(tableModel, panelName, tableColumns);
-
-                    JOptionPane.showMessageDialog(null, panelName + " added successfully!");
-                    for (Component input : inputs) {
-                        if (input instanceof JTextField) {
-                            ((JTextField) input).setText("");
-                        } else if (input instanceof JTextArea) {
-                            ((JTextArea) input).setText("");
+                        // Set parameters based on panelName
+                        for (int i = 0; i < inputs.length; i++) {
+                            pstmt.setString(i + 1, row[i]);
+                        }
+                        int rowsAffected = pstmt.executeUpdate();
+
+                        // Read the new row back by its key, so it can be shown without a reload
+                        if (rowsAffected > 0 && tableModel != null && keys.length == 1) {
+                            try (java.sql.ResultSet generated = pstmt.getGeneratedKeys()) {
+                                if (generated != null && generated.next()) {
+                                    newKey = generated.getString(1);
+                                }
+                            }
+                            if (newKey == null && keyInput >= 0 && keyInput < inputs.length) {
+                                newKey = row[keyInput]; // The key was entered rather than generated
+                            }
+                            if (newKey != null) {
+                                newRow = readInsertedRow(conn, panelName, tableColumns, newKey);
+                                if (newRow != null && keyInput >= 0) {
+                                    newKey = newRow[keyInput]; // As the database formats it
+                                }
+                            }
                         }
+                        return rowsAffected;
                     }
-                } else {
-                    JOptionPane.showMessageDialog(null, "Failed to add " + panelName + " to database.");
                 }
 
-                pstmt.close();
-            } catch (SQLException | ClassNotFoundException ex) {
-                JOptionPane.showMessageDialog(null, "Database error: " + ex.getMessage());
-                ex.printStackTrace();
-            }
+                @Override
+                protected void done() {
+                    addButton.setEnabled(true);
+                    int rowsAffected;
+                    try {
+                        rowsAffected = get();
+                    } catch (InterruptedException ex) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    } catch (ExecutionException ex) {
+                        JOptionPane.showMessageDialog(null, "Database error: " + ex.getCause().getMessage());
+                        ex.getCause().printStackTrace();
+                        return;
+                    }
+                    if (rowsAffected > 0) {
+                        // ✅ Show the new row right after successful DB insert
+                        if (newRow != null && filterState[0].isDefault()) {
+                            appendInsertedRow(tableModel, newKey, newRow, reload);
+                        } else {
+                            reload.run();
+                        }
+
+                        JOptionPane.showMessageDialog(null, panelName + " added successfully!");
+                        for (Component input : inputs) {
+                            if (input instanceof JTextField) {
+                                ((JTextField) input).setText("");
+                            } else if (input instanceof JTextArea) {
+                                ((JTextArea) input).setText("");
+                            }
+                        }
+                    } else {
+                        JOptionPane.showMessageDialog(null, "Failed to add " + panelName + " to database.");
+                    }
+                }
+            }.execute();
         });
 
 
@@ -673,12 +847,268 @@ public class LancasterUI extends JFrame {
             case "group": return "`Group`";
             //case "fol": return "friends_of_lancaster"; // Or whatever you use
             case "held/seats": return "HeldSeats";
-            case "ticket sales": return "TicketSales";
+            case "ticket sales":
+            case "ticketsales": return "TicketSales";
             //case "film orders": return "FilmOrder";
             default: throw new IllegalArgumentException("Unknown panel name: " + panelName);
         }
     }
 
+    /**
+     * Maps UI panel names to the columns their "View All" pages are ordered and keyed on.
+     *
+     * <p>Tables with a primary key are paged on it. HeldSeats has no unique key, so it is
+     * paged on all of its columns, with NULLs mapped to values that sort first.
+     *
+     * @param panelName The name of the UI panel/section
+     * @return The key columns or expressions, most significant first
+     * @throws IllegalArgumentException if the panel name is unknown
+     */
+    private String[] getKeyColumns(String panelName) {
+        switch (panelName.trim().toLowerCase()) {
+            case "show": return new String[] { "ShowID" };
+            case "screening": return new String[] { "ScreeningID" };
+            case "film": return new String[] { "FilmID" };
+            case "meeting": return new String[] { "MeetingID" };
+            case "client": return new String[] { "ClientID" };
+            case "invoice": return new String[] { "InvoiceID" };
+            case "group sale": return new String[] { "GroupSaleID" };
+            case "group": return new String[] { "GroupID" };
+            case "held/seats": return new String[] { "COALESCE(ShowID, 0)", "COALESCE(ScreeningID, 0)", "COALESCE(SeatID, '')" };
+            case "ticket sales":
+            case "ticketsales": return new String[] { "TicketID" };
+            default: throw new IllegalArgumentException("Unknown panel name: " + panelName);
+        }
+    }
+
+    /**
+     * Shows every row of a panel's table in a dialog, one page at a time.
+     *
+     * <p>Pages are read with keyset pagination: each page starts directly after the key of
+     * the last row shown, so only {@link #VIEW_ALL_PAGE_SIZE} rows are ever read at once
+     * and later pages cost no more than the first. Each page is read on a background
+     * thread, with the Next Page button disabled until it arrives.
+     *
+     * @param panelName The name of the management section
+     */
+    private void showViewAllDialog(String panelName) {
+        JTextArea textArea = new JTextArea();
+        textArea.setEditable(false);
+        textArea.setFont(new Font("Monospaced", Font.PLAIN, 12));
+        JScrollPane scrollPane = new JScrollPane(textArea);
+        scrollPane.setPreferredSize(new Dimension(600, 300));
+
+        JLabel pageLabel = new JLabel();
+        JButton nextButton = new JButton("Next Page");
+        Object[][] lastKey = { null };
+        int[] pageNumber = { 0 };
+
+        Runnable showNextPage = () -> {
+            Object[] after = lastKey[0];
+            StringBuilder sb = new StringBuilder();
+            nextButton.setEnabled(false);
+            pageLabel.setText("Loading page " + (pageNumber[0] + 1) + "...");
+            new SwingWorker<Object[], Void>() {
+                @Override
+                protected Object[] doInBackground() throws SQLException, ClassNotFoundException {
+                    return readViewAllPage(panelName, after, sb);
+                }
+
+                @Override
+                protected void done() {
+                    try {
+                        lastKey[0] = get();
+                    } catch (InterruptedException ex) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    } catch (ExecutionException ex) {
+                        JOptionPane.showMessageDialog(null, "Failed to fetch data: " + ex.getCause().getMessage());
+                        ex.getCause().printStackTrace();
+                        lastKey[0] = null;
+                    }
+                    pageNumber[0]++;
+                    if (sb.length() == 0) {
+                        sb.append("No records found.");
+                    }
+                    textArea.setText(sb.toString());
+                    textArea.setCaretPosition(0);
+                    pageLabel.setText("Page " + pageNumber[0]);
+                    nextButton.setEnabled(lastKey[0] != null);
+                }
+            }.execute();
+        };
+        nextButton.addActionListener(e -> showNextPage.run());
+        showNextPage.run();
+
+        JPanel footer = new JPanel(new FlowLayout(FlowLayout.RIGHT));
+        footer.add(pageLabel);
+        footer.add(nextButton);
+
+        JDialog dialog = new JDialog(this, "All " + panelName + " Data", true);
+        dialog.setLayout(new BorderLayout());
+        dialog.add(scrollPane, BorderLayout.CENTER);
+        dialog.add(footer, BorderLayout.SOUTH);
+        dialog.pack();
+        dialog.setLocationRelativeTo(this);
+        dialog.setVisible(true);
+    }
+
+    /**
+     * Reads one "View All" page of a panel's table.
+     *
+     * @param panelName The name of the management section
+     * @param after The key of the last row already shown, or null for the first page
+     * @param sb Receives one line of text per row
+     * @return The key of the last row read, or null if there are no further pages
+     * @throws SQLException if the query fails
+     * @throws ClassNotFoundException if the JDBC driver cannot be loaded
+     */
+    private Object[] readViewAllPage(String panelName, Object[] after, StringBuilder sb)
+            throws SQLException, ClassNotFoundException {
+        String[] keys = getKeyColumns(panelName);
+        String query = TableLoader.query("t.*, " + String.join(", ", keys), getTableName(panelName), keys,
+                TableFilter.NONE, after);
+
+        try (Connection conn = JDBC.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(query)) {
+            int index = TableLoader.bind(pstmt, TableFilter.NONE, after);
+            pstmt.setInt(index, VIEW_ALL_PAGE_SIZE + 1); // One extra row shows whether another page follows
+
+            try (java.sql.ResultSet rs = pstmt.executeQuery()) {
+                int colCount = rs.getMetaData().getColumnCount() - keys.length;
+                Object[] lastKey = null;
+                int rows = 0;
+                while (rs.next()) {
+                    if (rows++ == VIEW_ALL_PAGE_SIZE) {
+                        return lastKey;
+                    }
+                    for (int i = 1; i <= colCount; i++) {
+                        sb.append(rs.getMetaData().getColumnName(i)).append(": ").append(rs.getString(i)).append("  ");
+                    }
+                    sb.append("\n");
+                    lastKey = new Object[keys.length];
+                    for (int i = 0; i < keys.length; i++) {
+                        lastKey[i] = rs.getObject(colCount + i + 1);
+                    }
+                }
+                return null;
+            }
+        }
+    }
+
+    /**
+     * Maps UI panel names to the columns their tables can be filtered and sorted on.
+     *
+     * <p>Only the key and columns with a database index are offered, so that every
+     * filter and sort the user can choose is answered from an index rather than by
+     * scanning the table.
+     *
+     * @param panelName The name of the UI panel/section
+     * @return The searchable columns, or an empty array if the panel has none
+     */
+    private String[] getSearchColumns(String panelName) {
+        switch (panelName.trim().toLowerCase()) {
+            case "show": return new String[] { "ShowID", "Date", "Name" };
+            case "screening": return new String[] { "ScreeningID", "Date" };
+            case "film": return new String[] { "FilmID", "Name" };
+            case "meeting": return new String[] { "MeetingID" };
+            case "client": return new String[] { "ClientID" };
+            case "invoice": return new String[] { "InvoiceID", "ClientID", "FilmOrderID", "Date" };
+            case "group sale":
+            case "groupsale": return new String[] { "GroupSaleID", "GroupID", "ShowID" };
+            case "group": return new String[] { "GroupID" };
+            case "held/seats": return new String[] { "ShowID" };
+            case "ticket sales":
+            case "ticketsales": return new String[] { "TicketID", "InvoiceID" };
+            default: return new String[0];
+        }
+    }
+
+    /**
+     * Creates the filter bar shown above a panel's table, and makes the table's column
+     * headers sort it.
+     *
+     * <p>The filter is applied {@link #FILTER_DELAY_MS} after the user stops typing, or
+     * straight away on Enter, so a search is not re-run for every key press. Clicking a
+     * searchable column's header sorts on it; clicking again reverses the order. Both are
+     * carried out by the database when the table is reloaded.
+     *
+     * @param table The table being filtered
+     * @param tableColumns The column names for the table
+     * @param searchColumns The columns that can be filtered and sorted on
+     * @param filterState Holds the current filter, updated by the bar
+     * @param reload Reloads the table with the current filter
+     * @return The filter bar
+     */
+    private JPanel createFilterBar(JTable table, String[] tableColumns, String[] searchColumns,
+                                   TableFilter[] filterState, Runnable reload) {
+        JComboBox<String> columnBox = new JComboBox<>(searchColumns);
+        JComboBox<TableFilter.Match> matchBox = new JComboBox<>(TableFilter.Match.values());
+        JTextField valueField = new JTextField(15);
+        JButton clearButton = new JButton("Clear");
+        JLabel sortLabel = new JLabel();
+
+        Runnable apply = () -> {
+            TableFilter next = filterState[0].withFilter((String) columnBox.getSelectedItem(),
+                    (TableFilter.Match) matchBox.getSelectedItem(), valueField.getText());
+            if (!next.equals(filterState[0])) {
+                filterState[0] = next;
+                reload.run();
+            }
+        };
+        Timer debounce = new Timer(FILTER_DELAY_MS, e -> apply.run());
+        debounce.setRepeats(false);
+
+        valueField.getDocument().addDocumentListener(new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent e) {
+                debounce.restart();
+            }
+
+            @Override
+            public void removeUpdate(DocumentEvent e) {
+                debounce.restart();
+            }
+
+            @Override
+            public void changedUpdate(DocumentEvent e) {
+                debounce.restart();
+            }
+        });
+        valueField.addActionListener(e -> {
+            debounce.stop();
+            apply.run();
+        });
+        columnBox.addActionListener(e -> apply.run());
+        matchBox.addActionListener(e -> apply.run());
+        clearButton.addActionListener(e -> valueField.setText(""));
+
+        String[] columns = toDatabaseColumns(tableColumns);
+        java.util.List<String> searchable = Arrays.asList(searchColumns);
+        table.getTableHeader().addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                int column = table.convertColumnIndexToModel(table.columnAtPoint(e.getPoint()));
+                if (column < 0 || column >= columns.length || !searchable.contains(columns[column])) {
+                    return;
+                }
+                filterState[0] = filterState[0].withSort(columns[column]);
+                sortLabel.setText("Sorted by " + columns[column] + (filterState[0].isDescending() ? " \u25BC" : " \u25B2"));
+                reload.run();
+            }
+        });
+
+        JPanel filterBar = new JPanel(new FlowLayout(FlowLayout.LEFT, 8, 0));
+        filterBar.setOpaque(false);
+        filterBar.add(new JLabel("Filter:"));
+        filterBar.add(columnBox);
+        filterBar.add(matchBox);
+        filterBar.add(valueField);
+        filterBar.add(clearButton);
+        filterBar.add(sortLabel);
+        return filterBar;
+    }
+
     /**
      * Generates an SQL INSERT query for the specified panel.
      *
@@ -756,62 +1186,179 @@ public class LancasterUI extends JFrame {
     /**
      * Loads data from the database into a table model.
      *
+     * <p>The rows are read by a {@link TableLoader} on a background thread and appended to
+     * the model in chunks, so the window stays responsive while a large table loads. Any
+     * load already running for the model is cancelled first. While loading, the loading
+     * panel is shown with the progress bar tracking the rows read.
+     *
+     * <p>Tables keyed on a single auto-increment column are refreshed incrementally: once
+     * a load has completed, the next one only appends the rows whose key is above the
+     * highest key loaded so far, so a refresh costs in proportion to the rows added since.
+     * Rows updated or deleted in the meantime are picked up by a full reload every
+     * {@link #FULL_RELOAD_EVERY} refreshes, or after a load is cancelled or fails. A
+     * filtered or sorted table is always reloaded in full.
+     *
      * @param model The table model to populate
      * @param panelName The name of the management section
      * @param tableColumns The column names for the table
+     * @param filter The rows to load and their order
+     * @param loadingPanel The panel holding the progress bar, shown while loading
+     * @param progressBar The progress bar to update
      */
-    private void loadTableData(DefaultTableModel model, String panelName, String[] tableColumns) {
+    private void loadTableData(DefaultTableModel model, String panelName, String[] tableColumns,
+                               TableFilter filter, JPanel loadingPanel, JProgressBar progressBar) {
         // Skip loading for problematic panels
         if (panelName.equalsIgnoreCase("GroupSale") || panelName.equalsIgnoreCase("TicketSales") || panelName.equalsIgnoreCase("FoL")) {
             return;
         }
 
-        try {
+        String[] columns = toDatabaseColumns(tableColumns);
+        String[] keys = getKeyColumns(panelName);
+
+        TableLoader previous = loaders.get(model);
+        if (previous != null) {
+            previous.cancel(true); // Also forgets the high-water mark, so this load is a full one
+        }
+
+        ChangeFeed feed = feeds.computeIfAbsent(model, m -> new ChangeFeed());
+        TableLoader loader;
+        if (keys.length == 1 && filter.isDefault() && feed.highWaterMark != null
+                && feed.refreshesSinceFullReload < FULL_RELOAD_EVERY) {
+            feed.refreshesSinceFullReload++;
+            loader = new TableLoader(getTableName(panelName), columns, keys, model,
+                    feed.highWaterMark, new HashSet<>(feed.appended), filter);
+        } else {
+            feed.highWaterMark = null;
+            feed.appended.clear();
+            feed.refreshesSinceFullReload = 0;
             model.setRowCount(0); // Clear current rows
-            Connection conn = JDBC.getConnection();
-
-            // Determine if the last column is "Actions"
-            boolean hasActionsColumn = tableColumns[tableColumns.length - 1].equalsIgnoreCase("Actions");
-            int columnsToLoad = hasActionsColumn ? tableColumns.length - 1 : tableColumns.length;
-
-            // Construct the SELECT query to match tableColumns (excluding "Actions")
-            StringBuilder selectColumns = new StringBuilder();
-            for (int i = 0; i < columnsToLoad; i++) {
-                // Clean column names to match database column names
-                String col = tableColumns[i]
-                        .trim()
-                        .replace(" ", "") // Remove spaces (e.g., "Start Time" -> "StartTime")
-                        .replaceAll("[^a-zA-Z0-9_]", ""); // Remove special characters
-                selectColumns.append(col);
-                if (i < columnsToLoad - 1) {
-                    selectColumns.append(", ");
+            loader = new TableLoader(getTableName(panelName), columns, keys, model, filter);
+        }
+        loaders.put(model, loader);
+        loadedAt.put(panelName, System.nanoTime());
+        progressBar.setValue(0);
+        progressBar.setString("Loading " + panelName + "...");
+        loadingPanel.setVisible(true);
+
+        loader.addPropertyChangeListener(evt -> {
+            if ("progress".equals(evt.getPropertyName())) {
+                progressBar.setValue((Integer) evt.getNewValue());
+                progressBar.setString("Loaded " + model.getRowCount() + " rows");
+            } else if ("state".equals(evt.getPropertyName()) && evt.getNewValue() == SwingWorker.StateValue.DONE) {
+                boolean current = loaders.get(model) == loader;
+                if (current) {
+                    loaders.remove(model);
+                    loadingPanel.setVisible(false);
+                    feed.highWaterMark = null; // Restored below if the load completed
+                }
+                if (loader.isCancelled()) {
+                    return;
+                }
+                try {
+                    loader.get();
+                    if (current && keys.length == 1 && filter.isDefault()) {
+                        feed.highWaterMark = loader.getLastKey();
+                    }
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                } catch (ExecutionException ex) {
+                    JOptionPane.showMessageDialog(null, "Failed to load table data: " + ex.getCause().getMessage());
+                    ex.getCause().printStackTrace();
                 }
             }
-            String query = "SELECT " + selectColumns.toString() + " FROM " + getTableName(panelName);
-            PreparedStatement pstmt = conn.prepareStatement(query);
-            java.sql.ResultSet rs = pstmt.executeQuery();
-
-            // Debug: Print the query and column count
-            System.out.println("Panel: " + panelName + ", Query: " + query);
-            System.out.println("Column count in ResultSet: " + rs.getMetaData().getColumnCount());
-
-            while (rs.next()) {
-                String[] rowData = new String[tableColumns.length];
-                for (int i = 0; i < columnsToLoad; i++) {
-                    rowData[i] = rs.getString(i + 1) != null ? rs.getString(i + 1) : "";
+        });
+        loader.execute();
+    }
+
+    /**
+     * Appends a row that has just been inserted to a table model without reloading the
+     * table. Falls back to a reload if the model is still loading, since the running load
+     * may or may not include the new row.
+     *
+     * @param model The table model to add the row to
+     * @param key The value of the table's key column for the new row
+     * @param row The new row, as read back from the database
+     * @param reload Reloads the table
+     */
+    private void appendInsertedRow(DefaultTableModel model, String key, String[] row, Runnable reload) {
+        if (loaders.containsKey(model)) {
+            reload.run();
+            return;
+        }
+        model.addRow(row);
+        ChangeFeed feed = feeds.get(model);
+        if (feed != null && feed.highWaterMark != null) {
+            feed.appended.add(key); // Not to be appended again by the next incremental refresh
+        }
+    }
+
+    /**
+     * Reads back a row just inserted into a table, by its key.
+     *
+     * @param conn The connection the row was inserted on
+     * @param panelName The name of the management section
+     * @param tableColumns The column names for the table
+     * @param key The value of the table's key column for the new row
+     * @return The row, padded to the table's width, or null if it cannot be found
+     * @throws SQLException if the query fails
+     */
+    private String[] readInsertedRow(Connection conn, String panelName, String[] tableColumns, String key)
+            throws SQLException {
+        String[] columns = toDatabaseColumns(tableColumns);
+        String query = "SELECT " + String.join(", ", columns) + " FROM " + getTableName(panelName) +
+                " WHERE " + getKeyColumns(panelName)[0] + " = ?";
+        try (PreparedStatement pstmt = conn.prepareStatement(query)) {
+            pstmt.setString(1, key);
+            try (java.sql.ResultSet rs = pstmt.executeQuery()) {
+                if (!rs.next()) {
+                    return null;
                 }
-                if (hasActionsColumn) {
-                    rowData[tableColumns.length - 1] = ""; // Placeholder for actions column
+                String[] row = new String[tableColumns.length];
+                Arrays.fill(row, "");
+                for (int i = 0; i < columns.length; i++) {
+                    String value = rs.getString(i + 1);
+                    row[i] = value != null ? value : "";
                 }
-                model.addRow(rowData);
+                return row;
             }
+        }
+    }
+
+    /**
+     * How far a table model has been loaded, so that it can be refreshed incrementally.
+     */
+    private static final class ChangeFeed {
+        /** The key of the last row loaded, or null if the next load must be a full one */
+        Object[] highWaterMark;
+
+        /** Keys above the high-water mark of rows already appended after an insert */
+        final Set<String> appended = new HashSet<>();
+
+        /** Incremental refreshes since the last full load */
+        int refreshesSinceFullReload;
+    }
 
-            rs.close();
-            pstmt.close();
-        } catch (Exception ex) {
-            JOptionPane.showMessageDialog(null, "Failed to load table data: " + ex.getMessage());
-            ex.printStackTrace();
+    /**
+     * Converts table headings to the database columns they show, leaving out a trailing
+     * "Actions" column.
+     *
+     * @param tableColumns The column names for the table
+     * @return The database column names
+     */
+    private static String[] toDatabaseColumns(String[] tableColumns) {
+        // Determine if the last column is "Actions"
+        boolean hasActionsColumn = tableColumns[tableColumns.length - 1].equalsIgnoreCase("Actions");
+        int columnsToLoad = hasActionsColumn ? tableColumns.length - 1 : tableColumns.length;
+
+        // Clean column names to match database column names
+        String[] columns = new String[columnsToLoad];
+        for (int i = 0; i < columnsToLoad; i++) {
+            columns[i] = tableColumns[i]
+                    .trim()
+                    .replace(" ", "") // Remove spaces (e.g., "Start Time" -> "StartTime")
+                    .replaceAll("[^a-zA-Z0-9_]", ""); // Remove special characters
         }
+        return columns;
     }
 
     /**
@@ -0,0 +1,359 @@
+package gui;
+
+import api.JDBC;
+
+import javax.swing.SwingUtilities;
+import javax.swing.table.AbstractTableModel;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * A read-only table model that keeps only the pages of a table being looked at in memory,
+ * for tables too large to load whole.
+ *
+ * <p>The model reports the table's full row count, so the scroll bar covers every row,
+ * but rows are only read when the {@link javax.swing.JTable} asks for them. Rows are read
+ * a page at a time on a background thread with keyset queries, and the page after each
+ * requested page is prefetched so scrolling down rarely waits. Until a page arrives its
+ * cells show as blank; when it does, the rows are repainted.
+ *
+ * <p>Loaded pages are kept in a least-recently-used cache of {@link #CACHE_PAGES} pages,
+ * so memory use is bounded by the cache, not by the size of the table. The key each page
+ * starts after is remembered separately, a few bytes per page. When the user jumps to a
+ * page whose start key is not known, it is found by skipping rows from the nearest known
+ * page with a query that reads only the key columns.
+ *
+ * <p>A {@link TableFilter} set with {@link #setFilter} is applied by the database to the
+ * count and to every page query, so a search reads only the matching rows.
+ *
+ * <p>The view reports which rows are on screen with {@link #setVisibleRows}. Requests for
+ * pages that have since scrolled out of view are dropped before new ones are queued, so
+ * dragging the scroll bar across a large table does not leave a queue of skip queries
+ * for pages nobody is looking at.
+ *
+ * <p><b>Properties</b>:
+ * <ul>
+ *   <li>{@code lancaster.table.pageSize} - rows read per query (default 200)
+ *   <li>{@code lancaster.table.cachePages} - pages kept in memory (default 20)
+ * </ul>
+ */
+final class PagedTableModel extends AbstractTableModel {
+    private static final long serialVersionUID = 1L;
+
+    /** Rows read per query. */
+    static final int PAGE_SIZE = Integer.getInteger("lancaster.table.pageSize", 200);
+
+    /** Pages kept in memory at once. */
+    static final int CACHE_PAGES = Integer.getInteger("lancaster.table.cachePages", 20);
+
+    /** One thread serves every paged model, so scrolling cannot flood the database. */
+    private static final ExecutorService FETCHER = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "paged-table-fetcher");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final String table;
+    private final String[] columns;
+    private final String[] keys;
+    private final String[] columnNames;
+
+    /** Loaded pages by page number, least recently used first. Only used on the EDT. */
+    private final transient Map<Integer, String[][]> pages = new LinkedHashMap<>(16, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, String[][]> eldest) {
+            return size() > CACHE_PAGES;
+        }
+    };
+
+    /** The key each known page starts after; page 0 starts after null. Only used on the EDT. */
+    private final transient NavigableMap<Integer, Object[]> pageStarts = new TreeMap<>();
+
+    /** Pages requested but not yet loaded, with their queued fetches. Only used on the EDT. */
+    private final transient Map<Integer, Future<?>> pending = new HashMap<>();
+
+    private int rowCount;
+
+    /** The first and last page on screen, or -1 until the view reports them. Only used on the EDT. */
+    private int firstVisiblePage = -1;
+    private int lastVisiblePage = -1;
+
+    /** The rows shown and their order. Only used on the EDT. */
+    private transient TableFilter filter = TableFilter.NONE;
+
+    /** Incremented by {@link #refresh()} so results of older fetches are dropped. */
+    private int generation;
+
+    /**
+     * Creates a model and starts counting the table's rows.
+     *
+     * @param table The table to read
+     * @param columns The columns to read, in model column order
+     * @param keys The key columns the table is paged on, most significant first
+     * @param columnNames The column headings; columns beyond those read are left blank
+     */
+    PagedTableModel(String table, String[] columns, String[] keys, String[] columnNames) {
+        this.table = table;
+        this.columns = columns;
+        this.keys = keys;
+        this.columnNames = columnNames;
+        refresh();
+    }
+
+    /**
+     * Shows only the rows matching a filter, in its order. The database does the
+     * filtering, so only matching rows are counted and read.
+     *
+     * @param filter The rows to show and their order
+     */
+    void setFilter(TableFilter filter) {
+        this.filter = filter;
+        refresh();
+    }
+
+    /**
+     * Gets the filter applied to the rows.
+     * @return The current filter
+     */
+    TableFilter getFilter() {
+        return filter;
+    }
+
+    /**
+     * Drops every loaded page and re-reads the row count, for example after a row has
+     * been added. Visible rows are reloaded as they are repainted.
+     */
+    void refresh() {
+        generation++;
+        pages.clear();
+        pageStarts.clear();
+        pageStarts.put(0, null);
+        for (Future<?> fetch : pending.values()) {
+            fetch.cancel(false);
+        }
+        pending.clear();
+        int requested = generation;
+        TableFilter current = filter;
+        FETCHER.execute(() -> {
+            try {
+                int count = countRows(current);
+                SwingUtilities.invokeLater(() -> {
+                    if (requested == generation) {
+                        rowCount = count;
+                        fireTableDataChanged();
+                    }
+                });
+            } catch (SQLException | ClassNotFoundException e) {
+                e.printStackTrace();
+            }
+        });
+    }
+
+    @Override
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return columnNames.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return columnNames[column];
+    }
+
+    @Override
+    public Object getValueAt(int rowIndex, int columnIndex) {
+        int page = rowIndex / PAGE_SIZE;
+        String[][] rows = pages.get(page);
+        if (rows == null) {
+            request(page);
+            return "";
+        }
+        if (!pages.containsKey(page + 1)) {
+            request(page + 1); // Prefetch the page the user is scrolling towards
+        }
+        int offset = rowIndex % PAGE_SIZE;
+        if (offset >= rows.length || columnIndex >= columns.length) {
+            return "";
+        }
+        return rows[offset][columnIndex];
+    }
+
+    /**
+     * Records which rows the view has on screen, and drops queued requests for pages no
+     * longer among them.
+     *
+     * @param firstRow The first visible row
+     * @param lastRow The last visible row
+     */
+    void setVisibleRows(int firstRow, int lastRow) {
+        firstVisiblePage = Math.max(0, firstRow) / PAGE_SIZE;
+        lastVisiblePage = Math.max(firstRow, lastRow) / PAGE_SIZE;
+        dropInvisibleRequests(-1);
+    }
+
+    /**
+     * Cancels the queued fetches of pages that are neither on screen nor the page after,
+     * which is prefetched. Fetches already running are left to finish.
+     *
+     * @param keep A page whose request is kept regardless
+     */
+    private void dropInvisibleRequests(int keep) {
+        if (firstVisiblePage < 0) {
+            return; // The view has not reported what it shows
+        }
+        Iterator<Map.Entry<Integer, Future<?>>> it = pending.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<Integer, Future<?>> entry = it.next();
+            int page = entry.getKey();
+            if (page != keep && (page < firstVisiblePage || page > lastVisiblePage + 1)) {
+                entry.getValue().cancel(false);
+                it.remove();
+            }
+        }
+    }
+
+    /** Schedules a page to be loaded, unless it is already loading or past the end. */
+    private void request(int page) {
+        if (page * (long) PAGE_SIZE >= rowCount || pending.containsKey(page)) {
+            return;
+        }
+        dropInvisibleRequests(page);
+        Map.Entry<Integer, Object[]> known = pageStarts.floorEntry(page);
+        int fromPage = known.getKey();
+        Object[] fromKey = known.getValue();
+        int requested = generation;
+        TableFilter current = filter;
+        pending.put(page, FETCHER.submit(() -> {
+            try {
+                Object[] after = fromPage == page ? fromKey : skipTo(current, fromKey, (page - fromPage) * PAGE_SIZE);
+                Object[][] lastKey = new Object[1][];
+                // A page past the end of the table, if rows were deleted since counting
+                String[][] rows = after == null && page > 0 ? new String[0][] : readPage(current, after, lastKey);
+                SwingUtilities.invokeLater(() -> loaded(requested, page, after, rows, lastKey[0]));
+            } catch (SQLException | ClassNotFoundException e) {
+                e.printStackTrace();
+                SwingUtilities.invokeLater(() -> {
+                    if (requested == generation) {
+                        pending.remove(page);
+                    }
+                });
+            }
+        }));
+    }
+
+    /** Stores a fetched page on the EDT and repaints its rows. */
+    private void loaded(int requested, int page, Object[] after, String[][] rows, Object[] lastKey) {
+        if (requested != generation) {
+            return;
+        }
+        pending.remove(page);
+        pages.put(page, rows);
+        if (after != null || page == 0) {
+            pageStarts.put(page, after);
+        }
+        if (lastKey != null && rows.length == PAGE_SIZE) {
+            pageStarts.put(page + 1, lastKey);
+        }
+        int first = page * PAGE_SIZE;
+        int last = Math.min(rowCount, first + PAGE_SIZE) - 1;
+        if (last >= first) {
+            fireTableRowsUpdated(first, last);
+        }
+    }
+
+    private int countRows(TableFilter filter) throws SQLException, ClassNotFoundException {
+        String query = "SELECT COUNT(*) FROM " + table + " t" + TableLoader.where(keys, filter, null);
+        try (Connection conn = JDBC.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(query)) {
+            TableLoader.bind(pstmt, filter, null);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next() ? (int) Math.min(Integer.MAX_VALUE, rs.getLong(1)) : 0;
+            }
+        }
+    }
+
+    /**
+     * Finds the key of the row a given number of rows past a known key, reading only the
+     * key columns.
+     *
+     * @param filter The rows shown and their order
+     * @param after The known key, or null for the start of the table
+     * @param rows How many rows to skip
+     * @return The key of the last row skipped, or null if the table is shorter
+     */
+    private Object[] skipTo(TableFilter filter, Object[] after, int rows) throws SQLException, ClassNotFoundException {
+        String[] orderKeys = filter.orderKeys(keys);
+        String query = TableLoader.query(String.join(", ", orderKeys), table, orderKeys, filter, after) + " OFFSET ?";
+        try (Connection conn = JDBC.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(query)) {
+            int index = TableLoader.bind(pstmt, filter, after);
+            pstmt.setInt(index++, 1);
+            pstmt.setInt(index, rows - 1);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (!rs.next()) {
+                    return null;
+                }
+                Object[] key = new Object[orderKeys.length];
+                for (int i = 0; i < orderKeys.length; i++) {
+                    key[i] = rs.getObject(i + 1);
+                }
+                return key;
+            }
+        }
+    }
+
+    /**
+     * Reads the page of rows following a key.
+     *
+     * @param filter The rows shown and their order
+     * @param after The key the page starts after, or null for the first page
+     * @param lastKey Receives the key of the last row read
+     * @return The rows read, at most {@link #PAGE_SIZE}
+     */
+    private String[][] readPage(TableFilter filter, Object[] after, Object[][] lastKey)
+            throws SQLException, ClassNotFoundException {
+        String[] orderKeys = filter.orderKeys(keys);
+        String select = String.join(", ", columns) + ", " + String.join(", ", orderKeys);
+        try (Connection conn = JDBC.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(TableLoader.query(select, table, orderKeys, filter, after))) {
+            int index = TableLoader.bind(pstmt, filter, after);
+            pstmt.setInt(index, PAGE_SIZE);
+            String[][] rows = new String[PAGE_SIZE][];
+            int count = 0;
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    String[] row = new String[columns.length];
+                    for (int i = 0; i < columns.length; i++) {
+                        String value = rs.getString(i + 1);
+                        row[i] = value != null ? value : "";
+                    }
+                    rows[count++] = row;
+                    Object[] key = new Object[orderKeys.length];
+                    for (int i = 0; i < orderKeys.length; i++) {
+                        key[i] = rs.getObject(columns.length + i + 1);
+                    }
+                    lastKey[0] = key;
+                }
+            }
+            return count == PAGE_SIZE ? rows : Arrays.copyOf(rows, count);
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package gui;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Objects;
+
+/**
+ * The filter and sort order chosen for a panel's table, turned into SQL so that the
+ * database does the filtering and sorting rather than the client.
+ *
+ * <p>A filter matches one column against a value, either exactly or by prefix. Both are
+ * written as parameterized conditions ({@code col = ?} and {@code col LIKE ?} with the
+ * value escaped and followed by {@code %}), so they can use an index on the column and
+ * the value is never spliced into the SQL. Column names come from the panel's own
+ * column list, never from user input.
+ *
+ * <p>A sort column is put in front of the table's key columns, so rows are still in a
+ * unique order that keyset pagination can continue from.
+ *
+ * <p>Instances are immutable; {@link #withFilter} and {@link #withSort} return new ones.
+ */
+final class TableFilter {
+    /** How a filter value is compared with a column. */
+    enum Match {
+        EQUALS("equals"),
+        STARTS_WITH("starts with");
+
+        private final String label;
+
+        Match(String label) {
+            this.label = label;
+        }
+
+        @Override
+        public String toString() {
+            return label;
+        }
+    }
+
+    /** No filter, in key order. */
+    static final TableFilter NONE = new TableFilter(null, Match.EQUALS, "", null, false);
+
+    private final String filterColumn;
+    private final Match match;
+    private final String value;
+    private final String sortColumn;
+    private final boolean descending;
+
+    private TableFilter(String filterColumn, Match match, String value, String sortColumn, boolean descending) {
+        this.filterColumn = filterColumn;
+        this.match = match;
+        this.value = value;
+        this.sortColumn = sortColumn;
+        this.descending = descending;
+    }
+
+    /**
+     * Returns a copy with a different filter. An empty value removes the filter.
+     *
+     * @param column The column to filter on
+     * @param match How to compare the value
+     * @param value The value to look for
+     * @return The new filter
+     */
+    TableFilter withFilter(String column, Match match, String value) {
+        return new TableFilter(column, match, value.trim(), sortColumn, descending);
+    }
+
+    /**
+     * Returns a copy sorted on a column. Sorting again on the current sort column
+     * reverses the order.
+     *
+     * @param column The column to sort on
+     * @return The new filter
+     */
+    TableFilter withSort(String column) {
+        boolean reverse = column.equals(sortColumn) && !descending;
+        return new TableFilter(filterColumn, match, value, column, reverse);
+    }
+
+    /**
+     * Checks whether rows are being filtered out.
+     * @return true if a filter value is set
+     */
+    boolean isFiltered() {
+        return filterColumn != null && !value.isEmpty();
+    }
+
+    /**
+     * Checks whether this shows every row in key order, as an unfiltered table does.
+     * @return true if there is no filter and no sort
+     */
+    boolean isDefault() {
+        return !isFiltered() && sortColumn == null;
+    }
+
+    /**
+     * Gets the column being sorted on.
+     * @return The sort column, or null for key order
+     */
+    String getSortColumn() {
+        return sortColumn;
+    }
+
+    /**
+     * Checks whether rows are sorted in descending order.
+     * @return true if descending
+     */
+    boolean isDescending() {
+        return descending;
+    }
+
+    /**
+     * Gets the columns rows are ordered and paged on.
+     *
+     * @param keys The table's key columns, most significant first
+     * @return The sort column followed by the key columns, or just the key columns
+     */
+    String[] orderKeys(String[] keys) {
+        if (sortColumn == null || sortColumn.equals(keys[0])) {
+            return keys;
+        }
+        String[] orderKeys = new String[keys.length + 1];
+        orderKeys[0] = sortColumn;
+        System.arraycopy(keys, 0, orderKeys, 1, keys.length);
+        return orderKeys;
+    }
+
+    /**
+     * Builds the filter condition.
+     * @return The condition with one placeholder, or null if nothing is filtered
+     */
+    String condition() {
+        if (!isFiltered()) {
+            return null;
+        }
+        return match == Match.EQUALS ? filterColumn + " = ?" : filterColumn + " LIKE ?";
+    }
+
+    /**
+     * Binds the filter value to a statement built with {@link #condition()}.
+     *
+     * @param pstmt The statement to bind
+     * @param index The index of the filter's placeholder
+     * @return The index of the next parameter to bind
+     * @throws SQLException if the value cannot be bound
+     */
+    int bind(PreparedStatement pstmt, int index) throws SQLException {
+        if (!isFiltered()) {
+            return index;
+        }
+        if (match == Match.EQUALS) {
+            pstmt.setString(index, value);
+        } else {
+            String escaped = value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+            pstmt.setString(index, escaped + "%");
+        }
+        return index + 1;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof TableFilter)) {
+            return false;
+        }
+        TableFilter other = (TableFilter) o;
+        if (isFiltered() != other.isFiltered() || descending != other.descending
+                || !Objects.equals(sortColumn, other.sortColumn)) {
+            return false;
+        }
+        return !isFiltered() || filterColumn.equals(other.filterColumn) && match == other.match
+                && value.equals(other.value);
+    }
+
+    @Override
+    public int hashCode() {
+        return isFiltered() ? Objects.hash(filterColumn, match, value, sortColumn, descending)
+                : Objects.hash(sortColumn, descending);
+    }
+
+    @Override
+    public String toString() {
+        return "TableFilter{filter=" + (isFiltered() ? filterColumn + " " + match + " '" + value + "'" : "none") +
+                ", sort=" + (sortColumn == null ? "key" : sortColumn + (descending ? " DESC" : " ASC")) + "}";
+    }
+}
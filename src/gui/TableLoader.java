@@ -0,0 +1,269 @@
+package gui;
+
+import api.JDBC;
+
+import javax.swing.SwingWorker;
+import javax.swing.table.DefaultTableModel;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.Vector;
+
+/**
+ * Loads the rows of a database table into a {@link DefaultTableModel} on a background
+ * thread, so the window stays responsive while a large table loads.
+ *
+ * <p>Rows are read in chunks of {@link #CHUNK_SIZE} using keyset pagination on the
+ * table's key columns, each chunk a separate short query. Rows are handed to the Event
+ * Dispatch Thread as they are read and appended to the model in bulk, with a single
+ * table event per batch rather than one per row, so the EDT does a small, bounded amount
+ * of work per repaint however large the table is.
+ *
+ * <p>The worker's {@code progress} property runs from 0 to 100 as rows are loaded,
+ * against a row count taken when loading starts. Calling {@link #cancel(boolean)} stops
+ * loading at the next row; rows already added stay in the model.
+ *
+ * <p>Filtering and sorting are done by the database: the loader adds the
+ * {@link TableFilter}'s condition to each query and orders by its sort column ahead of
+ * the key columns, so only matching rows are read and a search costs an index lookup
+ * rather than a table scan.
+ *
+ * <p>A loader can also start after a given key, appending only the rows added since an
+ * earlier load finished at that key. Its cost is then proportional to the number of new
+ * rows rather than to the size of the table. {@link #getLastKey()} gives the key to
+ * start the next such load from.
+ */
+final class TableLoader extends SwingWorker<Integer, String[]> {
+    /** Rows read per query. */
+    static final int CHUNK_SIZE = 1000;
+
+    private final String table;
+    private final String[] columns;
+    private final String[] keys;
+    private final DefaultTableModel model;
+    private final int rowWidth;
+    private final Object[] start;
+    private final Set<String> skipKeys;
+    private final TableFilter filter;
+
+    /** The key of the last row read, or the start key if none has been read yet. */
+    private volatile Object[] lastKey;
+
+    /**
+     * Creates a loader for a whole table. The model should be emptied before
+     * {@link #execute()} is called.
+     *
+     * @param table The table to read
+     * @param columns The columns to read, in model column order
+     * @param keys The key columns or expressions the table is paged on, most significant first
+     * @param model The model rows are appended to; columns beyond those read are left blank
+     * @param filter The rows to read and their order
+     */
+    TableLoader(String table, String[] columns, String[] keys, DefaultTableModel model, TableFilter filter) {
+        this(table, columns, keys, model, null, Set.of(), filter);
+    }
+
+    /**
+     * Creates a loader for the rows after a given key, to be appended to a model that
+     * already holds the rows up to it.
+     *
+     * @param table The table to read
+     * @param columns The columns to read, in model column order
+     * @param keys The key columns or expressions the table is paged on, most significant first
+     * @param model The model rows are appended to; columns beyond those read are left blank
+     * @param after The key to start after, as returned by {@link #getLastKey()}, or null
+     *              to read from the start
+     * @param skipKeys Values of a single key column whose rows are already in the model
+     *                 and are not appended again
+     * @param filter The rows to read and their order
+     */
+    TableLoader(String table, String[] columns, String[] keys, DefaultTableModel model,
+                Object[] after, Set<String> skipKeys, TableFilter filter) {
+        this.table = table;
+        this.columns = columns;
+        this.keys = filter.orderKeys(keys);
+        this.model = model;
+        this.rowWidth = model.getColumnCount();
+        this.start = after;
+        this.skipKeys = skipKeys;
+        this.filter = filter;
+        this.lastKey = after;
+    }
+
+    /**
+     * Gets the key of the last row read, including rows skipped as already present.
+     * Only meaningful once the loader has finished without being cancelled.
+     *
+     * @return The last key, or the start key if no rows were read
+     */
+    Object[] getLastKey() {
+        return lastKey;
+    }
+
+    @Override
+    protected Integer doInBackground() throws Exception {
+        long total = countRows();
+        String select = String.join(", ", columns) + ", " + String.join(", ", keys);
+
+        Object[] after = start;
+        int loaded = 0;
+        while (!isCancelled()) {
+            int read = 0;
+            try (Connection conn = JDBC.getConnection();
+                 PreparedStatement pstmt = conn.prepareStatement(query(select, table, keys, filter, after))) {
+                int index = bind(pstmt, filter, after);
+                pstmt.setInt(index, CHUNK_SIZE);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next() && !isCancelled()) {
+                        after = new Object[keys.length];
+                        for (int i = 0; i < keys.length; i++) {
+                            after[i] = rs.getObject(columns.length + i + 1);
+                        }
+                        read++;
+                        if (keys.length == 1 && skipKeys.contains(String.valueOf(after[0]))) {
+                            continue;
+                        }
+                        String[] row = new String[rowWidth];
+                        Arrays.fill(row, "");
+                        for (int i = 0; i < columns.length && i < rowWidth; i++) {
+                            String value = rs.getString(i + 1);
+                            row[i] = value != null ? value : "";
+                        }
+                        publish(row);
+                    }
+                }
+            }
+            if (read > 0) {
+                lastKey = after;
+            }
+            loaded += read;
+            setProgress(total == 0 ? 100 : (int) Math.min(100, loaded * 100 / total));
+            if (read < CHUNK_SIZE) {
+                break;
+            }
+        }
+        return loaded;
+    }
+
+    private long countRows() throws SQLException, ClassNotFoundException {
+        String query = "SELECT COUNT(*) FROM " + table + " t" + where(keys, filter, start);
+        try (Connection conn = JDBC.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(query)) {
+            bind(pstmt, filter, start);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next() ? rs.getLong(1) : 0;
+            }
+        }
+    }
+
+    @Override
+    @SuppressWarnings({ "rawtypes", "unchecked" })
+    protected void process(List<String[]> rows) {
+        if (isCancelled() || rows.isEmpty()) {
+            return;
+        }
+        Vector<Vector> data = model.getDataVector();
+        int first = data.size();
+        for (String[] row : rows) {
+            data.add(new Vector<>(Arrays.asList(row)));
+        }
+        model.fireTableRowsInserted(first, data.size() - 1);
+    }
+
+    /**
+     * Builds a query for the rows matching a filter that sort after a given key, in
+     * order, e.g. {@code SELECT a, b FROM T t WHERE a = ? AND b > ? ORDER BY b LIMIT ?}.
+     *
+     * @param select The columns to select
+     * @param table The table to read
+     * @param keys The columns rows are ordered on, from {@link TableFilter#orderKeys}
+     * @param filter The filter, whose sort direction is used
+     * @param after The key of the last row already read, or null to start at the beginning
+     * @return The query, with a final placeholder for the row limit
+     */
+    static String query(String select, String table, String[] keys, TableFilter filter, Object[] after) {
+        String direction = filter.isDescending() ? " DESC" : "";
+        return "SELECT " + select + " FROM " + table + " t" + where(keys, filter, after) +
+                " ORDER BY " + String.join(direction + ", ", keys) + direction + " LIMIT ?";
+    }
+
+    /**
+     * Builds the WHERE clause of {@link #query}: the filter's condition and the keyset
+     * condition, either of which may be absent.
+     *
+     * @param keys The columns rows are ordered on
+     * @param filter The filter
+     * @param after The key of the last row already read, or null
+     * @return The clause with a leading space, or an empty string
+     */
+    static String where(String[] keys, TableFilter filter, Object[] after) {
+        String condition = filter.condition();
+        String keyset = after == null ? null : keysetPredicate(keys, after, 0, filter.isDescending());
+        if (condition == null && keyset == null) {
+            return "";
+        }
+        if (condition == null || keyset == null) {
+            return " WHERE " + (condition != null ? condition : keyset);
+        }
+        return " WHERE " + condition + " AND " + keyset;
+    }
+
+    /**
+     * Binds the parameters of a {@link #where} clause, starting at the first parameter.
+     *
+     * @param pstmt The statement to bind
+     * @param filter The filter
+     * @param after The key of the last row already read, or null
+     * @return The index of the next parameter to bind
+     * @throws SQLException if a value cannot be bound
+     */
+    static int bind(PreparedStatement pstmt, TableFilter filter, Object[] after) throws SQLException {
+        int index = filter.bind(pstmt, 1);
+        if (after != null) {
+            for (int i = 0; i < after.length; i++) {
+                if (after[i] == null) {
+                    continue; // Compared with IS NULL / IS NOT NULL, which take no parameter
+                }
+                pstmt.setObject(index++, after[i]);
+                if (i < after.length - 1) {
+                    pstmt.setObject(index++, after[i]);
+                }
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Builds the condition selecting rows whose key sorts after a given key, e.g.
+     * {@code (a > ? OR (a = ? AND b > ?))} for the key columns a and b.
+     *
+     * <p>A sort column may hold NULLs, which MySQL sorts first in ascending order and
+     * last in descending order, and which never compare equal with {@code =}, so a NULL
+     * in the last row's key is compared with {@code IS NULL} / {@code IS NOT NULL} instead.
+     *
+     * @param keys The key columns, most significant first
+     * @param after The key of the last row already read
+     * @param from The first key column to include
+     * @param descending Whether rows are in descending order
+     * @return The condition, with placeholders in the order {@link #bind} fills them
+     */
+    private static String keysetPredicate(String[] keys, Object[] after, int from, boolean descending) {
+        String key = keys[from];
+        boolean isNull = after[from] == null;
+        String beyond;
+        if (descending) {
+            beyond = isNull ? "FALSE" : "(" + key + " < ? OR " + key + " IS NULL)";
+        } else {
+            beyond = isNull ? key + " IS NOT NULL" : key + " > ?";
+        }
+        if (from == keys.length - 1) {
+            return beyond;
+        }
+        String equal = isNull ? key + " IS NULL" : key + " = ?";
+        return "(" + beyond + " OR (" + equal + " AND " + keysetPredicate(keys, after, from + 1, descending) + "))";
+    }
+}